@@ -0,0 +1,228 @@
+package com.example.demo.config;
+
+import com.example.demo.handlers.exceptions.model.ExceptionHandlerResponseDTO;
+import com.example.demo.services.TokenBucketTable;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Throttles {@code POST /api/auth/login} per client IP and per username before the request
+ * reaches the controller, so rejected attempts cost neither a database lookup nor a BCrypt
+ * hash. Rejections are answered with 429 and {@code Retry-After}. At most {@code MAX_BODY_BYTES}
+ * of the body are read; a larger login request is answered with 413.
+ */
+@Component
+public class LoginRateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(LoginRateLimitFilter.class);
+    private static final String LOGIN_PATH = "/api/auth/login";
+    private static final int MAX_BODY_BYTES = 8192;
+
+    private final ObjectMapper objectMapper;
+    private final TokenBucketTable ipBuckets;
+    private final TokenBucketTable userBuckets;
+    private final Counter throttledByIp;
+    private final Counter throttledByUser;
+
+    @Autowired
+    public LoginRateLimitFilter(ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.auth.rate-limit.ip.per-minute:60}") int ipPerMinute,
+                                @Value("${app.auth.rate-limit.ip.burst:20}") int ipBurst,
+                                @Value("${app.auth.rate-limit.user.per-minute:10}") int userPerMinute,
+                                @Value("${app.auth.rate-limit.user.burst:5}") int userBurst,
+                                @Value("${app.auth.rate-limit.max-buckets:100000}") int maxBuckets,
+                                @Value("${app.auth.rate-limit.stripes:16}") int stripes) {
+        this(objectMapper, meterRegistry, ipPerMinute, ipBurst, userPerMinute, userBurst, maxBuckets, stripes,
+                System::nanoTime);
+    }
+
+    LoginRateLimitFilter(ObjectMapper objectMapper, MeterRegistry meterRegistry, int ipPerMinute, int ipBurst,
+                         int userPerMinute, int userBurst, int maxBuckets, int stripes, LongSupplier nanoClock) {
+        this.objectMapper = objectMapper;
+        this.ipBuckets = new TokenBucketTable(ipPerMinute, ipBurst, maxBuckets, stripes, nanoClock);
+        this.userBuckets = new TokenBucketTable(userPerMinute, userBurst, maxBuckets, stripes, nanoClock);
+        this.throttledByIp = Counter.builder("auth.login.throttled").tag("key", "ip").register(meterRegistry);
+        this.throttledByUser = Counter.builder("auth.login.throttled").tag("key", "user").register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !("POST".equals(request.getMethod()) && LOGIN_PATH.equals(request.getServletPath()));
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        String ip = clientIp(request);
+        long wait = ipBuckets.tryAcquire("ip:" + ip);
+        if (wait > 0) {
+            throttledByIp.increment();
+            reject(request, response, wait);
+            return;
+        }
+
+        if (request.getContentLengthLong() > MAX_BODY_BYTES) {
+            tooLarge(request, response);
+            return;
+        }
+        // Content-Length may be absent (chunked), so never read more than one byte past the limit.
+        byte[] body = request.getInputStream().readNBytes(MAX_BODY_BYTES + 1);
+        if (body.length > MAX_BODY_BYTES) {
+            tooLarge(request, response);
+            return;
+        }
+
+        String username = username(body);
+        if (username != null) {
+            wait = userBuckets.tryAcquire("user:" + username.toLowerCase(Locale.ROOT));
+            if (wait > 0) {
+                throttledByUser.increment();
+                log.warn("Throttled login for user {} from {}", username, ip);
+                reject(request, response, wait);
+                return;
+            }
+        }
+
+        filterChain.doFilter(new CachedBodyRequest(request, body), response);
+    }
+
+    /**
+     * The address Traefik appended to {@code X-Forwarded-For}, i.e. its last entry. Earlier
+     * entries come from the client and cannot be trusted.
+     */
+    private static String clientIp(HttpServletRequest request) {
+        String forwarded = request.getHeader("X-Forwarded-For");
+        if (forwarded == null || forwarded.isBlank()) {
+            return request.getRemoteAddr();
+        }
+        return forwarded.substring(forwarded.lastIndexOf(',') + 1).trim();
+    }
+
+    private String username(byte[] body) {
+        try {
+            JsonNode username = objectMapper.readTree(body).path("username");
+            return username.isTextual() && !username.asText().isBlank() ? username.asText() : null;
+        } catch (IOException e) {
+            // Malformed JSON is rejected with 400 by the controller.
+            return null;
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+        writeError(request, response, HttpStatus.TOO_MANY_REQUESTS, "Too many login attempts",
+                "Retry after " + retryAfter + " s");
+    }
+
+    private void tooLarge(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        writeError(request, response, HttpStatus.PAYLOAD_TOO_LARGE, "Login request too large",
+                "At most " + MAX_BODY_BYTES + " bytes are accepted");
+    }
+
+    private void writeError(HttpServletRequest request, HttpServletResponse response, HttpStatus status,
+                            String message, String detail) throws IOException {
+        var body = new ExceptionHandlerResponseDTO(
+                "login",
+                status.getReasonPhrase(),
+                status.value(),
+                message,
+                List.of(detail),
+                "uri=" + request.getRequestURI()
+        );
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    /** Replays the body the filter already read, so the controller can still bind it. */
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
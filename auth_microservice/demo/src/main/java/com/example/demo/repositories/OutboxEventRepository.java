@@ -0,0 +1,24 @@
+package com.example.demo.repositories;
+
+import com.example.demo.entities.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Takes the relay lock until the current transaction ends; false if another replica's relay holds it.
+     * Only one relay may publish at a time, otherwise two replicas could send one entity's events out of order.
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(hashtext('outbox_events'))", nativeQuery = true)
+    boolean tryLockRelay();
+
+    /**
+     * Oldest pending events, locked for the current transaction. Call with the relay lock held.
+     */
+    @Query(value = "SELECT * FROM outbox_events ORDER BY id LIMIT :limit FOR UPDATE", nativeQuery = true)
+    List<OutboxEvent> lockOldest(@Param("limit") int limit);
+}
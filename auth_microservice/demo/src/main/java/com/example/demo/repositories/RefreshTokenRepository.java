@@ -2,15 +2,31 @@ package com.example.demo.repositories;
 
 import com.example.demo.entities.RefreshToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID> {
 
-    Optional<RefreshToken> findByToken(String token);
+    List<RefreshToken> findByExpiryDateAfter(Instant instant);
 
     void deleteByUserId(UUID userId);
-}
\ No newline at end of file
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.token IN :tokens")
+    int deleteByTokenIn(@Param("tokens") Collection<String> tokens);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.expiryDate <= :instant")
+    int deleteExpired(@Param("instant") Instant instant);
+}
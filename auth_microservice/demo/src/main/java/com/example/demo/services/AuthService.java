@@ -4,6 +4,7 @@ import com.example.demo.config.RabbitConfig;
 import com.example.demo.dtos.AuthResponseDTO;
 import com.example.demo.dtos.LoginRequestDTO;
 import com.example.demo.dtos.RegisterRequestDTO;
+import com.example.demo.dtos.SyncEvent;
 import com.example.demo.entities.RefreshToken;
 import com.example.demo.entities.UserCredential;
 import com.example.demo.handlers.exceptions.model.CustomException;
@@ -11,16 +12,12 @@ import com.example.demo.handlers.exceptions.model.TokenRefreshException;
 import com.example.demo.repositories.UserCredentialRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import reactor.core.publisher.Mono;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -28,24 +25,26 @@ public class AuthService {
 
     private static final Logger log = LoggerFactory.getLogger(AuthService.class);
     private final UserCredentialRepository userCredentialRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtService jwtService;
     private final RefreshTokenService refreshTokenService;
-    private final RabbitTemplate rabbitTemplate;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
 
     public AuthService(UserCredentialRepository userCredentialRepository,
-                       PasswordEncoder passwordEncoder,
+                       PasswordHashingService passwordHashingService,
                        JwtService jwtService,
                        RefreshTokenService refreshTokenService,
-                       RabbitTemplate rabbitTemplate) {
+                       OutboxService outboxService,
+                       TransactionTemplate transactionTemplate) {
         this.userCredentialRepository = userCredentialRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
         this.jwtService = jwtService;
         this.refreshTokenService = refreshTokenService;
-        this.rabbitTemplate = rabbitTemplate;
+        this.outboxService = outboxService;
+        this.transactionTemplate = transactionTemplate;
     }
 
-    @Transactional
     public Mono<Void> register(RegisterRequestDTO registerRequest) {
         return Mono.fromRunnable(() -> {
             if (userCredentialRepository.findByUsername(registerRequest.getUsername()).isPresent()) {
@@ -54,28 +53,22 @@ public class AuthService {
 
             UUID userId = UUID.randomUUID();
 
+            // Hash before opening the transaction so no connection is held while waiting for it.
             UserCredential credential = new UserCredential(
                     userId,
                     registerRequest.getUsername(),
-                    passwordEncoder.encode(registerRequest.getPassword()),
+                    passwordHashingService.encode(registerRequest.getPassword()),
                     registerRequest.getRole()
             );
-            userCredentialRepository.save(credential);
-
-            Map<String, Object> syncMsg = new HashMap<>();
-            syncMsg.put("action", "create_user");
-            syncMsg.put("userId", userId.toString());
-            syncMsg.put("username", registerRequest.getUsername());
-            syncMsg.put("name", registerRequest.getName());
-            syncMsg.put("email", registerRequest.getEmail());
-            syncMsg.put("role", registerRequest.getRole());
-
-            try {
-                rabbitTemplate.convertAndSend(RabbitConfig.EXCHANGE_NAME, "", syncMsg);
-                log.info("Published create_user event for user: {}", userId);
-            } catch (Exception e) {
-                log.error("Failed to publish sync message", e);
-            }
+
+            SyncEvent event = SyncEvent.userUpserted(userId, registerRequest.getUsername(),
+                    registerRequest.getName(), registerRequest.getEmail(), registerRequest.getRole());
+
+            transactionTemplate.executeWithoutResult(status -> {
+                userCredentialRepository.save(credential);
+                outboxService.enqueue(RabbitConfig.EXCHANGE_NAME, "", event);
+            });
+            log.info("Queued create_user event for user: {}", userId);
         });
     }
 
@@ -83,7 +76,7 @@ public class AuthService {
         return Mono.justOrEmpty(userCredentialRepository.findByUsername(loginRequest.getUsername()))
                 .switchIfEmpty(Mono.error(new CustomException("Invalid credentials", HttpStatus.UNAUTHORIZED, "login", List.of("User not found"))))
                 .flatMap(creds -> {
-                    if (!passwordEncoder.matches(loginRequest.getPassword(), creds.getPassword())) {
+                    if (!passwordHashingService.matches(loginRequest.getPassword(), creds.getPassword())) {
                         return Mono.error(new CustomException("Invalid credentials", HttpStatus.UNAUTHORIZED, "login", List.of("Invalid password")));
                     }
 
@@ -122,9 +115,8 @@ public class AuthService {
         });
     }
 
-    @Transactional
     public Mono<Void> deleteUser(UUID userId) {
-        return Mono.fromRunnable(() -> {
+        return Mono.fromRunnable(() -> transactionTemplate.executeWithoutResult(status -> {
             if (userCredentialRepository.existsById(userId)) {
                 userCredentialRepository.deleteById(userId);
                 log.info("Deleted credentials for user: {}", userId);
@@ -132,16 +124,8 @@ public class AuthService {
                 log.warn("User {} not found in Auth DB, sending sync event anyway.", userId);
             }
 
-            Map<String, Object> syncMsg = new HashMap<>();
-            syncMsg.put("action", "delete_user");
-            syncMsg.put("userId", userId.toString());
-
-            try {
-                rabbitTemplate.convertAndSend(RabbitConfig.EXCHANGE_NAME, "", syncMsg);
-                log.info("Published delete_user event for user: {}", userId);
-            } catch (Exception e) {
-                log.error("Failed to publish sync message", e);
-            }
-        });
+            outboxService.enqueue(RabbitConfig.EXCHANGE_NAME, "", SyncEvent.userDeleted(userId));
+            log.info("Queued delete_user event for user: {}", userId);
+        }));
     }
 }
\ No newline at end of file
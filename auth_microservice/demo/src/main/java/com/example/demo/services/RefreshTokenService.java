@@ -3,28 +3,73 @@ package com.example.demo.services;
 import com.example.demo.entities.RefreshToken;
 import com.example.demo.handlers.exceptions.model.TokenRefreshException;
 import com.example.demo.repositories.RefreshTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Refresh tokens, stored in {@code refresh_tokens} and indexed in memory. The index is loaded at
+ * startup and kept in step by every write made here, so {@link #findByToken} never reads the
+ * database. A {@link TimerWheel} ticking every {@code app.refresh-token.wheel-tick-ms} drops
+ * expired tokens from the index and deletes them in batches, keeping the table to live sessions.
+ * <p>
+ * The index belongs to this replica: with several auth replicas a token would only be known
+ * where it was issued, so the service is deployed as a single replica.
+ */
 @Service
 public class RefreshTokenService {
 
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+    private static final int DELETE_BATCH_SIZE = 500;
+
     @Value("${app.jwt.refresh-expiration-ms}")
     private Long refreshTokenDurationMs;
 
     private final RefreshTokenRepository refreshTokenRepository;
+    private final Map<String, RefreshToken> byToken = new ConcurrentHashMap<>();
+    private final Map<UUID, Set<String>> byUser = new ConcurrentHashMap<>();
+    private final TimerWheel<String> expiries;
+    private final Counter expiredTokens;
 
-    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository) {
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.refresh-token.wheel-tick-ms:1000}") long wheelTickMs) {
         this.refreshTokenRepository = refreshTokenRepository;
+        this.expiries = new TimerWheel<>(wheelTickMs, System.currentTimeMillis());
+        this.expiredTokens = Counter.builder("auth.refresh_tokens.expired")
+                .description("Refresh tokens removed by the expiry wheel")
+                .register(meterRegistry);
+        Gauge.builder("auth.refresh_tokens.active", byToken, Map::size)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void loadActiveTokens() {
+        Instant now = Instant.now();
+        int purged = refreshTokenRepository.deleteExpired(now);
+        List<RefreshToken> active = refreshTokenRepository.findByExpiryDateAfter(now);
+        active.forEach(this::index);
+        log.info("Loaded {} active refresh tokens, purged {} expired", active.size(), purged);
     }
 
     public Optional<RefreshToken> findByToken(String token) {
-        return refreshTokenRepository.findByToken(token);
+        return Optional.ofNullable(byToken.get(token));
     }
 
     public RefreshToken createRefreshToken(UUID userId, String username) {
@@ -36,12 +81,14 @@ public class RefreshTokenService {
         refreshToken.setToken(UUID.randomUUID().toString());
 
         refreshToken = refreshTokenRepository.save(refreshToken);
+        index(refreshToken);
         return refreshToken;
     }
 
     public RefreshToken verifyExpiration(RefreshToken token) {
         if (token.getExpiryDate().compareTo(Instant.now()) < 0) {
-            refreshTokenRepository.delete(token);
+            unindex(token.getToken());
+            refreshTokenRepository.deleteByTokenIn(List.of(token.getToken()));
             throw new TokenRefreshException(token.getToken(), "Refresh token was expired. Please make a new signin request");
         }
         return token;
@@ -50,5 +97,53 @@ public class RefreshTokenService {
     @Transactional
     public void deleteByUserId(UUID userId) {
         refreshTokenRepository.deleteByUserId(userId);
+        Set<String> tokens = byUser.remove(userId);
+        if (tokens != null) {
+            tokens.forEach(token -> {
+                byToken.remove(token);
+                expiries.cancel(token);
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.refresh-token.wheel-tick-ms:1000}")
+    public void expireTokens() {
+        List<String> expired = expiries.advance(System.currentTimeMillis());
+        if (expired.isEmpty()) {
+            return;
+        }
+        expired.forEach(this::unindex);
+        for (int from = 0; from < expired.size(); from += DELETE_BATCH_SIZE) {
+            List<String> batch = new ArrayList<>(expired.subList(from, Math.min(expired.size(), from + DELETE_BATCH_SIZE)));
+            try {
+                refreshTokenRepository.deleteByTokenIn(batch);
+            } catch (Exception e) {
+                // The rows are purged at the next startup.
+                log.error("Failed to delete {} expired refresh tokens", batch.size(), e);
+            }
+        }
+        expiredTokens.increment(expired.size());
+        log.debug("Expired {} refresh tokens", expired.size());
+    }
+
+    private void index(RefreshToken refreshToken) {
+        byToken.put(refreshToken.getToken(), refreshToken);
+        byUser.compute(refreshToken.getUserId(), (userId, tokens) -> {
+            Set<String> result = tokens != null ? tokens : ConcurrentHashMap.newKeySet();
+            result.add(refreshToken.getToken());
+            return result;
+        });
+        expiries.schedule(refreshToken.getToken(), refreshToken.getExpiryDate().toEpochMilli());
+    }
+
+    private void unindex(String token) {
+        RefreshToken removed = byToken.remove(token);
+        expiries.cancel(token);
+        if (removed != null) {
+            byUser.computeIfPresent(removed.getUserId(), (userId, tokens) -> {
+                tokens.remove(token);
+                return tokens.isEmpty() ? null : tokens;
+            });
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,124 @@
+package com.example.demo.services;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hierarchical timing wheel: four levels of 64 slots, where a slot of level {@code n} spans
+ * {@code 64^n} ticks. Scheduling and cancelling are O(1). {@link #advance} visits each elapsed
+ * tick once, moving the due slot of a higher level down into finer ones and returning the keys
+ * whose deadline has passed. With one-second ticks the wheel covers about 194 days; later
+ * deadlines park in the top level and are re-placed each time their slot comes round.
+ * <p>
+ * Methods are synchronized; the critical sections only touch in-memory collections.
+ */
+public class TimerWheel<K> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int LEVELS = 4;
+
+    private final long tickMillis;
+    private final List<List<Set<K>>> levels = new ArrayList<>();
+    private final Map<K, Entry<K>> entries = new HashMap<>();
+    private long currentTick;
+
+    public TimerWheel(long tickMillis, long nowMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = nowMillis / tickMillis;
+        for (int level = 0; level < LEVELS; level++) {
+            List<Set<K>> slots = new ArrayList<>(SLOTS);
+            for (int slot = 0; slot < SLOTS; slot++) {
+                slots.add(new HashSet<>());
+            }
+            levels.add(slots);
+        }
+    }
+
+    /** Schedules {@code key} to expire at {@code deadlineMillis}, replacing any earlier deadline. */
+    public synchronized void schedule(K key, long deadlineMillis) {
+        cancel(key);
+        Entry<K> entry = new Entry<>(key, Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis));
+        entries.put(key, entry);
+        place(entry);
+    }
+
+    public synchronized void cancel(K key) {
+        Entry<K> entry = entries.remove(key);
+        if (entry != null && entry.slot != null) {
+            entry.slot.remove(key);
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /** Moves the wheel to {@code nowMillis} and returns the keys that expired on the way. */
+    public synchronized List<K> advance(long nowMillis) {
+        List<K> expired = new ArrayList<>();
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    replaceAll(slotAt(level, currentTick), expired);
+                }
+            }
+            replaceAll(slotAt(0, currentTick), expired);
+        }
+        return expired;
+    }
+
+    private void replaceAll(Set<K> slot, List<K> expired) {
+        if (slot.isEmpty()) {
+            return;
+        }
+        List<K> keys = new ArrayList<>(slot);
+        slot.clear();
+        for (K key : keys) {
+            Entry<K> entry = entries.get(key);
+            entry.slot = null;
+            if (entry.deadlineTick <= currentTick) {
+                entries.remove(key);
+                expired.add(key);
+            } else {
+                place(entry);
+            }
+        }
+    }
+
+    private void place(Entry<K> entry) {
+        long delta = entry.deadlineTick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        // Already due: the next tick's level-0 slot picks it up.
+        long tick = Math.max(entry.deadlineTick, currentTick + 1);
+        entry.slot = slotAt(level, tick);
+        entry.slot.add(entry.key);
+    }
+
+    private Set<K> slotAt(int level, long tick) {
+        return levels.get(level).get((int) ((tick >>> (SLOT_BITS * level)) & (SLOTS - 1)));
+    }
+
+    private static final class Entry<K> {
+        private final K key;
+        private final long deadlineTick;
+        private Set<K> slot;
+
+        private Entry(K key, long deadlineTick) {
+            this.key = key;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.demo.services;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets keyed by string, refilled at {@code perMinute} tokens a minute up to
+ * {@code burst}. Each bucket is a single {@link AtomicLong} holding the time at which it will be
+ * full again (the generic cell rate algorithm), so taking a token is one CAS and needs no lock.
+ * <p>
+ * Keys are spread over {@code stripeCount} stripes (rounded down to a power of two), each a
+ * {@link ConcurrentHashMap} with at most {@code maxBuckets / stripes} entries. When a stripe is
+ * full, buckets that have refilled
+ * completely are dropped first, which loses nothing; if that is not enough, arbitrary buckets
+ * are dropped, which only gives those keys a fresh burst.
+ */
+public class TokenBucketTable {
+
+    private final long intervalNanos;
+    private final long capacityNanos;
+    private final int maxPerStripe;
+    private final ConcurrentHashMap<String, AtomicLong>[] stripes;
+    private final LongSupplier nanoClock;
+
+    public TokenBucketTable(int perMinute, int burst, int maxBuckets, int stripeCount) {
+        this(perMinute, burst, maxBuckets, stripeCount, System::nanoTime);
+    }
+
+    /** {@code nanoClock} replaces {@link System#nanoTime()}, for tests. */
+    @SuppressWarnings("unchecked")
+    public TokenBucketTable(int perMinute, int burst, int maxBuckets, int stripeCount, LongSupplier nanoClock) {
+        if (perMinute <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("perMinute and burst must be positive");
+        }
+        this.intervalNanos = 60_000_000_000L / perMinute;
+        this.capacityNanos = intervalNanos * burst;
+        int stripesPow2 = Integer.highestOneBit(Math.max(1, stripeCount));
+        this.maxPerStripe = Math.max(1, maxBuckets / stripesPow2);
+        this.stripes = new ConcurrentHashMap[stripesPow2];
+        for (int i = 0; i < stripesPow2; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Takes one token for {@code key}.
+     *
+     * @return 0 if a token was taken, otherwise the nanoseconds until one will be available
+     */
+    public long tryAcquire(String key) {
+        long now = nanoClock.getAsLong();
+        ConcurrentHashMap<String, AtomicLong> stripe = stripeFor(key);
+        AtomicLong fullAt = stripe.get(key);
+        if (fullAt == null) {
+            if (stripe.size() >= maxPerStripe) {
+                evict(stripe, now);
+            }
+            fullAt = stripe.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long wait = next - now - capacityNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Map<String, AtomicLong> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    private ConcurrentHashMap<String, AtomicLong> stripeFor(String key) {
+        int h = key.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (stripes.length - 1)];
+    }
+
+    private void evict(ConcurrentHashMap<String, AtomicLong> stripe, long now) {
+        stripe.values().removeIf(fullAt -> fullAt.get() - now <= 0);
+        // Still full: drop an eighth so the next few new keys do not scan again.
+        Iterator<String> it = stripe.keySet().iterator();
+        int target = maxPerStripe - Math.max(1, maxPerStripe / 8);
+        while (stripe.size() > target && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+}
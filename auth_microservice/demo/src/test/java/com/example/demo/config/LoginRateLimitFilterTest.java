@@ -0,0 +1,167 @@
+package com.example.demo.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoginRateLimitFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void throttlesAnIpOnceItsBurstIsSpent() throws Exception {
+        LoginRateLimitFilter filter = filter(60, 2, 1000, 1000);
+
+        assertThat(login(filter, "10.0.0.1", "alice").getStatus()).isEqualTo(200);
+        assertThat(login(filter, "10.0.0.1", "bob").getStatus()).isEqualTo(200);
+        MockHttpServletResponse throttled = login(filter, "10.0.0.1", "carol");
+
+        assertThat(throttled.getStatus()).isEqualTo(429);
+        assertThat(throttled.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(login(filter, "10.0.0.2", "carol").getStatus()).isEqualTo(200);
+        assertThat(throttledCount("ip")).isEqualTo(1);
+    }
+
+    @Test
+    void throttlesAUsernameAcrossIpsIgnoringCase() throws Exception {
+        LoginRateLimitFilter filter = filter(1000, 1000, 60, 2);
+
+        assertThat(login(filter, "10.0.0.1", "alice").getStatus()).isEqualTo(200);
+        assertThat(login(filter, "10.0.0.2", "Alice").getStatus()).isEqualTo(200);
+
+        assertThat(login(filter, "10.0.0.3", "ALICE").getStatus()).isEqualTo(429);
+        assertThat(login(filter, "10.0.0.3", "bob").getStatus()).isEqualTo(200);
+        assertThat(throttledCount("user")).isEqualTo(1);
+    }
+
+    @Test
+    void refillsOneTokenPerInterval() throws Exception {
+        LoginRateLimitFilter filter = filter(60, 1, 1000, 1000);
+
+        assertThat(login(filter, "10.0.0.1", "alice").getStatus()).isEqualTo(200);
+        assertThat(login(filter, "10.0.0.1", "alice").getStatus()).isEqualTo(429);
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(999));
+        assertThat(login(filter, "10.0.0.1", "alice").getStatus()).isEqualTo(429);
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        assertThat(login(filter, "10.0.0.1", "alice").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void keysTheIpOnTheLastForwardedForEntry() throws Exception {
+        LoginRateLimitFilter filter = filter(60, 1, 1000, 1000);
+
+        MockHttpServletRequest first = request("alice");
+        first.addHeader("X-Forwarded-For", "1.1.1.1, 10.0.0.1");
+        MockHttpServletRequest spoofed = request("bob");
+        spoofed.addHeader("X-Forwarded-For", "2.2.2.2, 10.0.0.1");
+
+        assertThat(run(filter, first).getStatus()).isEqualTo(200);
+        assertThat(run(filter, spoofed).getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    void passesTheBodyOnToTheController() throws Exception {
+        LoginRateLimitFilter filter = filter(60, 5, 60, 5);
+        MockFilterChain chain = new MockFilterChain();
+
+        MockHttpServletRequest request = request("alice");
+        request.setRemoteAddr("10.0.0.1");
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        ServletRequest forwarded = chain.getRequest();
+        assertThat(new String(forwarded.getInputStream().readAllBytes(), StandardCharsets.UTF_8))
+                .isEqualTo(body("alice"));
+    }
+
+    @Test
+    void rejectsAnOversizedBodyWithoutReadingItAll() throws Exception {
+        LoginRateLimitFilter filter = filter(60, 5, 60, 5);
+        byte[] huge = new byte[1 << 20];
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login") {
+            @Override
+            public long getContentLengthLong() {
+                // As for a chunked request: the size is only known by reading.
+                return -1;
+            }
+        };
+        request.setServletPath("/api/auth/login");
+        request.setContent(huge);
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(413);
+        assertThat(chain.getRequest()).isNull();
+        assertThat(request.getInputStream().available()).isPositive();
+    }
+
+    @Test
+    void rejectsADeclaredOversizedBodyBeforeReading() throws Exception {
+        LoginRateLimitFilter filter = filter(60, 5, 60, 5);
+        MockHttpServletRequest request = request("alice");
+        request.setContent(new byte[100_000]);
+
+        MockHttpServletResponse response = run(filter, request);
+
+        assertThat(response.getStatus()).isEqualTo(413);
+        assertThat(request.getInputStream().available()).isEqualTo(100_000);
+    }
+
+    @Test
+    void leavesOtherEndpointsAlone() throws Exception {
+        LoginRateLimitFilter filter = filter(60, 1, 60, 1);
+
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/register");
+            request.setServletPath("/api/auth/register");
+            request.setRemoteAddr("10.0.0.1");
+            assertThat(run(filter, request).getStatus()).isEqualTo(200);
+        }
+    }
+
+    private LoginRateLimitFilter filter(int ipPerMinute, int ipBurst, int userPerMinute, int userBurst) {
+        return new LoginRateLimitFilter(new ObjectMapper(), registry, ipPerMinute, ipBurst,
+                userPerMinute, userBurst, 1000, 4, clock::get);
+    }
+
+    private MockHttpServletResponse login(LoginRateLimitFilter filter, String ip, String username) throws Exception {
+        MockHttpServletRequest request = request(username);
+        request.setRemoteAddr(ip);
+        return run(filter, request);
+    }
+
+    private static MockHttpServletResponse run(LoginRateLimitFilter filter, MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String username) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setServletPath("/api/auth/login");
+        request.setContentType("application/json");
+        request.setContent(body(username).getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private static String body(String username) {
+        return "{\"username\":\"" + username + "\",\"password\":\"secret\"}";
+    }
+
+    private double throttledCount(String key) {
+        return registry.get("auth.login.throttled").tag("key", key).counter().count();
+    }
+}
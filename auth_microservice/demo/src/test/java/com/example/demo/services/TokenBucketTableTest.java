@@ -0,0 +1,71 @@
+package com.example.demo.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTableTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong(1_000 * SECOND);
+
+    @Test
+    void allowsTheBurstThenReportsTheWait() {
+        TokenBucketTable table = new TokenBucketTable(60, 3, 100, 1, clock::get);
+
+        assertThat(table.tryAcquire("k")).isZero();
+        assertThat(table.tryAcquire("k")).isZero();
+        assertThat(table.tryAcquire("k")).isZero();
+
+        assertThat(table.tryAcquire("k")).isEqualTo(SECOND);
+        clock.addAndGet(SECOND / 4);
+        assertThat(table.tryAcquire("k")).isEqualTo(3 * SECOND / 4);
+    }
+
+    @Test
+    void refillsAtTheConfiguredRateUpToTheBurst() {
+        TokenBucketTable table = new TokenBucketTable(60, 2, 100, 1, clock::get);
+        table.tryAcquire("k");
+        table.tryAcquire("k");
+
+        clock.addAndGet(SECOND);
+        assertThat(table.tryAcquire("k")).isZero();
+        assertThat(table.tryAcquire("k")).isPositive();
+
+        // A long pause refills the bucket to the burst, not beyond it.
+        clock.addAndGet(60 * SECOND);
+        assertThat(table.tryAcquire("k")).isZero();
+        assertThat(table.tryAcquire("k")).isZero();
+        assertThat(table.tryAcquire("k")).isPositive();
+    }
+
+    @Test
+    void keysHaveIndependentBuckets() {
+        TokenBucketTable table = new TokenBucketTable(60, 1, 100, 4, clock::get);
+
+        assertThat(table.tryAcquire("a")).isZero();
+        assertThat(table.tryAcquire("a")).isPositive();
+        assertThat(table.tryAcquire("b")).isZero();
+    }
+
+    @Test
+    void staysWithinMaxBucketsAndEvictsRefilledBucketsFirst() {
+        TokenBucketTable table = new TokenBucketTable(60, 1, 8, 1, clock::get);
+        for (int i = 0; i < 8; i++) {
+            table.tryAcquire("old-" + i);
+        }
+        clock.addAndGet(SECOND);
+        table.tryAcquire("hot");
+
+        table.tryAcquire("new");
+        assertThat(table.tryAcquire("hot")).isPositive();
+        for (int i = 0; i < 100; i++) {
+            table.tryAcquire("new-" + i);
+            assertThat(table.size()).isLessThanOrEqualTo(8);
+        }
+    }
+}
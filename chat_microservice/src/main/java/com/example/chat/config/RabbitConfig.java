@@ -1,6 +1,13 @@
 package com.example.chat.config;
 
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Base64UrlNamingStrategy;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.FanoutExchange;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.beans.factory.annotation.Value;
@@ -10,6 +17,15 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 public class RabbitConfig {
 
+    /** Cross-node delivery: routing key is the STOMP destination, bound per node while it has subscribers. */
+    public static final String DELIVERY_EXCHANGE = "chat.delivery";
+
+    /** Broadcasts "user came online" to every node so buffered notifications can be flushed. */
+    public static final String PRESENCE_EXCHANGE = "chat.presence";
+
+    /** Each node's set of connected admins, so all nodes assign conversations the same way. */
+    public static final String ADMINS_EXCHANGE = "chat.admins";
+
     @Value("${app.queue.notification}")
     private String notificationQueue;
 
@@ -18,8 +34,58 @@ public class RabbitConfig {
         return new Queue(notificationQueue, true);
     }
 
+    @Value("${app.queue.chat-history}")
+    private String chatHistoryQueue;
+
+    /** Single active consumer: only one replica at a time appends to the shared history directory. */
+    @Bean
+    public Queue chatHistoryQueue() {
+        return QueueBuilder.durable(chatHistoryQueue).singleActiveConsumer().build();
+    }
+
+    @Bean
+    public DirectExchange chatDeliveryExchange() {
+        return new DirectExchange(DELIVERY_EXCHANGE);
+    }
+
+    /** This node's inbox; exclusive and auto-deleted, so it disappears with the instance. */
+    @Bean
+    public Queue chatDeliveryQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy("chat.delivery."));
+    }
+
+    @Bean
+    public FanoutExchange chatPresenceExchange() {
+        return new FanoutExchange(PRESENCE_EXCHANGE);
+    }
+
+    @Bean
+    public Queue chatPresenceQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy("chat.presence."));
+    }
+
+    @Bean
+    public Binding chatPresenceBinding(Queue chatPresenceQueue, FanoutExchange chatPresenceExchange) {
+        return BindingBuilder.bind(chatPresenceQueue).to(chatPresenceExchange);
+    }
+
+    @Bean
+    public FanoutExchange chatAdminsExchange() {
+        return new FanoutExchange(ADMINS_EXCHANGE);
+    }
+
+    @Bean
+    public Queue chatAdminsQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy("chat.admins."));
+    }
+
+    @Bean
+    public Binding chatAdminsBinding(Queue chatAdminsQueue, FanoutExchange chatAdminsExchange) {
+        return BindingBuilder.bind(chatAdminsQueue).to(chatAdminsExchange);
+    }
+
     @Bean
     public MessageConverter jsonMessageConverter() {
         return new Jackson2JsonMessageConverter();
     }
-}
\ No newline at end of file
+}
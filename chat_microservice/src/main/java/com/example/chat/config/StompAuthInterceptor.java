@@ -0,0 +1,69 @@
+package com.example.chat.config;
+
+import com.example.chat.dtos.ChatUser;
+import com.example.chat.services.JwtService;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reads {@code Authorization: Bearer <jwt>} from the STOMP CONNECT frame and, if the token verifies,
+ * attaches a {@link ChatUser} to the session. Sessions without a valid token stay anonymous; they can
+ * still chat, but not read history.
+ * <p>
+ * Subscribing to {@code /topic/admin} or {@code /topic/admin/{id}} is what makes a session an online
+ * admin, so those SUBSCRIBE frames are rejected unless the session's user is an admin and, for
+ * {@code /topic/admin/{id}}, {@code id} is that admin's own id.
+ */
+@Component
+public class StompAuthInterceptor implements ChannelInterceptor {
+
+    private static final String BEARER = "Bearer ";
+    private static final String ADMIN_TOPIC = "/topic/admin";
+
+    private final JwtService jwtService;
+
+    public StompAuthInterceptor(JwtService jwtService) {
+        this.jwtService = jwtService;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null) {
+            return message;
+        }
+        if (accessor.getCommand() == StompCommand.CONNECT) {
+            authenticate(accessor);
+        } else if (accessor.getCommand() == StompCommand.SUBSCRIBE && !maySubscribe(accessor)) {
+            throw new MessagingException(message, "Not allowed to subscribe to " + accessor.getDestination());
+        }
+        return message;
+    }
+
+    private void authenticate(StompHeaderAccessor accessor) {
+        String authorization = accessor.getFirstNativeHeader("Authorization");
+        if (authorization != null && authorization.startsWith(BEARER)) {
+            ChatUser user = jwtService.verify(authorization.substring(BEARER.length()));
+            if (user != null) {
+                accessor.setUser(user);
+            }
+        }
+    }
+
+    private static boolean maySubscribe(StompHeaderAccessor accessor) {
+        String destination = accessor.getDestination();
+        if (destination == null || !(destination.equals(ADMIN_TOPIC) || destination.startsWith(ADMIN_TOPIC + "/"))) {
+            return true;
+        }
+        if (!(accessor.getUser() instanceof ChatUser user) || !user.isAdmin()) {
+            return false;
+        }
+        return destination.equals(ADMIN_TOPIC) || destination.equals(ADMIN_TOPIC + "/" + user.getName());
+    }
+}
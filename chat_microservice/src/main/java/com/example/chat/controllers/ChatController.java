@@ -1,122 +1,63 @@
 package com.example.chat.controllers;
 
 import com.example.chat.dtos.ChatMessage;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import org.springframework.beans.factory.annotation.Value;
+import com.example.chat.services.AdminRouter;
+import com.example.chat.services.AiAssistantClient;
+import com.example.chat.services.ChatHistoryRecorder;
+import com.example.chat.services.ChatRuleEngine;
+import com.example.chat.services.ClusterMessageRelay;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Controller;
-import org.springframework.web.reactive.function.client.WebClient;
-import reactor.core.publisher.Mono;
-
-import java.util.Map;
-import java.util.List;
 
 @Controller
 public class ChatController {
 
-    private final SimpMessagingTemplate messagingTemplate;
-    private final WebClient webClient;
-    private final ObjectMapper objectMapper;
-
-    @Value("${gemini.api.key}")
-    private String geminiApiKey;
-
-    @Value("${gemini.api.url}")
-    private String geminiApiUrl;
-
-    @Value("${gemini.model}")
-    private String modelName;
-    
-    public ChatController(SimpMessagingTemplate messagingTemplate) {
-        this.messagingTemplate = messagingTemplate;
-        this.webClient = WebClient.builder().build();
-        this.objectMapper = new ObjectMapper();
+    private final ClusterMessageRelay messageRelay;
+    private final ChatRuleEngine ruleEngine;
+    private final AiAssistantClient aiAssistant;
+    private final ChatHistoryRecorder historyRecorder;
+    private final AdminRouter adminRouter;
+
+    public ChatController(ClusterMessageRelay messageRelay, ChatRuleEngine ruleEngine,
+                          AiAssistantClient aiAssistant, ChatHistoryRecorder historyRecorder,
+                          AdminRouter adminRouter) {
+        this.messageRelay = messageRelay;
+        this.ruleEngine = ruleEngine;
+        this.aiAssistant = aiAssistant;
+        this.historyRecorder = historyRecorder;
+        this.adminRouter = adminRouter;
     }
 
     @MessageMapping("/chat")
     public void processMessage(@Payload ChatMessage message) {
-        
+        historyRecorder.record(message);
+
         if ("Admin".equalsIgnoreCase(message.getSender())) {
-            messagingTemplate.convertAndSend("/topic/user/" + message.getUserId(), message);
+            messageRelay.send("/topic/user/" + message.getUserId(), message);
             return; 
         }
 
         if (message.isChatWithAdmin()) {
-            messagingTemplate.convertAndSend("/topic/admin", message);
+            adminRouter.route(message);
             return;
         }
 
-        String response = getRuleBasedResponse(message.getContent());
+        String response = ruleEngine.respond(message.getContent());
 
-        if (response == null) {
-            response = getAiResponse(message.getContent());
+        if (response != null) {
+            sendBotReply(message.getUserId(), response);
+            return;
         }
 
-        ChatMessage reply = new ChatMessage("Support Bot", response, message.getUserId(), false);
-        messagingTemplate.convertAndSend("/topic/user/" + message.getUserId(), reply);
+        // The model answer is pushed when it arrives; the inbound channel thread is released right away.
+        aiAssistant.answer(message.getContent())
+                .subscribe(answer -> sendBotReply(message.getUserId(), answer));
     }
 
-    private String getRuleBasedResponse(String content) {
-        if (content == null) return null;
-        String lower = content.toLowerCase();
-
-        if (lower.contains("hello") || lower.contains("hi")) 
-            return "Hello! I am your automated support assistant.";
-        if (lower.contains("login") || lower.contains("password")) 
-            return "To reset your password, please visit the settings page.";
-        if (lower.contains("device") || lower.contains("add")) 
-            return "You can add new devices in the 'My Devices' tab.";
-        if (lower.contains("bill") || lower.contains("cost")) 
-            return "Billing is calculated based on hourly consumption. Check your charts.";
-
-        return null; 
-    }
-
-    private String getAiResponse(String userMessage) {
-        try {
-            Map<String, Object> requestBody = Map.of(
-                "model", modelName,
-                "messages", List.of(
-                    Map.of(
-                        "role", "user", 
-                        "content", "You are a helpful energy management assistant. Answer briefly: " + userMessage
-                    )
-                )
-            );
-
-            String authHeader = geminiApiKey.equals("unused") ? "" : "Bearer " + geminiApiKey;
-
-            String jsonResponse = webClient.post()
-                .uri(geminiApiUrl)
-                .header("Content-Type", "application/json")
-                .header("Authorization", authHeader)
-                .bodyValue(requestBody)
-                .retrieve()
-                .bodyToMono(String.class)
-                .block();
-
-            JsonNode root = objectMapper.readTree(jsonResponse);
-            
-            if (root.has("choices") && root.get("choices").size() > 0) {
-                 return root.path("choices")
-                    .get(0)
-                    .path("message")
-                    .path("content")
-                    .asText();
-            } else if (root.has("message")) {
-                 return root.path("message")
-                    .path("content")
-                    .asText();
-            }
-            
-            return "I received an empty response.";
-
-        } catch (Exception e) {
-            e.printStackTrace();
-            return "I'm having trouble connecting to my AI brain. (Check API Key/Url)";
-        }
+    private void sendBotReply(String userId, String content) {
+        ChatMessage reply = new ChatMessage("Support Bot", content, userId, false);
+        historyRecorder.record(reply);
+        messageRelay.send("/topic/user/" + userId, reply);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,57 @@
+package com.example.chat.controllers;
+
+import com.example.chat.dtos.ChatHistoryEntry;
+import com.example.chat.dtos.ChatHistoryPage;
+import com.example.chat.dtos.ChatUser;
+import com.example.chat.services.ChatHistoryStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
+import org.springframework.stereotype.Controller;
+
+import java.security.Principal;
+import java.util.List;
+
+/**
+ * Replays a conversation to the subscribing session only: {@code SUBSCRIBE /app/history/{userId}}
+ * with an optional {@code since} header (offset to continue from) and {@code limit} header.
+ * Without {@code since} the latest {@code limit} messages are returned.
+ * <p>
+ * Only the conversation's client or an admin may read it; the session's user comes from the JWT
+ * sent with CONNECT (see {@link com.example.chat.config.StompAuthInterceptor}). Replicas read the
+ * history directory directly, so it must be storage all replicas share (one volume in
+ * docker-compose). Replicas with separate local directories would each see only the messages
+ * appended while they held the history queue.
+ */
+@Controller
+public class ChatHistoryController {
+
+    private final ChatHistoryStore historyStore;
+    private final int maxPageSize;
+
+    public ChatHistoryController(ChatHistoryStore historyStore,
+                                 @Value("${app.chat.history.max-page:200}") int maxPageSize) {
+        this.historyStore = historyStore;
+        this.maxPageSize = maxPageSize;
+    }
+
+    @SubscribeMapping("/history/{userId}")
+    public ChatHistoryPage history(@DestinationVariable String userId,
+                                   @Header(name = "since", required = false) Long since,
+                                   @Header(name = "limit", required = false) Integer limit,
+                                   Principal principal) {
+        if (!(principal instanceof ChatUser user) || !(user.isAdmin() || user.getName().equals(userId))) {
+            throw new MessagingException("Not allowed to read the history of " + userId);
+        }
+        int size = limit == null ? 50 : Math.max(0, Math.min(limit, maxPageSize));
+        List<ChatHistoryEntry> messages = since == null
+                ? historyStore.last(userId, size)
+                : historyStore.since(userId, since, size);
+        long next = messages.isEmpty()
+                ? historyStore.endOffset(userId)
+                : messages.get(messages.size() - 1).getOffset() + 1;
+        return new ChatHistoryPage(userId, messages, next);
+    }
+}
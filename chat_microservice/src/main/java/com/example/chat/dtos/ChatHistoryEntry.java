@@ -0,0 +1,34 @@
+package com.example.chat.dtos;
+
+public class ChatHistoryEntry {
+    private long offset;
+    private long timestamp;
+    private String sender;
+    private String content;
+    private boolean chatWithAdmin;
+
+    public ChatHistoryEntry() {}
+
+    public ChatHistoryEntry(long offset, long timestamp, ChatMessage message) {
+        this.offset = offset;
+        this.timestamp = timestamp;
+        this.sender = message.getSender();
+        this.content = message.getContent();
+        this.chatWithAdmin = message.isChatWithAdmin();
+    }
+
+    public long getOffset() { return offset; }
+    public void setOffset(long offset) { this.offset = offset; }
+
+    public long getTimestamp() { return timestamp; }
+    public void setTimestamp(long timestamp) { this.timestamp = timestamp; }
+
+    public String getSender() { return sender; }
+    public void setSender(String sender) { this.sender = sender; }
+
+    public String getContent() { return content; }
+    public void setContent(String content) { this.content = content; }
+
+    public boolean isChatWithAdmin() { return chatWithAdmin; }
+    public void setChatWithAdmin(boolean chatWithAdmin) { this.chatWithAdmin = chatWithAdmin; }
+}
@@ -0,0 +1,30 @@
+package com.example.chat.dtos;
+
+import java.util.List;
+
+/**
+ * A slice of one conversation. {@code nextOffset} is the offset to ask for next
+ * (one past the last returned message, or the conversation end if nothing was returned).
+ */
+public class ChatHistoryPage {
+    private String userId;
+    private List<ChatHistoryEntry> messages;
+    private long nextOffset;
+
+    public ChatHistoryPage() {}
+
+    public ChatHistoryPage(String userId, List<ChatHistoryEntry> messages, long nextOffset) {
+        this.userId = userId;
+        this.messages = messages;
+        this.nextOffset = nextOffset;
+    }
+
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
+    public List<ChatHistoryEntry> getMessages() { return messages; }
+    public void setMessages(List<ChatHistoryEntry> messages) { this.messages = messages; }
+
+    public long getNextOffset() { return nextOffset; }
+    public void setNextOffset(long nextOffset) { this.nextOffset = nextOffset; }
+}
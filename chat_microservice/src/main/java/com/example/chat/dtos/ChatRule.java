@@ -0,0 +1,26 @@
+package com.example.chat.dtos;
+
+import java.util.List;
+
+public class ChatRule {
+    private List<String> keywords;
+    private String response;
+    private int priority;
+
+    public ChatRule() {}
+
+    public ChatRule(List<String> keywords, String response, int priority) {
+        this.keywords = keywords;
+        this.response = response;
+        this.priority = priority;
+    }
+
+    public List<String> getKeywords() { return keywords; }
+    public void setKeywords(List<String> keywords) { this.keywords = keywords; }
+
+    public String getResponse() { return response; }
+    public void setResponse(String response) { this.response = response; }
+
+    public int getPriority() { return priority; }
+    public void setPriority(int priority) { this.priority = priority; }
+}
@@ -0,0 +1,24 @@
+package com.example.chat.dtos;
+
+import java.security.Principal;
+
+/**
+ * The user behind a STOMP session, taken from the JWT sent with CONNECT. The name is the userId,
+ * the same id used in {@code /topic/user/{userId}} and the history destinations.
+ */
+public class ChatUser implements Principal {
+    private final String userId;
+    private final String role;
+
+    public ChatUser(String userId, String role) {
+        this.userId = userId;
+        this.role = role;
+    }
+
+    @Override
+    public String getName() { return userId; }
+
+    public String getRole() { return role; }
+
+    public boolean isAdmin() { return "ADMIN".equals(role); }
+}
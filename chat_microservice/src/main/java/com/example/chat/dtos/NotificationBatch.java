@@ -0,0 +1,33 @@
+package com.example.chat.dtos;
+
+import java.util.List;
+
+/**
+ * Several notifications for one user collapsed into a single websocket frame.
+ * {@code messages} holds only the most recent ones; {@code count} is the full number.
+ */
+public class NotificationBatch {
+    private final String type = "NOTIFICATION_BATCH";
+    private int count;
+    private String summary;
+    private List<String> messages;
+
+    public NotificationBatch() {}
+
+    public NotificationBatch(int count, String summary, List<String> messages) {
+        this.count = count;
+        this.summary = summary;
+        this.messages = messages;
+    }
+
+    public String getType() { return type; }
+
+    public int getCount() { return count; }
+    public void setCount(int count) { this.count = count; }
+
+    public String getSummary() { return summary; }
+    public void setSummary(String summary) { this.summary = summary; }
+
+    public List<String> getMessages() { return messages; }
+    public void setMessages(List<String> messages) { this.messages = messages; }
+}
@@ -0,0 +1,169 @@
+package com.example.chat.services;
+
+import com.example.chat.config.RabbitConfig;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Cluster-wide set of admins with an open session on {@code /topic/admin/{adminId}}.
+ * <p>
+ * Every node publishes the full set of its local admins on {@link RabbitConfig#ADMINS_EXCHANGE}
+ * whenever it changes and every {@code app.chat.admin.heartbeat-ms}. A node's set is dropped when
+ * it has not been refreshed for three heartbeats, so admins of a crashed node go offline too. All
+ * nodes therefore converge on the same set, which {@link AdminRouter} hashes conversations over.
+ */
+@Service
+public class AdminDirectory {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final long heartbeatMs;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ScheduledExecutorService scheduler;
+
+    private final Set<String> localAdmins = new HashSet<>();
+    /** nodeId -> that node's admins, and when they were last announced */
+    private final Map<String, NodeAdmins> nodes = new HashMap<>();
+    private Set<String> online = Set.of();
+    private final List<Consumer<Set<String>>> departureListeners = new CopyOnWriteArrayList<>();
+
+    public AdminDirectory(RabbitTemplate rabbitTemplate, MeterRegistry registry,
+                          @Value("${app.chat.admin.heartbeat-ms:5000}") long heartbeatMs) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.heartbeatMs = heartbeatMs;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "admin-directory");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::heartbeat, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+
+        Gauge.builder("chat.admin.online", this, directory -> directory.onlineAdmins().size())
+                .description("Admins with a session on any chat node")
+                .register(registry);
+    }
+
+    /** Called with the admins that went offline, after they have been removed from the set. */
+    public void addDepartureListener(Consumer<Set<String>> listener) {
+        departureListeners.add(listener);
+    }
+
+    public synchronized Set<String> onlineAdmins() {
+        return online;
+    }
+
+    public void localAdminOnline(String adminId) {
+        synchronized (this) {
+            if (!localAdmins.add(adminId)) {
+                return;
+            }
+        }
+        scheduler.execute(this::announce);
+    }
+
+    public void localAdminOffline(String adminId) {
+        synchronized (this) {
+            if (!localAdmins.remove(adminId)) {
+                return;
+            }
+        }
+        scheduler.execute(this::announce);
+    }
+
+    @RabbitListener(queues = "#{chatAdminsQueue.name}")
+    public void onAnnouncement(Map<String, Object> announcement) {
+        Object node = announcement.get("nodeId");
+        Object admins = announcement.get("admins");
+        if (node == null || !(admins instanceof Collection<?> ids)) {
+            return;
+        }
+        Set<String> adminIds = new HashSet<>();
+        ids.forEach(id -> adminIds.add(id.toString()));
+        update(node.toString(), adminIds);
+    }
+
+    void update(String node, Set<String> admins) {
+        Set<String> departed;
+        synchronized (this) {
+            if (admins.isEmpty()) {
+                nodes.remove(node);
+            } else {
+                nodes.put(node, new NodeAdmins(admins, System.currentTimeMillis()));
+            }
+            departed = recompute();
+        }
+        notifyDepartures(departed);
+    }
+
+    private void heartbeat() {
+        Set<String> departed;
+        synchronized (this) {
+            long expiredBefore = System.currentTimeMillis() - 3 * heartbeatMs;
+            nodes.entrySet().removeIf(entry -> !entry.getKey().equals(nodeId) && entry.getValue().seenAt < expiredBefore);
+            departed = recompute();
+        }
+        notifyDepartures(departed);
+        announce();
+    }
+
+    private void announce() {
+        Set<String> admins;
+        synchronized (this) {
+            admins = Set.copyOf(localAdmins);
+        }
+        // Applied locally right away; the broadcast copy that comes back is idempotent.
+        update(nodeId, admins);
+        try {
+            rabbitTemplate.convertAndSend(RabbitConfig.ADMINS_EXCHANGE, "", Map.of("nodeId", nodeId, "admins", admins));
+        } catch (RuntimeException e) {
+            System.err.println("Failed to announce local admins: " + e.getMessage());
+        }
+    }
+
+    /** Must hold the lock. Returns admins that were online before and are not any more. */
+    private Set<String> recompute() {
+        Set<String> now = new TreeSet<>();
+        nodes.values().forEach(node -> now.addAll(node.admins));
+        Set<String> departed = new HashSet<>(online);
+        departed.removeAll(now);
+        online = Set.copyOf(now);
+        return departed;
+    }
+
+    private void notifyDepartures(Set<String> departed) {
+        if (!departed.isEmpty()) {
+            departureListeners.forEach(listener -> listener.accept(departed));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        try {
+            rabbitTemplate.convertAndSend(RabbitConfig.ADMINS_EXCHANGE, "", Map.of("nodeId", nodeId, "admins", List.of()));
+        } catch (RuntimeException e) {
+            // broker already gone; the other nodes expire this one
+        }
+    }
+
+    private record NodeAdmins(Set<String> admins, long seenAt) {
+    }
+}
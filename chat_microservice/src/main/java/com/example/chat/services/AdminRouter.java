@@ -0,0 +1,158 @@
+package com.example.chat.services;
+
+import com.example.chat.dtos.ChatMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sends client messages in "Admin Mode" to one admin instead of every admin.
+ * <p>
+ * A conversation (the client's userId) is assigned by rendezvous hashing over the online admins
+ * from {@link AdminDirectory}, so a departing admin only moves its own conversations. The assignment
+ * is then kept while that admin stays online, even when other admins join. When an admin goes
+ * offline, its conversations are handed to their new admin right away with a short system message.
+ * Without any admin online, messages fall back to {@code /topic/admin}.
+ * <p>
+ * Only the admin set is shared between nodes, and it converges within a heartbeat. The sticky
+ * assignments are this node's own: a client's messages all arrive over its one session, so they
+ * stay with one admin while it is connected, but after reconnecting to another node (or while the
+ * admin set is still converging) the conversation goes to whichever admin the hash picks there.
+ */
+@Service
+public class AdminRouter {
+
+    static final String ADMIN_TOPIC = "/topic/admin";
+    static final String HANDOVER_TEXT = "(conversation reassigned to you)";
+
+    private final ClusterMessageRelay messageRelay;
+    private final AdminDirectory adminDirectory;
+    /** conversation -> assignment, least recently used first */
+    private final Map<String, Assignment> assignments;
+
+    private final Counter assigned;
+    private final Counter broadcast;
+    private final Counter reassigned;
+
+    public AdminRouter(ClusterMessageRelay messageRelay, AdminDirectory adminDirectory, MeterRegistry registry,
+                       @Value("${app.chat.admin.max-assignments:100000}") int maxAssignments) {
+        this.messageRelay = messageRelay;
+        this.adminDirectory = adminDirectory;
+        this.assignments = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Assignment> eldest) {
+                return size() > maxAssignments;
+            }
+        };
+        this.assigned = routed(registry, "assigned");
+        this.broadcast = routed(registry, "broadcast");
+        this.reassigned = Counter.builder("chat.admin.reassigned")
+                .description("Conversations moved to another admin after theirs went offline")
+                .register(registry);
+        adminDirectory.addDepartureListener(this::reassign);
+    }
+
+    private static Counter routed(MeterRegistry registry, String target) {
+        return Counter.builder("chat.admin.routed")
+                .description("Client messages for an admin")
+                .tag("target", target)
+                .register(registry);
+    }
+
+    public void route(ChatMessage message) {
+        String admin = assign(message.getUserId(), message.getSender());
+        if (admin == null) {
+            messageRelay.send(ADMIN_TOPIC, message);
+            broadcast.increment();
+        } else {
+            messageRelay.send(ADMIN_TOPIC + "/" + admin, message);
+            assigned.increment();
+        }
+    }
+
+    /** The admin currently handling the conversation, assigning one if needed; null if no admin is online. */
+    synchronized String assign(String conversation, String clientName) {
+        Set<String> online = adminDirectory.onlineAdmins();
+        Assignment current = assignments.get(conversation);
+        if (current != null && online.contains(current.admin)) {
+            current.clientName = clientName;
+            return current.admin;
+        }
+        String admin = pick(conversation, online);
+        if (admin == null) {
+            assignments.remove(conversation);
+        } else {
+            assignments.put(conversation, new Assignment(admin, clientName));
+        }
+        return admin;
+    }
+
+    private void reassign(Set<String> departed) {
+        List<ChatMessage> handovers = new ArrayList<>();
+        List<String> targets = new ArrayList<>();
+        synchronized (this) {
+            Set<String> online = adminDirectory.onlineAdmins();
+            Iterator<Map.Entry<String, Assignment>> it = assignments.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<String, Assignment> entry = it.next();
+                Assignment assignment = entry.getValue();
+                if (!departed.contains(assignment.admin)) {
+                    continue;
+                }
+                String admin = pick(entry.getKey(), online);
+                if (admin == null) {
+                    it.remove();
+                    continue;
+                }
+                assignment.admin = admin;
+                handovers.add(new ChatMessage(assignment.clientName, HANDOVER_TEXT, entry.getKey(), true));
+                targets.add(admin);
+            }
+        }
+        for (int i = 0; i < handovers.size(); i++) {
+            messageRelay.send(ADMIN_TOPIC + "/" + targets.get(i), handovers.get(i));
+            reassigned.increment();
+        }
+    }
+
+    /** Rendezvous (highest random weight) hashing: the admin with the highest score for this conversation. */
+    static String pick(String conversation, Set<String> admins) {
+        String best = null;
+        long bestScore = Long.MIN_VALUE;
+        for (String admin : admins) {
+            long score = mix(conversation.hashCode() * 0x9E3779B97F4A7C15L ^ admin.hashCode());
+            if (best == null || score > bestScore || (score == bestScore && admin.compareTo(best) < 0)) {
+                best = admin;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static final class Assignment {
+        private String admin;
+        private String clientName;
+
+        Assignment(String admin, String clientName) {
+            this.admin = admin;
+            this.clientName = clientName;
+        }
+    }
+}
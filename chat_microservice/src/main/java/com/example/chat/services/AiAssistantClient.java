@@ -0,0 +1,156 @@
+package com.example.chat.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Non-blocking client for the OpenAI-compatible chat completions endpoint.
+ * <p>
+ * Every call is bounded by {@code gemini.timeout-ms}, and at most {@code gemini.max-concurrent}
+ * calls are in flight; further questions are answered with a fallback right away instead of
+ * queueing behind a slow model.
+ */
+@Service
+public class AiAssistantClient {
+
+    static final String ERROR_FALLBACK = "I'm having trouble connecting to my AI brain. (Check API Key/Url)";
+    static final String TIMEOUT_FALLBACK = "The assistant is taking too long to answer. Please try again, or switch to Admin mode.";
+    static final String BUSY_FALLBACK = "The assistant is busy right now. Please try again in a moment, or switch to Admin mode.";
+    static final String EMPTY_FALLBACK = "I received an empty response.";
+
+    private final WebClient webClient;
+    private final AiResponseCache responseCache;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String apiKey;
+    private final String apiUrl;
+    private final String modelName;
+    private final Duration timeout;
+    private final Semaphore bulkhead;
+
+    public AiAssistantClient(AiResponseCache responseCache,
+                             @Value("${gemini.api.key}") String apiKey,
+                             @Value("${gemini.api.url}") String apiUrl,
+                             @Value("${gemini.model}") String modelName,
+                             @Value("${gemini.timeout-ms:10000}") long timeoutMs,
+                             @Value("${gemini.max-concurrent:16}") int maxConcurrent) {
+        this.webClient = WebClient.builder().build();
+        this.responseCache = responseCache;
+        this.apiKey = apiKey;
+        this.apiUrl = apiUrl;
+        this.modelName = modelName;
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.bulkhead = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * Answer to show the user, served from {@link AiResponseCache} when the question was asked
+     * before; failures, timeouts and a full bulkhead turn into a fallback text.
+     */
+    public Mono<String> answer(String userMessage) {
+        return responseCache.get(userMessage, this::ask)
+                .onErrorResume(e -> Mono.just(fallbackFor(e)));
+    }
+
+    /**
+     * Raw model call. Errors with {@link TimeoutException} when the model is too slow and with
+     * {@link BulkheadFullException} when too many calls are already in flight.
+     */
+    public Mono<String> ask(String userMessage) {
+        return Mono.defer(() -> {
+            if (!bulkhead.tryAcquire()) {
+                return Mono.error(new BulkheadFullException());
+            }
+            return callModel(userMessage)
+                    .timeout(timeout)
+                    .doFinally(signal -> bulkhead.release());
+        });
+    }
+
+    private Mono<String> callModel(String userMessage) {
+        Map<String, Object> requestBody = Map.of(
+            "model", modelName,
+            "messages", List.of(
+                Map.of(
+                    "role", "user",
+                    "content", "You are a helpful energy management assistant. Answer briefly: " + userMessage
+                )
+            )
+        );
+
+        String authHeader = apiKey.equals("unused") ? "" : "Bearer " + apiKey;
+
+        return webClient.post()
+            .uri(apiUrl)
+            .contentType(MediaType.APPLICATION_JSON)
+            .header("Authorization", authHeader)
+            .bodyValue(requestBody)
+            .retrieve()
+            .bodyToMono(String.class)
+            .map(this::extractContent);
+    }
+
+    private String extractContent(String jsonResponse) {
+        JsonNode root;
+        try {
+            root = objectMapper.readTree(jsonResponse);
+        } catch (Exception e) {
+            throw new IllegalStateException("Unreadable AI response", e);
+        }
+
+        String content = "";
+        if (root.has("choices") && root.get("choices").size() > 0) {
+            content = root.path("choices")
+                .get(0)
+                .path("message")
+                .path("content")
+                .asText();
+        } else if (root.has("message")) {
+            content = root.path("message")
+                .path("content")
+                .asText();
+        }
+
+        // An error rather than an answer, so the response cache does not keep it.
+        if (content.isBlank()) {
+            throw new EmptyResponseException();
+        }
+        return content;
+    }
+
+    private String fallbackFor(Throwable error) {
+        if (error instanceof BulkheadFullException) {
+            return BUSY_FALLBACK;
+        }
+        if (error instanceof TimeoutException) {
+            return TIMEOUT_FALLBACK;
+        }
+        if (error instanceof EmptyResponseException) {
+            return EMPTY_FALLBACK;
+        }
+        System.err.println("AI request failed: " + error);
+        return ERROR_FALLBACK;
+    }
+
+    public static class BulkheadFullException extends RuntimeException {
+        public BulkheadFullException() {
+            super("Too many AI requests in flight", null, false, false);
+        }
+    }
+
+    public static class EmptyResponseException extends RuntimeException {
+        public EmptyResponseException() {
+            super("AI response has no content", null, false, false);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.chat.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Caches model answers by normalised question text (case, punctuation and spacing ignored).
+ * <p>
+ * Entries are evicted least-recently-used beyond {@code gemini.cache.max-entries} and expire after
+ * {@code gemini.cache.ttl-seconds}. Concurrent misses for the same question share one model call.
+ * Only successful answers are stored, so a fallback is never served from the cache.
+ */
+@Component
+public class AiResponseCache {
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final Map<String, CachedAnswer> entries;
+    private final Map<String, Mono<String>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalesced;
+
+    public AiResponseCache(MeterRegistry registry,
+                           @Value("${gemini.cache.max-entries:1000}") int maxEntries,
+                           @Value("${gemini.cache.ttl-seconds:3600}") long ttlSeconds) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedAnswer> eldest) {
+                return size() > AiResponseCache.this.maxEntries;
+            }
+        };
+
+        this.hits = lookups(registry, "hit");
+        this.misses = lookups(registry, "miss");
+        this.coalesced = lookups(registry, "coalesced");
+        Gauge.builder("chat.ai.cache.size", this, AiResponseCache::size)
+                .description("Cached AI answers")
+                .register(registry);
+    }
+
+    private static Counter lookups(MeterRegistry registry, String result) {
+        return Counter.builder("chat.ai.cache.lookups")
+                .description("AI answer cache lookups by outcome")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    /**
+     * Cached answer for the question, or the loader's answer. A {@code coalesced} lookup joins a
+     * model call already running for the same question instead of starting another one.
+     */
+    public Mono<String> get(String question, Function<String, Mono<String>> loader) {
+        String key = normalise(question);
+        if (key.isEmpty()) {
+            return loader.apply(question);
+        }
+
+        String cached = lookup(key);
+        if (cached != null) {
+            hits.increment();
+            return Mono.just(cached);
+        }
+
+        boolean[] started = {false};
+        Mono<String> call = inFlight.computeIfAbsent(key, k -> {
+            started[0] = true;
+            // Removed before the result reaches the callers, so a retry never joins a finished failure.
+            return loader.apply(question)
+                    .doOnNext(answer -> store(k, answer))
+                    .doOnTerminate(() -> inFlight.remove(k))
+                    .cache();
+        });
+        (started[0] ? misses : coalesced).increment();
+        return call;
+    }
+
+    static String normalise(String question) {
+        if (question == null) {
+            return "";
+        }
+        return question.toLowerCase(Locale.ROOT)
+                .replaceAll("[^\\p{L}\\p{N}]+", " ")
+                .trim();
+    }
+
+    private String lookup(String key) {
+        synchronized (entries) {
+            CachedAnswer entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (System.nanoTime() - entry.storedAt > ttlNanos) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.answer;
+        }
+    }
+
+    private void store(String key, String answer) {
+        synchronized (entries) {
+            entries.put(key, new CachedAnswer(answer, System.nanoTime()));
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private record CachedAnswer(String answer, long storedAt) {
+    }
+}
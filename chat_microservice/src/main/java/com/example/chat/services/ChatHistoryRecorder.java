@@ -0,0 +1,44 @@
+package com.example.chat.services;
+
+import com.example.chat.dtos.ChatMessage;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Funnels every chat message through {@code app.queue.chat-history} into the {@link ChatHistoryStore}.
+ * The queue has a single active consumer, so exactly one replica appends to the shared history
+ * directory at a time; if it stops, the broker hands the queue to another replica.
+ */
+@Service
+public class ChatHistoryRecorder {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final ChatHistoryStore historyStore;
+    private final String historyQueue;
+
+    public ChatHistoryRecorder(RabbitTemplate rabbitTemplate, ChatHistoryStore historyStore,
+                               @Value("${app.queue.chat-history}") String historyQueue) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.historyStore = historyStore;
+        this.historyQueue = historyQueue;
+    }
+
+    /** Records a message of the conversation with client {@code message.getUserId()}. */
+    public void record(ChatMessage message) {
+        if (message.getUserId() != null) {
+            rabbitTemplate.convertAndSend(historyQueue, message);
+        }
+    }
+
+    @RabbitListener(queues = "${app.queue.chat-history}")
+    public void append(ChatMessage message) {
+        try {
+            historyStore.append(message.getUserId(), message);
+        } catch (IllegalArgumentException e) {
+            throw new AmqpRejectAndDontRequeueException("Dropping unrecordable chat message: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,409 @@
+package com.example.chat.services;
+
+import com.example.chat.dtos.ChatHistoryEntry;
+import com.example.chat.dtos.ChatMessage;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only chat history with one directory per conversation (the client's userId).
+ * <p>
+ * A conversation is a run of segment files named after the offset of their first message
+ * ({@code 00000000000000000000.log}); a new segment starts once the active one would exceed
+ * {@code app.chat.history.segment-bytes}. A record is
+ * {@code [int length][int crc32][long offset][long timestamp][JSON payload]}.
+ * <p>
+ * Each segment keeps a sparse in-memory index with the position of one record per
+ * {@code app.chat.history.index-interval-bytes}, filled in as records are written or scanned. A read
+ * seeks to the closest indexed record and scans forward through a buffered stream, so "last N" and
+ * "since offset" cost one seek plus at most one index interval of skipped records. Only the
+ * {@code app.chat.history.max-open-conversations} most recently used conversations keep their
+ * index and file handle.
+ * <p>
+ * Exactly one process may append to a directory at a time ({@link ChatHistoryRecorder} arranges
+ * that). After a failover the writer is handed over: before each append the writer checks whether
+ * the active segment grew or a newer one appeared, and if so reopens at the real end. Any replica
+ * can read; a half-written record at the end of a segment is simply not returned, and the writer
+ * truncates it when it reopens the segment. Appends are not fsynced, so the last
+ * messages before a host crash can be lost.
+ */
+@Service
+public class ChatHistoryStore {
+
+    static final int HEADER_BYTES = 4 + 4 + 8 + 8;
+
+    private static final Pattern CONVERSATION_ID = Pattern.compile("[A-Za-z0-9-]{1,64}");
+    private static final Pattern SEGMENT_NAME = Pattern.compile("\\d{20}\\.log");
+    private static final int READ_BUFFER_BYTES = 64 * 1024;
+
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final long segmentBytes;
+    private final int indexIntervalBytes;
+    private final Map<String, Conversation> conversations;
+
+    public ChatHistoryStore(ObjectMapper objectMapper,
+                            @Value("${app.chat.history.dir:data/chat-history}") String directory,
+                            @Value("${app.chat.history.segment-bytes:8388608}") long segmentBytes,
+                            @Value("${app.chat.history.index-interval-bytes:4096}") int indexIntervalBytes,
+                            @Value("${app.chat.history.max-open-conversations:1000}") int maxOpenConversations) {
+        this.objectMapper = objectMapper;
+        this.directory = Path.of(directory);
+        this.segmentBytes = segmentBytes;
+        this.indexIntervalBytes = indexIntervalBytes;
+        this.conversations = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Conversation> eldest) {
+                if (size() <= maxOpenConversations) {
+                    return false;
+                }
+                eldest.getValue().close();
+                return true;
+            }
+        };
+    }
+
+    /** Appends the message and returns its offset within the conversation. */
+    public long append(String conversationId, ChatMessage message) {
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(message);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize chat message", e);
+        }
+        while (true) {
+            Conversation conversation = conversation(conversationId);
+            synchronized (conversation) {
+                // Evicted between lookup and lock; a fresh instance reopens the segment.
+                if (conversation.closed) {
+                    continue;
+                }
+                try {
+                    return conversation.append(payload, System.currentTimeMillis());
+                } catch (IOException e) {
+                    conversation.close();
+                    throw new UncheckedIOException("Cannot append to conversation " + conversationId, e);
+                }
+            }
+        }
+    }
+
+    /** Up to {@code limit} messages with offset {@code >= fromOffset}, oldest first. */
+    public List<ChatHistoryEntry> since(String conversationId, long fromOffset, int limit) {
+        Conversation conversation = conversation(conversationId);
+        synchronized (conversation) {
+            try {
+                return conversation.read(Math.max(0, fromOffset), limit);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read conversation " + conversationId, e);
+            }
+        }
+    }
+
+    /** The last {@code count} messages, oldest first. */
+    public List<ChatHistoryEntry> last(String conversationId, int count) {
+        Conversation conversation = conversation(conversationId);
+        synchronized (conversation) {
+            try {
+                return conversation.read(Math.max(0, conversation.endOffset() - count), count);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read conversation " + conversationId, e);
+            }
+        }
+    }
+
+    /** The offset the next appended message will get. */
+    public long endOffset(String conversationId) {
+        Conversation conversation = conversation(conversationId);
+        synchronized (conversation) {
+            try {
+                return conversation.endOffset();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read conversation " + conversationId, e);
+            }
+        }
+    }
+
+    private Conversation conversation(String conversationId) {
+        if (conversationId == null || !CONVERSATION_ID.matcher(conversationId).matches()) {
+            throw new IllegalArgumentException("Invalid conversation id: " + conversationId);
+        }
+        synchronized (conversations) {
+            Conversation conversation = conversations.get(conversationId);
+            if (conversation == null || conversation.closed) {
+                conversation = new Conversation(directory.resolve(conversationId));
+                conversations.put(conversationId, conversation);
+            }
+            return conversation;
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        synchronized (conversations) {
+            conversations.values().forEach(Conversation::close);
+            conversations.clear();
+        }
+    }
+
+    private static int crc(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private final class Conversation {
+
+        private final Path dir;
+        private final TreeMap<Long, Segment> segments = new TreeMap<>();
+        private Segment active;
+        private FileChannel writer;
+        private long nextOffset;
+        private volatile boolean closed;
+
+        Conversation(Path dir) {
+            this.dir = dir;
+        }
+
+        long append(byte[] payload, long timestamp) throws IOException {
+            if (writer == null || movedByAnotherWriter()) {
+                closeWriter();
+                openWriter();
+            }
+            int recordBytes = HEADER_BYTES + payload.length;
+            if (active.size > 0 && active.size + recordBytes > segmentBytes) {
+                roll();
+            }
+
+            ByteBuffer record = ByteBuffer.allocate(recordBytes)
+                    .putInt(payload.length)
+                    .putInt(crc(payload))
+                    .putLong(nextOffset)
+                    .putLong(timestamp)
+                    .put(payload)
+                    .flip();
+            while (record.hasRemaining()) {
+                writer.write(record);
+            }
+            active.index(nextOffset, active.size);
+            active.size += recordBytes;
+            return nextOffset++;
+        }
+
+        List<ChatHistoryEntry> read(long fromOffset, int limit) throws IOException {
+            List<ChatHistoryEntry> messages = new ArrayList<>();
+            refresh();
+            if (limit <= 0 || segments.isEmpty()) {
+                return messages;
+            }
+            Long first = segments.floorKey(fromOffset);
+            for (Segment segment : segments.tailMap(first == null ? segments.firstKey() : first, true).values()) {
+                scan(segment, segment.floor(fromOffset), false, fromOffset, limit, messages);
+                if (messages.size() >= limit) {
+                    break;
+                }
+            }
+            return messages;
+        }
+
+        long endOffset() throws IOException {
+            refresh();
+            if (segments.isEmpty()) {
+                return 0;
+            }
+            Segment last = segments.lastEntry().getValue();
+            return scan(last, last.floor(Long.MAX_VALUE), false, Long.MAX_VALUE, 0, null).offset;
+        }
+
+        void close() {
+            closed = true;
+            closeWriter();
+        }
+
+        private void closeWriter() {
+            if (writer != null) {
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    System.err.println("Failed to close chat history segment in " + dir + ": " + e.getMessage());
+                }
+                writer = null;
+            }
+        }
+
+        private void openWriter() throws IOException {
+            Files.createDirectories(dir);
+            refresh();
+            if (segments.isEmpty()) {
+                nextOffset = 0;
+                startSegment();
+                return;
+            }
+            // The previous writer may have died mid-record: keep only the verified prefix.
+            active = segments.lastEntry().getValue();
+            Position end = scan(active, new Position(0, active.baseOffset), true, Long.MAX_VALUE, 0, null);
+            writer = FileChannel.open(active.path, StandardOpenOption.WRITE);
+            writer.truncate(end.position);
+            writer.position(end.position);
+            active.size = end.position;
+            nextOffset = end.offset;
+        }
+
+        /**
+         * True when a replica that held the history queue in the meantime appended to the active
+         * segment or started a newer one, so our position and next offset are stale.
+         */
+        private boolean movedByAnotherWriter() throws IOException {
+            refresh();
+            return segments.lastKey() != active.baseOffset || writer.size() != active.size;
+        }
+
+        private void roll() throws IOException {
+            writer.close();
+            startSegment();
+        }
+
+        private void startSegment() throws IOException {
+            active = new Segment(nextOffset, dir.resolve(String.format("%020d.log", nextOffset)));
+            segments.put(active.baseOffset, active);
+            writer = FileChannel.open(active.path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        /** Picks up segments created by a writer on another replica. */
+        private void refresh() throws IOException {
+            if (!Files.isDirectory(dir)) {
+                return;
+            }
+            try (Stream<Path> files = Files.list(dir)) {
+                files.filter(path -> SEGMENT_NAME.matcher(path.getFileName().toString()).matches())
+                        .forEach(path -> {
+                            String name = path.getFileName().toString();
+                            long base = Long.parseLong(name.substring(0, name.length() - ".log".length()));
+                            segments.computeIfAbsent(base, b -> new Segment(b, path));
+                        });
+            }
+        }
+
+        /**
+         * Reads complete records forward from {@code start}, indexing them on the way, and collects
+         * those at or after {@code fromOffset} into {@code out} until it holds {@code limit}.
+         * Returns the position and offset just past the last complete (and, if asked, verified) record.
+         */
+        private Position scan(Segment segment, Position start, boolean verify, long fromOffset, int limit,
+                              List<ChatHistoryEntry> out) throws IOException {
+            try (FileChannel channel = FileChannel.open(segment.path, StandardOpenOption.READ)) {
+                long size = channel.size();
+                long position = start.position;
+                long offset = start.offset;
+                channel.position(position);
+                DataInputStream in = new DataInputStream(
+                        new BufferedInputStream(Channels.newInputStream(channel), READ_BUFFER_BYTES));
+
+                while (position + HEADER_BYTES <= size && (out == null || out.size() < limit)) {
+                    int length = in.readInt();
+                    int checksum = in.readInt();
+                    long recordOffset = in.readLong();
+                    long timestamp = in.readLong();
+                    long end = position + HEADER_BYTES + length;
+                    if (length < 0 || end > size || recordOffset != offset) {
+                        break;
+                    }
+
+                    boolean wanted = out != null && recordOffset >= fromOffset;
+                    if (wanted || verify) {
+                        byte[] payload = in.readNBytes(length);
+                        if (verify && crc(payload) != checksum) {
+                            break;
+                        }
+                        if (wanted) {
+                            out.add(new ChatHistoryEntry(recordOffset, timestamp,
+                                    objectMapper.readValue(payload, ChatMessage.class)));
+                        }
+                    } else {
+                        in.skipNBytes(length);
+                    }
+                    segment.index(recordOffset, position);
+                    position = end;
+                    offset++;
+                }
+                return new Position(position, offset);
+            }
+        }
+    }
+
+    private record Position(long position, long offset) {
+    }
+
+    private final class Segment {
+
+        private final long baseOffset;
+        private final Path path;
+        /** Bytes written so far; only maintained for the writer's active segment. */
+        private long size;
+
+        private long[] offsets = new long[16];
+        private long[] positions = new long[16];
+        private int entries;
+
+        Segment(long baseOffset, Path path) {
+            this.baseOffset = baseOffset;
+            this.path = path;
+        }
+
+        /** Records are seen in file order, so entries stay sorted by both offset and position. */
+        void index(long offset, long position) {
+            if (entries > 0 && (offset <= offsets[entries - 1]
+                    || position - positions[entries - 1] < indexIntervalBytes)) {
+                return;
+            }
+            if (entries == offsets.length) {
+                offsets = Arrays.copyOf(offsets, entries * 2);
+                positions = Arrays.copyOf(positions, entries * 2);
+            }
+            offsets[entries] = offset;
+            positions[entries] = position;
+            entries++;
+        }
+
+        /** The last indexed record at or before {@code offset}, or the start of the segment. */
+        Position floor(long offset) {
+            int low = 0;
+            int high = entries - 1;
+            int found = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (offsets[mid] <= offset) {
+                    found = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return found < 0 ? new Position(0, baseOffset) : new Position(positions[found], offsets[found]);
+        }
+    }
+}
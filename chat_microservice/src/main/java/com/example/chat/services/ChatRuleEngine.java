@@ -0,0 +1,54 @@
+package com.example.chat.services;
+
+import com.example.chat.dtos.ChatRule;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Rule-based support answers. Rules are read from {@code app.chat.rules} (a JSON array of
+ * {@link ChatRule}) and compiled into one {@link KeywordMatcher}, so a message is scanned once
+ * no matter how many rules exist. Rules with equal priority keep their file order.
+ */
+@Service
+public class ChatRuleEngine {
+
+    private final KeywordMatcher<String> matcher;
+
+    public ChatRuleEngine(@Value("${app.chat.rules:classpath:chat-rules.json}") Resource rules) {
+        this.matcher = compile(load(rules));
+        System.out.println("Loaded " + matcher.size() + " chat rule keywords from " + rules.getDescription());
+    }
+
+    /**
+     * @return the response of the best matching rule, or {@code null} if no keyword matches
+     */
+    public String respond(String content) {
+        return matcher.bestMatch(content);
+    }
+
+    static KeywordMatcher<String> compile(List<ChatRule> rules) {
+        KeywordMatcher.Builder<String> builder = KeywordMatcher.builder();
+        for (ChatRule rule : rules) {
+            for (String keyword : rule.getKeywords()) {
+                builder.add(keyword, rule.getResponse(), rule.getPriority());
+            }
+        }
+        return builder.build();
+    }
+
+    private static List<ChatRule> load(Resource rules) {
+        try (InputStream in = rules.getInputStream()) {
+            return new ObjectMapper().readValue(in, new TypeReference<List<ChatRule>>() {});
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read chat rules from " + rules.getDescription(), e);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.chat.services;
+
+import com.example.chat.config.RabbitConfig;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+/**
+ * Sends STOMP messages to whichever chat nodes hold sessions for the destination.
+ * <p>
+ * The payload is converted once, with the same converter the local broker uses, and published
+ * to {@link RabbitConfig#DELIVERY_EXCHANGE} with the destination as routing key. Each node
+ * receives it on its own delivery queue (bound by {@link SessionRegistry}) and hands it to its
+ * local simple broker unchanged.
+ */
+@Service
+public class ClusterMessageRelay {
+
+    static final String DESTINATION_HEADER = "x-stomp-destination";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final RabbitTemplate rabbitTemplate;
+
+    public ClusterMessageRelay(SimpMessagingTemplate messagingTemplate, RabbitTemplate rabbitTemplate) {
+        this.messagingTemplate = messagingTemplate;
+        this.rabbitTemplate = rabbitTemplate;
+    }
+
+    public void send(String destination, Object payload) {
+        rabbitTemplate.send(RabbitConfig.DELIVERY_EXCHANGE, destination, toAmqp(destination, payload));
+    }
+
+    /**
+     * Sends a notification to {@code /topic/user/{userId}}. If no node holds a session for the
+     * user the broker returns it, and {@link NotificationOutbox} keeps it until the user reconnects.
+     */
+    public void sendNotification(String userId, Object payload) {
+        String destination = "/topic/user/" + userId;
+        org.springframework.amqp.core.Message message = toAmqp(destination, payload);
+        message.getMessageProperties().setHeader(NotificationOutbox.NOTIFICATION_USER_HEADER, userId);
+        rabbitTemplate.send(RabbitConfig.DELIVERY_EXCHANGE, destination, message);
+    }
+
+    /** Publishes an already converted message again, e.g. one flushed from the outbox. */
+    public void resend(org.springframework.amqp.core.Message message) {
+        String destination = message.getMessageProperties().getHeader(DESTINATION_HEADER);
+        if (destination != null) {
+            rabbitTemplate.send(RabbitConfig.DELIVERY_EXCHANGE, destination, message);
+        }
+    }
+
+    private org.springframework.amqp.core.Message toAmqp(String destination, Object payload) {
+        Message<?> converted = messagingTemplate.getMessageConverter().toMessage(payload, null);
+        if (converted == null || !(converted.getPayload() instanceof byte[] body)) {
+            throw new IllegalArgumentException("Cannot convert " + payload.getClass().getName() + " for " + destination);
+        }
+
+        MessageProperties properties = new MessageProperties();
+        properties.setHeader(DESTINATION_HEADER, destination);
+        Object contentType = converted.getHeaders().get(MessageHeaders.CONTENT_TYPE);
+        if (contentType != null) {
+            properties.setContentType(contentType.toString());
+        }
+        return new org.springframework.amqp.core.Message(body, properties);
+    }
+
+    @RabbitListener(queues = "#{chatDeliveryQueue.name}")
+    public void deliver(org.springframework.amqp.core.Message message) {
+        MessageProperties properties = message.getMessageProperties();
+        String destination = properties.getHeader(DESTINATION_HEADER);
+        if (destination == null) {
+            return;
+        }
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        if (properties.getContentType() != null) {
+            MimeType contentType = MimeTypeUtils.parseMimeType(properties.getContentType());
+            accessor.setContentType(contentType);
+        }
+        accessor.setLeaveMutable(true);
+        messagingTemplate.send(destination, MessageBuilder.createMessage(message.getBody(), accessor.getMessageHeaders()));
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.chat.services;
+
+import com.example.chat.dtos.ChatUser;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Verifies access tokens issued by the auth service. Only used once per STOMP session, on CONNECT.
+ */
+@Service
+public class JwtService {
+
+    private final JwtParser parser;
+
+    public JwtService(@Value("${app.jwt.secret}") String jwtSecret) {
+        this.parser = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret)))
+                .build();
+    }
+
+    /**
+     * @return the token's user, or null if it is invalid, expired, has no expiry or no userId
+     */
+    public ChatUser verify(String token) {
+        Claims claims;
+        try {
+            claims = parser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            System.err.println("Rejected chat token: " + e.getMessage());
+            return null;
+        }
+        String userId = claims.get("userId", String.class);
+        if (claims.getExpiration() == null || userId == null) {
+            System.err.println("Rejected chat token: missing expiration or userId");
+            return null;
+        }
+        return new ChatUser(userId, claims.get("role", String.class));
+    }
+}
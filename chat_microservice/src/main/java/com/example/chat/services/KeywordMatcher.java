@@ -0,0 +1,220 @@
+package com.example.chat.services;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Aho-Corasick automaton over lower-cased keywords, matched in one pass over the text
+ * regardless of how many keywords are registered.
+ * <p>
+ * A keyword only matches as a whole word: the characters around it must not be letters or
+ * digits, so {@code "hi"} does not fire inside {@code "this"}. A trailing {@code *} drops the
+ * right-hand boundary ({@code "device*"} also matches {@code "devices"}). When several keywords
+ * match, the one with the highest priority wins, then the one added first.
+ */
+public final class KeywordMatcher<T> {
+
+    // Trie nodes as parallel arrays; transitions of a node are sorted by character.
+    private final char[][] edgeChars;
+    private final int[][] edgeTargets;
+    /** Root transitions for ASCII, where unmatched text keeps returning to. */
+    private final int[] rootAscii = new int[128];
+    private final int[] failure;
+    /** Nearest node on the failure chain (including itself) that ends a keyword, or -1. */
+    private final int[] outputLink;
+    /** Keyword ids ending exactly at each node. */
+    private final int[][] outputs;
+
+    private final int[] keywordLength;
+    private final boolean[] keywordPrefix;
+    private final int[] keywordPriority;
+    private final List<T> keywordValue;
+
+    private KeywordMatcher(Builder<T> builder) {
+        int keywords = builder.keywords.size();
+        this.keywordLength = new int[keywords];
+        this.keywordPrefix = new boolean[keywords];
+        this.keywordPriority = new int[keywords];
+        this.keywordValue = new ArrayList<>(keywords);
+
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<List<Integer>> ends = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        ends.add(new ArrayList<>());
+
+        for (int id = 0; id < keywords; id++) {
+            Keyword<T> keyword = builder.keywords.get(id);
+            keywordLength[id] = keyword.text.length();
+            keywordPrefix[id] = keyword.prefix;
+            keywordPriority[id] = keyword.priority;
+            keywordValue.add(keyword.value);
+
+            int node = 0;
+            for (int i = 0; i < keyword.text.length(); i++) {
+                Integer next = trie.get(node).get(keyword.text.charAt(i));
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new TreeMap<>());
+                    ends.add(new ArrayList<>());
+                    trie.get(node).put(keyword.text.charAt(i), next);
+                }
+                node = next;
+            }
+            ends.get(node).add(id);
+        }
+
+        int nodes = trie.size();
+        this.edgeChars = new char[nodes][];
+        this.edgeTargets = new int[nodes][];
+        this.outputs = new int[nodes][];
+        for (int node = 0; node < nodes; node++) {
+            Map<Character, Integer> edges = trie.get(node);
+            edgeChars[node] = new char[edges.size()];
+            edgeTargets[node] = new int[edges.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                edgeChars[node][i] = edge.getKey();
+                edgeTargets[node][i] = edge.getValue();
+                i++;
+            }
+            outputs[node] = ends.get(node).stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        Arrays.fill(rootAscii, -1);
+        for (int i = 0; i < edgeChars[0].length; i++) {
+            if (edgeChars[0][i] < rootAscii.length) {
+                rootAscii[edgeChars[0][i]] = edgeTargets[0][i];
+            }
+        }
+
+        this.failure = new int[nodes];
+        this.outputLink = new int[nodes];
+        buildFailureLinks();
+    }
+
+    private void buildFailureLinks() {
+        Deque<Integer> queue = new ArrayDeque<>();
+        outputLink[0] = -1;
+        for (int child : edgeTargets[0]) {
+            failure[child] = 0;
+            outputLink[child] = outputs[child].length > 0 ? child : -1;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (int i = 0; i < edgeChars[node].length; i++) {
+                char c = edgeChars[node][i];
+                int child = edgeTargets[node][i];
+
+                int fallback = failure[node];
+                while (fallback != 0 && next(fallback, c) < 0) {
+                    fallback = failure[fallback];
+                }
+                int target = next(fallback, c);
+                failure[child] = Math.max(target, 0);
+                outputLink[child] = outputs[child].length > 0 ? child : outputLink[failure[child]];
+                queue.add(child);
+            }
+        }
+    }
+
+    private int next(int node, char c) {
+        if (node == 0 && c < rootAscii.length) {
+            return rootAscii[c];
+        }
+        int i = Arrays.binarySearch(edgeChars[node], c);
+        return i >= 0 ? edgeTargets[node][i] : -1;
+    }
+
+    /**
+     * @return the value of the best whole-word match in {@code text}, or {@code null}
+     */
+    public T bestMatch(CharSequence text) {
+        if (text == null) {
+            return null;
+        }
+        int length = text.length();
+        int best = -1;
+        int node = 0;
+        for (int i = 0; i < length; i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            int target;
+            while ((target = next(node, c)) < 0 && node != 0) {
+                node = failure[node];
+            }
+            node = Math.max(target, 0);
+
+            for (int out = outputLink[node]; out >= 0; out = outputLink[failure[out]]) {
+                for (int id : outputs[out]) {
+                    if (best >= 0 && !outranks(id, best)) {
+                        continue;
+                    }
+                    int start = i - keywordLength[id] + 1;
+                    boolean leftBoundary = start == 0 || !isWordChar(text.charAt(start - 1));
+                    boolean rightBoundary = keywordPrefix[id] || i + 1 == length || !isWordChar(text.charAt(i + 1));
+                    if (leftBoundary && rightBoundary) {
+                        best = id;
+                    }
+                }
+            }
+        }
+        return best >= 0 ? keywordValue.get(best) : null;
+    }
+
+    private boolean outranks(int candidate, int current) {
+        if (keywordPriority[candidate] != keywordPriority[current]) {
+            return keywordPriority[candidate] > keywordPriority[current];
+        }
+        return candidate < current;
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c);
+    }
+
+    public int size() {
+        return keywordValue.size();
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    public static final class Builder<T> {
+
+        private final List<Keyword<T>> keywords = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * @param keyword  word or phrase to match; a trailing {@code *} also matches longer words
+         * @param priority higher wins when several keywords match
+         */
+        public Builder<T> add(String keyword, T value, int priority) {
+            String text = keyword.trim().toLowerCase(Locale.ROOT);
+            boolean prefix = text.endsWith("*");
+            if (prefix) {
+                text = text.substring(0, text.length() - 1);
+            }
+            if (text.isEmpty()) {
+                throw new IllegalArgumentException("Empty keyword");
+            }
+            keywords.add(new Keyword<>(text, prefix, priority, value));
+            return this;
+        }
+
+        public KeywordMatcher<T> build() {
+            return new KeywordMatcher<>(this);
+        }
+    }
+
+    private record Keyword<T>(String text, boolean prefix, int priority, T value) {
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.chat.services;
+
+import com.example.chat.dtos.NotificationBatch;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collapses bursts of notifications for the same user into one websocket frame.
+ * <p>
+ * The first notification for a user is sent at once and opens a window of
+ * {@code app.notification.coalesce-window-ms}. Notifications arriving inside the window are held
+ * and sent together as a {@link NotificationBatch} when it closes; if any were held, a new window
+ * opens, so a sustained storm produces one frame per window and a single alert is never delayed.
+ */
+@Service
+public class NotificationCoalescer {
+
+    static final String PREFIX = "NOTIFICATION: ";
+
+    private final ClusterMessageRelay messageRelay;
+    private final long windowMs;
+    private final int maxMessages;
+    private final ScheduledExecutorService scheduler;
+
+    /** userId -> notifications held in the user's open window (empty while nothing is held) */
+    private final Map<String, Deque<String>> windows = new HashMap<>();
+    private final Map<String, Integer> heldCounts = new HashMap<>();
+
+    private final Counter singleFrames;
+    private final Counter batchFrames;
+    private final Counter coalesced;
+
+    public NotificationCoalescer(ClusterMessageRelay messageRelay, MeterRegistry registry,
+                                 @Value("${app.notification.coalesce-window-ms:2000}") long windowMs,
+                                 @Value("${app.notification.batch-max-messages:5}") int maxMessages) {
+        this.messageRelay = messageRelay;
+        this.windowMs = windowMs;
+        this.maxMessages = maxMessages;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "notification-coalescer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.singleFrames = frames(registry, "single");
+        this.batchFrames = frames(registry, "batch");
+        this.coalesced = Counter.builder("chat.notifications.coalesced")
+                .description("Notifications delivered inside a batch frame")
+                .register(registry);
+    }
+
+    private static Counter frames(MeterRegistry registry, String type) {
+        return Counter.builder("chat.notifications.frames")
+                .description("Notification frames sent to websocket clients")
+                .tag("type", type)
+                .register(registry);
+    }
+
+    public void submit(String userId, String message) {
+        if (windowMs <= 0) {
+            sendSingle(userId, message);
+            return;
+        }
+        synchronized (windows) {
+            Deque<String> held = windows.get(userId);
+            if (held != null) {
+                held.addLast(message);
+                if (held.size() > maxMessages) {
+                    held.pollFirst();
+                }
+                heldCounts.merge(userId, 1, Integer::sum);
+                return;
+            }
+            windows.put(userId, new ArrayDeque<>());
+        }
+        sendSingle(userId, message);
+        scheduleFlush(userId);
+    }
+
+    /** Closes the user's window: sends what was held and reopens it, or forgets the user if nothing was. */
+    void flush(String userId) {
+        List<String> messages;
+        int count;
+        synchronized (windows) {
+            Deque<String> held = windows.get(userId);
+            if (held == null) {
+                return;
+            }
+            if (held.isEmpty()) {
+                windows.remove(userId);
+                return;
+            }
+            messages = new ArrayList<>(held);
+            held.clear();
+            Integer total = heldCounts.remove(userId);
+            count = total == null ? messages.size() : total;
+        }
+
+        if (count == 1) {
+            sendSingle(userId, messages.get(0));
+        } else {
+            messageRelay.sendNotification(userId, new NotificationBatch(count, summary(count, messages), messages));
+            batchFrames.increment();
+            coalesced.increment(count);
+        }
+        scheduleFlush(userId);
+    }
+
+    private static String summary(int count, List<String> messages) {
+        return count + " new alerts. Latest: " + messages.get(messages.size() - 1);
+    }
+
+    private void sendSingle(String userId, String message) {
+        messageRelay.sendNotification(userId, PREFIX + message);
+        singleFrames.increment();
+    }
+
+    private void scheduleFlush(String userId) {
+        if (!scheduler.isShutdown()) {
+            scheduler.schedule(() -> flushSafely(userId), windowMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flushSafely(String userId) {
+        try {
+            flush(userId);
+        } catch (RuntimeException e) {
+            System.err.println("Failed to flush notifications for user " + userId + ": " + e.getMessage());
+        }
+    }
+
+    public int openWindows() {
+        synchronized (windows) {
+            return windows.size();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        List<String> users;
+        synchronized (windows) {
+            users = List.copyOf(windows.keySet());
+        }
+        users.forEach(this::flushSafely);
+    }
+}
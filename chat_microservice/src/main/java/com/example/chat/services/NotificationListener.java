@@ -1,26 +1,29 @@
 package com.example.chat.services;
 
 import com.example.chat.dtos.NotificationDTO;
+import com.example.chat.metrics.PipelineMetrics;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.handler.annotation.Headers;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
+
 @Service
 public class NotificationListener {
 
-    private final SimpMessagingTemplate messagingTemplate;
+    private final NotificationCoalescer coalescer;
+    private final PipelineMetrics pipelineMetrics;
 
-    public NotificationListener(SimpMessagingTemplate messagingTemplate) {
-        this.messagingTemplate = messagingTemplate;
+    public NotificationListener(NotificationCoalescer coalescer, PipelineMetrics pipelineMetrics) {
+        this.coalescer = coalescer;
+        this.pipelineMetrics = pipelineMetrics;
     }
 
     @RabbitListener(queues = "${app.queue.notification}")
-    public void handleNotification(NotificationDTO notification) {
-        System.out.println("Received notification for user: " + notification.getUserId());
-        
-        messagingTemplate.convertAndSend(
-            "/topic/user/" + notification.getUserId(), 
-            "NOTIFICATION: " + notification.getMessage()
-        );
+    public void handleNotification(NotificationDTO notification, @Headers Map<String, Object> headers) {
+        long start = System.nanoTime();
+        pipelineMetrics.recordReceived(headers, System.currentTimeMillis());
+        coalescer.submit(String.valueOf(notification.getUserId()), notification.getMessage());
+        pipelineMetrics.recordProcessing(start);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,128 @@
+package com.example.chat.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holds notifications for users who had no session on any chat node when they were sent.
+ * <p>
+ * Notifications are published as mandatory messages; when no node is bound for the user's
+ * destination the broker returns them, and they land here. Each user keeps at most
+ * {@code app.notification.outbox.per-user} of the newest entries, at most
+ * {@code app.notification.outbox.max-users} users are tracked (least recently used dropped first),
+ * and entries older than {@code app.notification.outbox.ttl-seconds} are discarded on flush.
+ */
+@Component
+public class NotificationOutbox {
+
+    static final String NOTIFICATION_USER_HEADER = "x-notification-user";
+
+    private final int perUser;
+    private final long ttlNanos;
+    private final Map<String, Deque<HeldMessage>> outbox;
+
+    private final Counter buffered;
+    private final Counter dropped;
+    private final Counter flushed;
+
+    public NotificationOutbox(RabbitTemplate rabbitTemplate, MeterRegistry registry,
+                              @Value("${app.notification.outbox.per-user:50}") int perUser,
+                              @Value("${app.notification.outbox.max-users:10000}") int maxUsers,
+                              @Value("${app.notification.outbox.ttl-seconds:86400}") long ttlSeconds) {
+        this.perUser = perUser;
+        this.ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+        this.outbox = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Deque<HeldMessage>> eldest) {
+                if (size() <= maxUsers) {
+                    return false;
+                }
+                dropped.increment(eldest.getValue().size());
+                return true;
+            }
+        };
+
+        this.buffered = outcome(registry, "buffered");
+        this.dropped = outcome(registry, "dropped");
+        this.flushed = outcome(registry, "flushed");
+        Gauge.builder("chat.notifications.outbox.users", this, NotificationOutbox::users)
+                .description("Users with undelivered notifications")
+                .register(registry);
+
+        rabbitTemplate.setReturnsCallback(this::onReturned);
+    }
+
+    private static Counter outcome(MeterRegistry registry, String outcome) {
+        return Counter.builder("chat.notifications.offline")
+                .description("Notifications for users without a session")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    void onReturned(ReturnedMessage returned) {
+        // Chat replies are mandatory too (shared template); only notifications are kept.
+        String userId = returned.getMessage().getMessageProperties().getHeader(NOTIFICATION_USER_HEADER);
+        if (userId != null) {
+            hold(userId, returned.getMessage());
+        }
+    }
+
+    public void hold(String userId, Message message) {
+        synchronized (outbox) {
+            Deque<HeldMessage> queue = outbox.computeIfAbsent(userId, id -> new ArrayDeque<>());
+            if (queue.size() >= perUser) {
+                queue.pollFirst();
+                dropped.increment();
+            }
+            queue.addLast(new HeldMessage(message, System.nanoTime()));
+        }
+        buffered.increment();
+    }
+
+    /**
+     * Removes and returns the user's pending notifications, oldest first.
+     */
+    public List<Message> drain(String userId) {
+        Deque<HeldMessage> queue;
+        synchronized (outbox) {
+            queue = outbox.remove(userId);
+        }
+        if (queue == null) {
+            return List.of();
+        }
+        long now = System.nanoTime();
+        List<Message> messages = new ArrayList<>(queue.size());
+        for (HeldMessage entry : queue) {
+            if (now - entry.heldAt < ttlNanos) {
+                messages.add(entry.message);
+            } else {
+                dropped.increment();
+            }
+        }
+        flushed.increment(messages.size());
+        return messages;
+    }
+
+    public int users() {
+        synchronized (outbox) {
+            return outbox.size();
+        }
+    }
+
+    private record HeldMessage(Message message, long heldAt) {
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.chat.services;
+
+import com.example.chat.config.RabbitConfig;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+
+/**
+ * Tells every chat node when a user comes online, so that the node holding the user's
+ * undelivered notifications in its {@link NotificationOutbox} can send them.
+ */
+@Service
+public class PresenceService {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final NotificationOutbox outbox;
+    private final ClusterMessageRelay messageRelay;
+
+    public PresenceService(RabbitTemplate rabbitTemplate, NotificationOutbox outbox, ClusterMessageRelay messageRelay) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.outbox = outbox;
+        this.messageRelay = messageRelay;
+    }
+
+    /** Called once the node is bound for the user's destination, so flushed messages can be routed. */
+    public void announceOnline(String userId) {
+        rabbitTemplate.convertAndSend(RabbitConfig.PRESENCE_EXCHANGE, "", Map.of("userId", userId));
+    }
+
+    @RabbitListener(queues = "#{chatPresenceQueue.name}")
+    public void onUserOnline(Map<String, Object> event) {
+        Object userId = event.get("userId");
+        if (userId == null) {
+            return;
+        }
+        for (Message message : outbox.drain(userId.toString())) {
+            messageRelay.resend(message);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.chat.services;
+
+import com.example.chat.config.RabbitConfig;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks which STOMP destinations have subscribers on this node and keeps the node's delivery
+ * queue bound to exactly those destinations on {@link RabbitConfig#DELIVERY_EXCHANGE}. A message
+ * published for a destination therefore reaches every node holding a matching session, and only those.
+ * The bindings double as cluster-wide presence: a notification for a user with no binding anywhere
+ * is unroutable and comes back to the publisher (see {@link NotificationOutbox}).
+ */
+@Component
+public class SessionRegistry {
+
+    private static final String USER_TOPIC_PREFIX = "/topic/user/";
+    private static final String ADMIN_TOPIC_PREFIX = "/topic/admin/";
+
+    private final AmqpAdmin amqpAdmin;
+    private final DirectExchange deliveryExchange;
+    private final Queue deliveryQueue;
+    private final PresenceService presenceService;
+    private final AdminDirectory adminDirectory;
+
+    /** sessionId -> (subscriptionId -> destination) */
+    private final Map<String, Map<String, String>> subscriptions = new HashMap<>();
+    /** destination -> local subscription count; concurrent so reconnects can read it without the lock */
+    private final Map<String, Integer> localSubscribers = new ConcurrentHashMap<>();
+
+    public SessionRegistry(AmqpAdmin amqpAdmin, ConnectionFactory connectionFactory,
+                           DirectExchange chatDeliveryExchange, Queue chatDeliveryQueue,
+                           PresenceService presenceService, AdminDirectory adminDirectory) {
+        this.amqpAdmin = amqpAdmin;
+        this.deliveryExchange = chatDeliveryExchange;
+        this.deliveryQueue = chatDeliveryQueue;
+        this.presenceService = presenceService;
+        this.adminDirectory = adminDirectory;
+        // Bindings declared at runtime are not restored by RabbitAdmin after a broker reconnect.
+        connectionFactory.addConnectionListener(connection -> rebindAll());
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        String destination = accessor.getDestination();
+        if (accessor.getSessionId() == null || accessor.getSubscriptionId() == null || !isBrokerDestination(destination)) {
+            return;
+        }
+        register(accessor.getSessionId(), accessor.getSubscriptionId(), destination);
+        // Announced after the binding exists, so notifications flushed by other nodes are routable.
+        if (destination.startsWith(USER_TOPIC_PREFIX)) {
+            presenceService.announceOnline(destination.substring(USER_TOPIC_PREFIX.length()));
+        }
+    }
+
+    private synchronized void register(String sessionId, String subscriptionId, String destination) {
+        String previous = subscriptions
+                .computeIfAbsent(sessionId, id -> new HashMap<>())
+                .put(subscriptionId, destination);
+        if (previous != null) {
+            release(previous);
+        }
+        if (localSubscribers.merge(destination, 1, Integer::sum) == 1) {
+            amqpAdmin.declareBinding(binding(destination));
+            // StompAuthInterceptor only lets an admin subscribe to its own admin topic.
+            if (destination.startsWith(ADMIN_TOPIC_PREFIX)) {
+                adminDirectory.localAdminOnline(destination.substring(ADMIN_TOPIC_PREFIX.length()));
+            }
+        }
+    }
+
+    @EventListener
+    public synchronized void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        Map<String, String> sessionSubscriptions = subscriptions.get(accessor.getSessionId());
+        if (sessionSubscriptions == null) {
+            return;
+        }
+        String destination = sessionSubscriptions.remove(accessor.getSubscriptionId());
+        if (destination != null) {
+            release(destination);
+        }
+    }
+
+    @EventListener
+    public synchronized void onDisconnect(SessionDisconnectEvent event) {
+        Map<String, String> sessionSubscriptions = subscriptions.remove(event.getSessionId());
+        if (sessionSubscriptions != null) {
+            sessionSubscriptions.values().forEach(this::release);
+        }
+    }
+
+    /** Application destinations ({@code /app/...}) are answered directly and never need routing. */
+    private static boolean isBrokerDestination(String destination) {
+        return destination != null && (destination.startsWith("/topic/") || destination.startsWith("/queue/"));
+    }
+
+    public boolean hasLocalSubscribers(String destination) {
+        return localSubscribers.containsKey(destination);
+    }
+
+    private void release(String destination) {
+        Integer remaining = localSubscribers.computeIfPresent(destination, (d, count) -> count > 1 ? count - 1 : null);
+        if (remaining == null) {
+            amqpAdmin.removeBinding(binding(destination));
+            if (destination.startsWith(ADMIN_TOPIC_PREFIX)) {
+                adminDirectory.localAdminOffline(destination.substring(ADMIN_TOPIC_PREFIX.length()));
+            }
+        }
+    }
+
+    private void rebindAll() {
+        amqpAdmin.declareExchange(deliveryExchange);
+        amqpAdmin.declareQueue(deliveryQueue);
+        for (String destination : List.copyOf(localSubscribers.keySet())) {
+            amqpAdmin.declareBinding(binding(destination));
+        }
+    }
+
+    private Binding binding(String destination) {
+        return new Binding(deliveryQueue.getName(), Binding.DestinationType.QUEUE,
+                deliveryExchange.getName(), destination, null);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.chat.benchmarks;
+
+import com.example.chat.dtos.ChatHistoryEntry;
+import com.example.chat.dtos.ChatMessage;
+import com.example.chat.services.ChatHistoryStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Reconnect replay from a conversation holding one million messages (about 100 segments of 8 MiB).
+ * The store is reopened for the measurement, so the sparse index is only filled in by the reads themselves.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HistoryReplayBenchmark {
+
+    private static final int MESSAGES = 1_000_000;
+
+    private Path dir;
+    private ChatHistoryStore store;
+    private SplittableRandom random;
+
+    @Setup
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("chat-history-bench");
+        ChatHistoryStore writer = store();
+        for (int i = 0; i < MESSAGES; i++) {
+            writer.append("bench", new ChatMessage(i % 2 == 0 ? "Client" : "Support Bot",
+                    "message number " + i + " about my device consumption this week", "bench", false));
+        }
+        writer.close();
+
+        store = store();
+        random = new SplittableRandom(42);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        store.close();
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public List<ChatHistoryEntry> lastFifty() {
+        return store.last("bench", 50);
+    }
+
+    @Benchmark
+    public List<ChatHistoryEntry> fiftySinceRandomOffset() {
+        return store.since("bench", random.nextInt(MESSAGES - 50), 50);
+    }
+
+    private ChatHistoryStore store() {
+        return new ChatHistoryStore(new ObjectMapper(), dir.toString(), 8 << 20, 4096, 10);
+    }
+}
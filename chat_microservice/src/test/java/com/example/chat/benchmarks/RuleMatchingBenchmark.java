@@ -0,0 +1,86 @@
+package com.example.chat.benchmarks;
+
+import com.example.chat.services.KeywordMatcher;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rule lookup for one chat message: the compiled {@link KeywordMatcher} against the previous
+ * approach of lower-casing the message and calling {@code String.contains} per keyword.
+ * Messages never match, which is the worst case for the contains chain and the common case
+ * before a question falls through to the AI.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RuleMatchingBenchmark {
+
+    @Param({"8", "1000", "5000"})
+    private int keywords;
+
+    private KeywordMatcher<String> matcher;
+    private List<String> keywordList;
+    private String[] messages;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        keywordList = new ArrayList<>(keywords);
+        KeywordMatcher.Builder<String> builder = KeywordMatcher.builder();
+        for (int i = 0; i < keywords; i++) {
+            String keyword = randomWord(random, 4 + random.nextInt(6)) + "q";
+            keywordList.add(keyword);
+            builder.add(keyword, "response " + i, i % 10);
+        }
+        matcher = builder.build();
+
+        messages = new String[64];
+        for (int i = 0; i < messages.length; i++) {
+            StringBuilder message = new StringBuilder();
+            while (message.length() < 80) {
+                message.append(randomWord(random, 2 + random.nextInt(8))).append(' ');
+            }
+            messages[i] = message.append('?').toString();
+        }
+    }
+
+    private static String randomWord(SplittableRandom random, int length) {
+        // No 'q' in message words, so the generated keywords (all ending in 'q') never match.
+        char[] word = new char[length];
+        for (int i = 0; i < length; i++) {
+            char c = (char) ('a' + random.nextInt(26));
+            word[i] = c == 'q' ? 'e' : c;
+        }
+        return new String(word);
+    }
+
+    private String nextMessage() {
+        next = (next + 1) & (messages.length - 1);
+        return messages[next];
+    }
+
+    @Benchmark
+    public String ahoCorasick() {
+        return matcher.bestMatch(nextMessage());
+    }
+
+    @Benchmark
+    public String containsChain() {
+        String lower = nextMessage().toLowerCase(Locale.ROOT);
+        for (String keyword : keywordList) {
+            if (lower.contains(keyword)) {
+                return keyword;
+            }
+        }
+        return null;
+    }
+}
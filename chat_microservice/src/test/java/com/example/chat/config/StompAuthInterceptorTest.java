@@ -0,0 +1,99 @@
+package com.example.chat.config;
+
+import com.example.chat.dtos.ChatUser;
+import com.example.chat.services.JwtService;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+
+import javax.crypto.SecretKey;
+import java.security.Principal;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StompAuthInterceptorTest {
+
+    private static final String SECRET = "ThisIsAFallbackSecretKeyForDevOnlyDoNotUseInProd";
+    private static final SecretKey KEY = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+
+    private final StompAuthInterceptor interceptor = new StompAuthInterceptor(new JwtService(SECRET));
+
+    @Test
+    void attachesTheTokensUserOnConnect() {
+        Principal user = connect("Bearer " + token(KEY, new Date(System.currentTimeMillis() + 60_000)));
+
+        assertThat(user).isInstanceOf(ChatUser.class);
+        assertThat(user.getName()).isEqualTo("u1");
+        assertThat(((ChatUser) user).isAdmin()).isTrue();
+    }
+
+    @Test
+    void leavesTheSessionAnonymousForABadToken() {
+        SecretKey otherKey = Keys.hmacShaKeyFor(new byte[32]);
+
+        assertThat(connect(null)).isNull();
+        assertThat(connect("Bearer not-a-jwt")).isNull();
+        assertThat(connect("Bearer " + token(otherKey, new Date(System.currentTimeMillis() + 60_000)))).isNull();
+        assertThat(connect("Bearer " + token(KEY, new Date(System.currentTimeMillis() - 60_000)))).isNull();
+        assertThat(connect("Bearer " + token(KEY, null))).isNull();
+    }
+
+    @Test
+    void letsAnAdminSubscribeToItsOwnAdminTopics() {
+        ChatUser admin = new ChatUser("a1", "ADMIN");
+
+        assertThat(subscribe(admin, "/topic/admin/a1")).isNotNull();
+        assertThat(subscribe(admin, "/topic/admin")).isNotNull();
+        assertThat(subscribe(null, "/topic/user/u1")).isNotNull();
+    }
+
+    @Test
+    void rejectsAdminTopicSubscriptionsFromAnyoneElse() {
+        ChatUser client = new ChatUser("u1", "CLIENT");
+        ChatUser admin = new ChatUser("a1", "ADMIN");
+
+        assertThatThrownBy(() -> subscribe(null, "/topic/admin/a1")).isInstanceOf(MessagingException.class);
+        assertThatThrownBy(() -> subscribe(null, "/topic/admin")).isInstanceOf(MessagingException.class);
+        assertThatThrownBy(() -> subscribe(client, "/topic/admin/u1")).isInstanceOf(MessagingException.class);
+        assertThatThrownBy(() -> subscribe(client, "/topic/admin")).isInstanceOf(MessagingException.class);
+        assertThatThrownBy(() -> subscribe(admin, "/topic/admin/a2")).isInstanceOf(MessagingException.class);
+        assertThatThrownBy(() -> subscribe(admin, "/topic/admin/a1/x")).isInstanceOf(MessagingException.class);
+    }
+
+    private Message<?> subscribe(ChatUser user, String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setDestination(destination);
+        accessor.setUser(user);
+        Message<byte[]> message = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+        return interceptor.preSend(message, null);
+    }
+
+    private Principal connect(String authorization) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        if (authorization != null) {
+            accessor.setNativeHeader("Authorization", authorization);
+        }
+        accessor.setLeaveMutable(true);
+        Message<byte[]> message = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+        Message<?> result = interceptor.preSend(message, null);
+        return StompHeaderAccessor.wrap(result).getUser();
+    }
+
+    private static String token(SecretKey key, Date expiration) {
+        return Jwts.builder()
+                .subject("alice")
+                .claim("userId", "u1")
+                .claim("role", "ADMIN")
+                .expiration(expiration)
+                .signWith(key)
+                .compact();
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.chat.controllers;
+
+import com.example.chat.dtos.ChatMessage;
+import com.example.chat.services.AdminRouter;
+import com.example.chat.services.AiAssistantClient;
+import com.example.chat.services.AiResponseCache;
+import com.example.chat.services.ChatHistoryRecorder;
+import com.example.chat.services.ChatRuleEngine;
+import com.example.chat.services.ClusterMessageRelay;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Runs the controller against a local stub of the model endpoint that answers slowly.
+ */
+class ChatControllerTest {
+
+    private static final long MODEL_DELAY_MS = 1500;
+
+    private static final ChatRuleEngine RULES = new ChatRuleEngine(new ClassPathResource("chat-rules.json"));
+
+    private HttpServer modelStub;
+
+    @AfterEach
+    void stopStub() {
+        if (modelStub != null) {
+            modelStub.stop(0);
+        }
+    }
+
+    @Test
+    void ruleBasedRepliesStayFastWhileModelIsSlow() {
+        ClusterMessageRelay messageRelay = mock(ClusterMessageRelay.class);
+        ChatController controller = new ChatController(messageRelay, RULES, client(5000, 16), mock(ChatHistoryRecorder.class), mock(AdminRouter.class));
+
+        for (int i = 0; i < 8; i++) {
+            controller.processMessage(new ChatMessage("Client", "what is tariff " + i + "?", "ai-user-" + i, false));
+        }
+
+        long start = System.nanoTime();
+        controller.processMessage(new ChatMessage("Client", "I forgot my password", "rule-user", false));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertThat(elapsedMs).isLessThan(MODEL_DELAY_MS / 3);
+        verify(messageRelay).send(eq("/topic/user/rule-user"),
+                argThat((ChatMessage reply) -> reply.getContent().contains("reset your password")));
+        verify(messageRelay, timeout(5000)).send(eq("/topic/user/ai-user-7"),
+                argThat((ChatMessage reply) -> reply.getContent().equals("Stub answer")));
+    }
+
+    @Test
+    void slowModelFallsBackAfterTimeout() {
+        ClusterMessageRelay messageRelay = mock(ClusterMessageRelay.class);
+        ChatController controller = new ChatController(messageRelay, RULES, client(200, 16), mock(ChatHistoryRecorder.class), mock(AdminRouter.class));
+
+        controller.processMessage(new ChatMessage("Client", "what is my tariff?", "u1", false));
+
+        verify(messageRelay, timeout(MODEL_DELAY_MS)).send(eq("/topic/user/u1"),
+                argThat((ChatMessage reply) -> reply.getContent().contains("taking too long")));
+    }
+
+    @Test
+    void fullBulkheadAnswersImmediately() {
+        ClusterMessageRelay messageRelay = mock(ClusterMessageRelay.class);
+        ChatController controller = new ChatController(messageRelay, RULES, client(5000, 1), mock(ChatHistoryRecorder.class), mock(AdminRouter.class));
+
+        controller.processMessage(new ChatMessage("Client", "what is my tariff?", "first", false));
+        controller.processMessage(new ChatMessage("Client", "when is the meter read?", "second", false));
+
+        verify(messageRelay, timeout(MODEL_DELAY_MS / 3)).send(eq("/topic/user/second"),
+                argThat((ChatMessage reply) -> reply.getContent().contains("busy")));
+        verify(messageRelay, timeout(5000)).send(eq("/topic/user/first"),
+                argThat((ChatMessage reply) -> reply.getContent().equals("Stub answer")));
+    }
+
+    private AiAssistantClient client(long timeoutMs, int maxConcurrent) {
+        startSlowModelStub();
+        String url = "http://localhost:" + modelStub.getAddress().getPort() + "/v1/chat/completions";
+        AiResponseCache cache = new AiResponseCache(new SimpleMeterRegistry(), 100, 60);
+        return new AiAssistantClient(cache, "unused", url, "stub", timeoutMs, maxConcurrent);
+    }
+
+    private void startSlowModelStub() {
+        try {
+            modelStub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        modelStub.setExecutor(Executors.newCachedThreadPool());
+        modelStub.createContext("/v1/chat/completions", exchange -> {
+            try {
+                Thread.sleep(MODEL_DELAY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "{\"choices\":[{\"message\":{\"content\":\"Stub answer\"}}]}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        modelStub.start();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.chat.controllers;
+
+import com.example.chat.dtos.ChatMessage;
+import com.example.chat.dtos.ChatUser;
+import com.example.chat.services.ChatHistoryStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.messaging.MessagingException;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChatHistoryControllerTest {
+
+    @TempDir
+    Path dir;
+
+    private ChatHistoryStore store;
+    private ChatHistoryController controller;
+
+    @BeforeEach
+    void setUp() {
+        store = new ChatHistoryStore(new ObjectMapper(), dir.toString(), 1 << 20, 4096, 100);
+        store.append("u1", new ChatMessage("Client", "hello", "u1", false));
+        controller = new ChatHistoryController(store, 200);
+    }
+
+    @AfterEach
+    void close() {
+        store.close();
+    }
+
+    @Test
+    void aClientReadsItsOwnConversation() {
+        assertThat(controller.history("u1", null, null, new ChatUser("u1", "CLIENT")).getMessages()).hasSize(1);
+    }
+
+    @Test
+    void anAdminReadsAnyConversation() {
+        assertThat(controller.history("u1", null, null, new ChatUser("a1", "ADMIN")).getMessages()).hasSize(1);
+    }
+
+    @Test
+    void anotherClientIsRefused() {
+        assertThatThrownBy(() -> controller.history("u1", null, null, new ChatUser("u2", "CLIENT")))
+                .isInstanceOf(MessagingException.class);
+    }
+
+    @Test
+    void anAnonymousSessionIsRefused() {
+        assertThatThrownBy(() -> controller.history("u1", null, null, null))
+                .isInstanceOf(MessagingException.class);
+        assertThatThrownBy(() -> controller.history("u1", null, null, () -> "u1"))
+                .isInstanceOf(MessagingException.class);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.chat.services;
+
+import com.example.chat.dtos.ChatMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class AdminRouterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ClusterMessageRelay relay = mock(ClusterMessageRelay.class);
+    // Long heartbeat: membership changes only through update() in these tests
+    private final AdminDirectory directory = new AdminDirectory(mock(RabbitTemplate.class), registry, 60_000);
+    private final AdminRouter router = new AdminRouter(relay, directory, registry, 1000);
+
+    @AfterEach
+    void stop() {
+        directory.shutdown();
+    }
+
+    @Test
+    void withoutAdminsMessagesGoToTheSharedTopic() {
+        ChatMessage message = new ChatMessage("alice", "help", "u1", true);
+        router.route(message);
+
+        verify(relay).send("/topic/admin", message);
+    }
+
+    @Test
+    void conversationStaysWithItsAdminWhenOthersJoin() {
+        directory.update("node-1", Set.of("a1"));
+        router.route(new ChatMessage("alice", "help", "u1", true));
+
+        directory.update("node-2", Set.of("a2", "a3", "a4"));
+        ChatMessage second = new ChatMessage("alice", "still there?", "u1", true);
+        router.route(second);
+
+        verify(relay).send("/topic/admin/a1", second);
+    }
+
+    @Test
+    void conversationsOfADepartedAdminAreHandedOver() {
+        directory.update("node-1", Set.of("a1", "a2"));
+        Map<String, String> before = new HashMap<>();
+        for (int i = 0; i < 50; i++) {
+            before.put("u" + i, router.assign("u" + i, "client " + i));
+        }
+        assertThat(before.values()).contains("a1", "a2");
+
+        directory.update("node-1", Set.of("a2"));
+
+        ArgumentCaptor<ChatMessage> handovers = ArgumentCaptor.forClass(ChatMessage.class);
+        verify(relay, atLeastOnce()).send(eq("/topic/admin/a2"), handovers.capture());
+        long movedCount = before.values().stream().filter("a1"::equals).count();
+        assertThat(handovers.getAllValues()).hasSize((int) movedCount)
+                .allSatisfy(handover -> assertThat(handover.getContent()).isEqualTo(AdminRouter.HANDOVER_TEXT));
+        before.forEach((conversation, admin) -> assertThat(router.assign(conversation, "x")).isEqualTo("a2"));
+    }
+
+    @Test
+    void emptyAnnouncementTakesTheNodesAdminsOffline() {
+        directory.update("node-1", Set.of("a1"));
+        directory.update("node-1", Set.of());
+
+        router.route(new ChatMessage("alice", "help", "u1", true));
+
+        verify(relay, never()).send(eq("/topic/admin/a1"), any());
+        verify(relay).send(eq("/topic/admin"), any());
+    }
+
+    @Test
+    void conversationsSpreadEvenlyOverAdmins() {
+        Set<String> admins = Set.of("a1", "a2", "a3", "a4");
+        Map<String, Integer> load = new HashMap<>();
+        for (int i = 0; i < 4000; i++) {
+            load.merge(AdminRouter.pick("conversation-" + i, admins), 1, Integer::sum);
+        }
+
+        assertThat(load).hasSize(4);
+        assertThat(load.values()).allSatisfy(count -> assertThat(count).isBetween(800, 1200));
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.chat.services;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the client against a local stub of the model endpoint that answers with a fixed body.
+ */
+class AiAssistantClientTest {
+
+    private HttpServer modelStub;
+    private final AtomicInteger modelCalls = new AtomicInteger();
+
+    @AfterEach
+    void stopStub() {
+        if (modelStub != null) {
+            modelStub.stop(0);
+        }
+    }
+
+    @Test
+    void emptyRepliesFallBackAndAreNotCached() {
+        for (String reply : new String[] {"{}", "{\"choices\":[{\"message\":{\"content\":\"  \"}}]}"}) {
+            AiAssistantClient client = client(reply);
+
+            assertThat(client.answer("what is my tariff?").block()).isEqualTo(AiAssistantClient.EMPTY_FALLBACK);
+            assertThat(client.answer("what is my tariff?").block()).isEqualTo(AiAssistantClient.EMPTY_FALLBACK);
+            assertThat(modelCalls).hasValue(2);
+
+            stopStub();
+            modelCalls.set(0);
+        }
+    }
+
+    @Test
+    void unreadableRepliesFallBackAndAreNotCached() {
+        AiAssistantClient client = client("not json");
+
+        assertThat(client.answer("what is my tariff?").block()).isEqualTo(AiAssistantClient.ERROR_FALLBACK);
+        assertThat(client.answer("what is my tariff?").block()).isEqualTo(AiAssistantClient.ERROR_FALLBACK);
+        assertThat(modelCalls).hasValue(2);
+    }
+
+    @Test
+    void answersAreCached() {
+        AiAssistantClient client = client("{\"choices\":[{\"message\":{\"content\":\"Stub answer\"}}]}");
+
+        assertThat(client.answer("what is my tariff?").block()).isEqualTo("Stub answer");
+        assertThat(client.answer("what is my tariff?").block()).isEqualTo("Stub answer");
+        assertThat(modelCalls).hasValue(1);
+    }
+
+    private AiAssistantClient client(String reply) {
+        startModelStub(reply);
+        String url = "http://localhost:" + modelStub.getAddress().getPort() + "/v1/chat/completions";
+        AiResponseCache cache = new AiResponseCache(new SimpleMeterRegistry(), 100, 60);
+        return new AiAssistantClient(cache, "unused", url, "stub", 5000, 16);
+    }
+
+    private void startModelStub(String reply) {
+        try {
+            modelStub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        modelStub.createContext("/v1/chat/completions", exchange -> {
+            modelCalls.incrementAndGet();
+            byte[] body = reply.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        modelStub.start();
+    }
+}
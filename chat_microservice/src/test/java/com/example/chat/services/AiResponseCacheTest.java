@@ -0,0 +1,83 @@
+package com.example.chat.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AiResponseCacheTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void nearIdenticalQuestionsShareOneAnswer() {
+        AiResponseCache cache = new AiResponseCache(registry, 10, 60);
+        AtomicInteger calls = new AtomicInteger();
+
+        String first = cache.get("How is my bill calculated?", q -> answer(calls, "A")).block();
+        String second = cache.get("  how is my BILL calculated ", q -> answer(calls, "B")).block();
+
+        assertThat(first).isEqualTo("A");
+        assertThat(second).isEqualTo("A");
+        assertThat(calls).hasValue(1);
+        assertThat(lookups("hit")).isEqualTo(1);
+        assertThat(lookups("miss")).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentMissesShareOneModelCall() {
+        AiResponseCache cache = new AiResponseCache(registry, 10, 60);
+        Sinks.One<String> model = Sinks.one();
+        AtomicInteger calls = new AtomicInteger();
+
+        Mono<String> a = cache.get("tariff?", q -> { calls.incrementAndGet(); return model.asMono(); });
+        Mono<String> b = cache.get("Tariff", q -> { calls.incrementAndGet(); return model.asMono(); });
+        model.tryEmitValue("Night tariff starts at 22:00");
+
+        assertThat(a.block()).isEqualTo("Night tariff starts at 22:00");
+        assertThat(b.block()).isEqualTo("Night tariff starts at 22:00");
+        assertThat(calls).hasValue(1);
+        assertThat(lookups("coalesced")).isEqualTo(1);
+    }
+
+    @Test
+    void failuresAreNotCached() {
+        AiResponseCache cache = new AiResponseCache(registry, 10, 60);
+
+        Mono<String> failed = cache.get("tariff", q -> Mono.error(new IllegalStateException("down")));
+        assertThatThrownBy(failed::block).hasMessageContaining("down");
+
+        assertThat(cache.get("tariff", q -> Mono.just("recovered")).block()).isEqualTo("recovered");
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedAndExpiredEntries() {
+        AiResponseCache lru = new AiResponseCache(registry, 2, 60);
+        lru.get("one", q -> Mono.just("1")).block();
+        lru.get("two", q -> Mono.just("2")).block();
+        lru.get("one", q -> Mono.just("x")).block();
+        lru.get("three", q -> Mono.just("3")).block();
+
+        assertThat(lru.size()).isEqualTo(2);
+        assertThat(lru.get("one", q -> Mono.just("reloaded")).block()).isEqualTo("1");
+        assertThat(lru.get("two", q -> Mono.just("reloaded")).block()).isEqualTo("reloaded");
+
+        AiResponseCache expiring = new AiResponseCache(new SimpleMeterRegistry(), 10, 0);
+        expiring.get("one", q -> Mono.just("1")).block();
+        assertThat(expiring.get("one", q -> Mono.just("fresh")).block()).isEqualTo("fresh");
+    }
+
+    private static Mono<String> answer(AtomicInteger calls, String value) {
+        calls.incrementAndGet();
+        return Mono.just(value);
+    }
+
+    private double lookups(String result) {
+        return registry.get("chat.ai.cache.lookups").tag("result", result).counter().count();
+    }
+}
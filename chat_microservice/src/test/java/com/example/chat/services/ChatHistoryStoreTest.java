@@ -0,0 +1,141 @@
+package com.example.chat.services;
+
+import com.example.chat.dtos.ChatHistoryEntry;
+import com.example.chat.dtos.ChatMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChatHistoryStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private ChatHistoryStore store;
+
+    @AfterEach
+    void close() {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    @Test
+    void readsLastAndSinceAcrossSegments() throws IOException {
+        // Small segments and index interval so the reads cross several of both
+        store = store(1024, 128);
+        for (int i = 0; i < 200; i++) {
+            assertThat(store.append("u1", message(i))).isEqualTo(i);
+        }
+
+        assertThat(segments("u1")).hasSizeGreaterThan(5);
+        assertThat(contents(store.last("u1", 3))).containsExactly("m197", "m198", "m199");
+        assertThat(contents(store.since("u1", 50, 4))).containsExactly("m50", "m51", "m52", "m53");
+        assertThat(store.since("u1", 199, 10)).extracting(ChatHistoryEntry::getOffset).containsExactly(199L);
+        assertThat(store.since("u1", 200, 10)).isEmpty();
+        assertThat(store.endOffset("u1")).isEqualTo(200);
+    }
+
+    @Test
+    void anotherInstanceReadsWhatWasWritten() {
+        store = store(1024, 128);
+        for (int i = 0; i < 50; i++) {
+            store.append("u1", message(i));
+        }
+
+        ChatHistoryStore reader = store(1024, 128);
+        assertThat(contents(reader.last("u1", 2))).containsExactly("m48", "m49");
+        assertThat(contents(reader.since("u1", 10, 1))).containsExactly("m10");
+        reader.close();
+    }
+
+    @Test
+    void replicasTakingTurnsKeepOffsetsSequential() throws IOException {
+        // Each turn hands the history queue to the other replica; some turns cross a segment roll
+        store = store(1024, 128);
+        ChatHistoryStore other = store(1024, 128);
+        for (int i = 0; i < 100; i++) {
+            ChatHistoryStore writer = (i / 7) % 2 == 0 ? store : other;
+            assertThat(writer.append("u1", message(i))).isEqualTo(i);
+        }
+
+        assertThat(segments("u1")).hasSizeGreaterThan(3);
+        for (ChatHistoryStore replica : List.of(store, other)) {
+            assertThat(replica.endOffset("u1")).isEqualTo(100);
+            assertThat(contents(replica.last("u1", 2))).containsExactly("m98", "m99");
+            assertThat(replica.since("u1", 0, 200)).extracting(ChatHistoryEntry::getOffset)
+                    .containsExactlyElementsOf(Stream.iterate(0L, o -> o + 1).limit(100).toList());
+        }
+        other.close();
+    }
+
+    @Test
+    void tornTailIsTruncatedWhenWritingResumes() throws IOException {
+        store = store(1 << 20, 128);
+        for (int i = 0; i < 10; i++) {
+            store.append("u1", message(i));
+        }
+        store.close();
+
+        Path segment = segments("u1").get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 5);
+        }
+
+        store = store(1 << 20, 128);
+        assertThat(store.endOffset("u1")).isEqualTo(9);
+        assertThat(store.append("u1", message(99))).isEqualTo(9);
+        assertThat(contents(store.last("u1", 2))).containsExactly("m8", "m99");
+    }
+
+    @Test
+    void conversationsAreIsolatedAndIdsValidated() {
+        store = store(1024, 128);
+        store.append("u1", message(1));
+        store.append("u2", message(2));
+
+        assertThat(contents(store.last("u2", 10))).containsExactly("m2");
+        assertThat(store.last("unknown", 10)).isEmpty();
+        assertThatThrownBy(() -> store.last("../etc", 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void evictedConversationsReopenCleanly() {
+        store = new ChatHistoryStore(new ObjectMapper(), dir.toString(), 1024, 128, 1);
+        store.append("u1", message(1));
+        store.append("u2", message(2));
+        store.append("u1", message(3));
+
+        assertThat(contents(store.last("u1", 10))).containsExactly("m1", "m3");
+    }
+
+    private ChatHistoryStore store(long segmentBytes, int indexIntervalBytes) {
+        return new ChatHistoryStore(new ObjectMapper(), dir.toString(), segmentBytes, indexIntervalBytes, 100);
+    }
+
+    private static ChatMessage message(int i) {
+        return new ChatMessage("Client", "m" + i, "u1", false);
+    }
+
+    private static List<String> contents(List<ChatHistoryEntry> entries) {
+        return entries.stream().map(ChatHistoryEntry::getContent).toList();
+    }
+
+    private List<Path> segments(String conversation) throws IOException {
+        try (Stream<Path> files = Files.list(dir.resolve(conversation))) {
+            return files.sorted().toList();
+        }
+    }
+}
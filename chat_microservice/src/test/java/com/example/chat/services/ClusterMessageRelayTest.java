@@ -0,0 +1,78 @@
+package com.example.chat.services;
+
+import com.example.chat.config.RabbitConfig;
+import com.example.chat.dtos.ChatMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.ByteArrayMessageConverter;
+import org.springframework.messaging.converter.CompositeMessageConverter;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class ClusterMessageRelayTest {
+
+    private final List<Message<?>> delivered = new ArrayList<>();
+    private final RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+    private final ClusterMessageRelay relay = new ClusterMessageRelay(localBroker(), rabbitTemplate);
+
+    @Test
+    void chatMessageSurvivesTheHopBetweenNodes() throws Exception {
+        relay.send("/topic/user/42", new ChatMessage("Admin", "Hi there", "42", false));
+        deliverPublished("/topic/user/42");
+
+        Message<?> message = delivered.get(0);
+        assertThat(SimpMessageHeaderAccessor.getDestination(message.getHeaders())).isEqualTo("/topic/user/42");
+        assertThat(message.getHeaders().get(MessageHeaders.CONTENT_TYPE).toString()).startsWith("application/json");
+        ChatMessage received = new ObjectMapper().readValue((byte[]) message.getPayload(), ChatMessage.class);
+        assertThat(received.getContent()).isEqualTo("Hi there");
+    }
+
+    @Test
+    void plainTextKeepsItsContentType() {
+        relay.send("/topic/user/7", "NOTIFICATION: Device over limit");
+        deliverPublished("/topic/user/7");
+
+        Message<?> message = delivered.get(0);
+        assertThat(new String((byte[]) message.getPayload())).isEqualTo("NOTIFICATION: Device over limit");
+        assertThat(message.getHeaders().get(MessageHeaders.CONTENT_TYPE).toString()).startsWith("text/plain");
+    }
+
+    @Test
+    void notificationIsTaggedWithItsUserForTheOutbox() {
+        relay.sendNotification("7", "NOTIFICATION: Device over limit");
+
+        ArgumentCaptor<org.springframework.amqp.core.Message> published =
+                ArgumentCaptor.forClass(org.springframework.amqp.core.Message.class);
+        verify(rabbitTemplate).send(eq(RabbitConfig.DELIVERY_EXCHANGE), eq("/topic/user/7"), published.capture());
+        assertThat((String) published.getValue().getMessageProperties().getHeader(NotificationOutbox.NOTIFICATION_USER_HEADER))
+                .isEqualTo("7");
+    }
+
+    private void deliverPublished(String destination) {
+        ArgumentCaptor<org.springframework.amqp.core.Message> published =
+                ArgumentCaptor.forClass(org.springframework.amqp.core.Message.class);
+        verify(rabbitTemplate).send(eq(RabbitConfig.DELIVERY_EXCHANGE), eq(destination), published.capture());
+        relay.deliver(published.getValue());
+    }
+
+    private SimpMessagingTemplate localBroker() {
+        SimpMessagingTemplate template = new SimpMessagingTemplate((message, timeout) -> delivered.add(message));
+        template.setMessageConverter(new CompositeMessageConverter(List.of(
+                new StringMessageConverter(), new ByteArrayMessageConverter(), new MappingJackson2MessageConverter())));
+        return template;
+    }
+}
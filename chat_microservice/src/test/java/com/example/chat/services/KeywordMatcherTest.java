@@ -0,0 +1,71 @@
+package com.example.chat.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeywordMatcherTest {
+
+    @Test
+    void matchesWholeWordsOnly() {
+        KeywordMatcher<String> matcher = KeywordMatcher.<String>builder()
+                .add("hi", "greeting", 0)
+                .build();
+
+        assertThat(matcher.bestMatch("Hi there")).isEqualTo("greeting");
+        assertThat(matcher.bestMatch("oh, hi!")).isEqualTo("greeting");
+        assertThat(matcher.bestMatch("this is nothing")).isNull();
+        assertThat(matcher.bestMatch("high usage")).isNull();
+    }
+
+    @Test
+    void trailingStarMatchesLongerWords() {
+        KeywordMatcher<String> matcher = KeywordMatcher.<String>builder()
+                .add("device*", "devices", 0)
+                .build();
+
+        assertThat(matcher.bestMatch("my devices are offline")).isEqualTo("devices");
+        assertThat(matcher.bestMatch("smartdevice")).isNull();
+    }
+
+    @Test
+    void highestPriorityWinsThenInsertionOrder() {
+        KeywordMatcher<String> matcher = KeywordMatcher.<String>builder()
+                .add("bill", "billing", 10)
+                .add("login", "login", 30)
+                .add("cost", "cost", 10)
+                .build();
+
+        assertThat(matcher.bestMatch("my bill after login")).isEqualTo("login");
+        assertThat(matcher.bestMatch("cost and bill")).isEqualTo("billing");
+    }
+
+    @Test
+    void findsOverlappingAndNestedKeywords() {
+        KeywordMatcher<String> matcher = KeywordMatcher.<String>builder()
+                .add("she", "she", 1)
+                .add("he", "he", 2)
+                .add("hers", "hers", 3)
+                .add("energy usage", "phrase", 4)
+                .build();
+
+        assertThat(matcher.bestMatch("he")).isEqualTo("he");
+        assertThat(matcher.bestMatch("is it hers")).isEqualTo("hers");
+        assertThat(matcher.bestMatch("ushers")).isNull();
+        assertThat(matcher.bestMatch("show my ENERGY USAGE please")).isEqualTo("phrase");
+        assertThat(matcher.bestMatch("energy usages")).isNull();
+    }
+
+    @Test
+    void defaultRulesKeepTheirPrecedence() {
+        ChatRuleEngine rules = new ChatRuleEngine(new ClassPathResource("chat-rules.json"));
+
+        assertThat(rules.respond("Hello, I lost my password")).startsWith("Hello!");
+        assertThat(rules.respond("Cannot login to add a device")).contains("reset your password");
+        assertThat(rules.respond("How do I add devices?")).contains("'My Devices'");
+        assertThat(rules.respond("Why is my billing so high?")).startsWith("Billing");
+        assertThat(rules.respond("this thing is weird")).isNull();
+        assertThat(rules.respond(null)).isNull();
+    }
+}
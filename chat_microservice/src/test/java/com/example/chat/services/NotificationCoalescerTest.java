@@ -0,0 +1,76 @@
+package com.example.chat.services;
+
+import com.example.chat.dtos.NotificationBatch;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+class NotificationCoalescerTest {
+
+    private final ClusterMessageRelay relay = mock(ClusterMessageRelay.class);
+    // Long window: flushes are driven by the test, never by the scheduler
+    private final NotificationCoalescer coalescer = new NotificationCoalescer(relay, new SimpleMeterRegistry(), 60_000, 2);
+
+    @AfterEach
+    void stop() {
+        coalescer.shutdown();
+    }
+
+    @Test
+    void firstAlertIsSentImmediately() {
+        coalescer.submit("7", "Device over limit");
+
+        verify(relay).sendNotification("7", "NOTIFICATION: Device over limit");
+    }
+
+    @Test
+    void alertsInsideTheWindowAreSentAsOneBatch() {
+        coalescer.submit("7", "a");
+        coalescer.submit("7", "b");
+        coalescer.submit("7", "c");
+        coalescer.submit("7", "d");
+        coalescer.flush("7");
+
+        ArgumentCaptor<Object> frames = ArgumentCaptor.forClass(Object.class);
+        verify(relay, times(2)).sendNotification(eq("7"), frames.capture());
+        NotificationBatch batch = (NotificationBatch) frames.getAllValues().get(1);
+        assertThat(batch.getCount()).isEqualTo(3);
+        assertThat(batch.getMessages()).containsExactly("c", "d");
+        assertThat(batch.getSummary()).isEqualTo("3 new alerts. Latest: d");
+    }
+
+    @Test
+    void quietWindowClosesWithoutSending() {
+        coalescer.submit("7", "a");
+        coalescer.flush("7");
+        coalescer.submit("7", "b");
+
+        verify(relay).sendNotification("7", "NOTIFICATION: a");
+        verify(relay).sendNotification("7", "NOTIFICATION: b");
+        verifyNoMoreInteractions(relay);
+        assertThat(coalescer.openWindows()).isEqualTo(1);
+    }
+
+    @Test
+    void usersAreCoalescedSeparately() {
+        coalescer.submit("1", "a");
+        coalescer.submit("2", "b");
+        coalescer.submit("1", "c");
+        coalescer.flush("1");
+        coalescer.flush("2");
+
+        verify(relay).sendNotification("1", "NOTIFICATION: a");
+        verify(relay).sendNotification("2", "NOTIFICATION: b");
+        verify(relay).sendNotification("1", "NOTIFICATION: c");
+        verify(relay, times(3)).sendNotification(any(), any());
+    }
+}
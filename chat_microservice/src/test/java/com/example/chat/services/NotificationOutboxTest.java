@@ -0,0 +1,88 @@
+package com.example.chat.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotificationOutboxTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void returnedNotificationsAreHeldUntilDrained() {
+        NotificationOutbox outbox = new NotificationOutbox(new RabbitTemplate(), registry, 10, 10, 60);
+
+        outbox.onReturned(returned(notification("7", "first")));
+        outbox.onReturned(returned(notification("7", "second")));
+        outbox.onReturned(returned(new Message("chat reply".getBytes(StandardCharsets.UTF_8), new MessageProperties())));
+
+        assertThat(bodies(outbox.drain("7"))).containsExactly("first", "second");
+        assertThat(outbox.drain("7")).isEmpty();
+        assertThat(outbox.users()).isZero();
+    }
+
+    @Test
+    void keepsOnlyTheNewestEntriesPerUser() {
+        NotificationOutbox outbox = new NotificationOutbox(new RabbitTemplate(), registry, 2, 10, 60);
+
+        outbox.hold("7", notification("7", "a"));
+        outbox.hold("7", notification("7", "b"));
+        outbox.hold("7", notification("7", "c"));
+
+        assertThat(bodies(outbox.drain("7"))).containsExactly("b", "c");
+        assertThat(offline("dropped")).isEqualTo(1);
+        assertThat(offline("flushed")).isEqualTo(2);
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedUser() {
+        NotificationOutbox outbox = new NotificationOutbox(new RabbitTemplate(), registry, 10, 2, 60);
+
+        outbox.hold("1", notification("1", "a"));
+        outbox.hold("2", notification("2", "b"));
+        outbox.hold("1", notification("1", "c"));
+        outbox.hold("3", notification("3", "d"));
+
+        assertThat(outbox.drain("2")).isEmpty();
+        assertThat(bodies(outbox.drain("1"))).containsExactly("a", "c");
+        assertThat(bodies(outbox.drain("3"))).containsExactly("d");
+    }
+
+    @Test
+    void discardsExpiredEntriesOnDrain() {
+        NotificationOutbox outbox = new NotificationOutbox(new RabbitTemplate(), registry, 10, 10, 0);
+
+        outbox.hold("7", notification("7", "stale"));
+
+        assertThat(outbox.drain("7")).isEmpty();
+        assertThat(offline("dropped")).isEqualTo(1);
+    }
+
+    private static Message notification(String userId, String body) {
+        MessageProperties properties = new MessageProperties();
+        properties.setHeader(NotificationOutbox.NOTIFICATION_USER_HEADER, userId);
+        properties.setHeader(ClusterMessageRelay.DESTINATION_HEADER, "/topic/user/" + userId);
+        return new Message(body.getBytes(StandardCharsets.UTF_8), properties);
+    }
+
+    private static ReturnedMessage returned(Message message) {
+        return new ReturnedMessage(message, 312, "NO_ROUTE", "chat.delivery",
+                message.getMessageProperties().getHeader(ClusterMessageRelay.DESTINATION_HEADER));
+    }
+
+    private static List<String> bodies(List<Message> messages) {
+        return messages.stream().map(m -> new String(m.getBody(), StandardCharsets.UTF_8)).toList();
+    }
+
+    private double offline(String outcome) {
+        return registry.get("chat.notifications.offline").tag("outcome", outcome).counter().count();
+    }
+}
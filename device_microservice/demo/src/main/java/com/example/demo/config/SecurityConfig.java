@@ -31,6 +31,7 @@ public class SecurityConfig {
                         .requestMatchers("/api/devices/swagger-ui/**").permitAll()
                         .requestMatchers("/api/devices/v3/api-docs/**").permitAll()
                         .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/internal/devices/snapshot").permitAll()
                         .anyRequest().authenticated())
                 .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
 
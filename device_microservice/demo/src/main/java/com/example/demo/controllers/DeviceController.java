@@ -1,20 +1,31 @@
 package com.example.demo.controllers;
 
+import com.example.demo.dtos.BulkResultDTO;
 import com.example.demo.dtos.DeviceDTO;
 import com.example.demo.dtos.DeviceDetailsDTO;
 import com.example.demo.entities.DeviceStatus;
+import com.example.demo.services.BulkRowReader;
+import com.example.demo.services.DeviceBulkService;
 import com.example.demo.services.DeviceService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.util.List;
 import java.util.UUID;
@@ -26,19 +37,39 @@ import java.util.UUID;
 @SecurityRequirement(name = "bearerAuth")
 public class DeviceController {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String DEFAULT_PAGE_SIZE = "100";
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final DeviceService deviceService;
+    private final DeviceBulkService deviceBulkService;
+    private final ObjectMapper objectMapper;
 
-    public DeviceController(DeviceService deviceService) {
+    public DeviceController(DeviceService deviceService, DeviceBulkService deviceBulkService, ObjectMapper objectMapper) {
         this.deviceService = deviceService;
+        this.deviceBulkService = deviceBulkService;
+        this.objectMapper = objectMapper;
     }
 
-    @Operation(summary = "Get all devices (Admin Only)")
-    @ApiResponse(responseCode = "200", description = "List of all devices")
+    @Operation(summary = "Get all devices (Admin Only)",
+               description = "Keyset-paginated in id order. When the page is full, the X-Next-Cursor header holds the "
+                       + "'after' value for the next page. Add stream=true for all devices as NDJSON.")
+    @ApiResponse(responseCode = "200", description = "One page of devices")
     @ApiResponse(responseCode = "403", description = "Forbidden (User is not ADMIN)")
     @GetMapping
     @PreAuthorize("hasAuthority('ADMIN')")
-    public ResponseEntity<List<DeviceDTO>> getDevices() {
-        return ResponseEntity.ok(deviceService.findDevices());
+    public ResponseEntity<List<DeviceDTO>> getDevices(
+            @RequestParam(required = false) UUID after,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) @Min(1) @Max(MAX_PAGE_SIZE) int limit) {
+        return page(deviceService.findDevices(after, limit), limit);
+    }
+
+    @Operation(summary = "Stream all devices as NDJSON (Admin Only)")
+    @GetMapping(params = "stream=true", produces = BulkRowReader.NDJSON)
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public void streamDevices(HttpServletResponse response) throws IOException {
+        response.setContentType(BulkRowReader.NDJSON);
+        deviceService.streamDevices(response.getOutputStream());
     }
 
     @Operation(summary = "Get device by ID (Admin Only)")
@@ -66,8 +97,19 @@ public class DeviceController {
     @ApiResponse(responseCode = "403", description = "Forbidden (User is not ADMIN)")
     @GetMapping("/status/{status}")
     @PreAuthorize("hasAuthority('ADMIN')")
-    public ResponseEntity<List<DeviceDTO>> getDevicesByStatus(@PathVariable DeviceStatus status) {
-        return ResponseEntity.ok(deviceService.findDevicesByStatus(status));
+    public ResponseEntity<List<DeviceDTO>> getDevicesByStatus(
+            @PathVariable DeviceStatus status,
+            @RequestParam(required = false) UUID after,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) @Min(1) @Max(MAX_PAGE_SIZE) int limit) {
+        return page(deviceService.findDevicesByStatus(status, after, limit), limit);
+    }
+
+    @Operation(summary = "Stream devices by status as NDJSON (Admin Only)")
+    @GetMapping(value = "/status/{status}", params = "stream=true", produces = BulkRowReader.NDJSON)
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public void streamDevicesByStatus(@PathVariable DeviceStatus status, HttpServletResponse response) throws IOException {
+        response.setContentType(BulkRowReader.NDJSON);
+        deviceService.streamDevicesByStatus(status, response.getOutputStream());
     }
 
     @Operation(summary = "Get unassigned devices (Admin Only)")
@@ -75,8 +117,18 @@ public class DeviceController {
     @ApiResponse(responseCode = "403", description = "Forbidden (User is not ADMIN)")
     @GetMapping("/unassigned")
     @PreAuthorize("hasAuthority('ADMIN')")
-    public ResponseEntity<List<DeviceDTO>> getUnassignedDevices() {
-        return ResponseEntity.ok(deviceService.findUnassignedDevices());
+    public ResponseEntity<List<DeviceDTO>> getUnassignedDevices(
+            @RequestParam(required = false) UUID after,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) @Min(1) @Max(MAX_PAGE_SIZE) int limit) {
+        return page(deviceService.findUnassignedDevices(after, limit), limit);
+    }
+
+    @Operation(summary = "Stream unassigned devices as NDJSON (Admin Only)")
+    @GetMapping(value = "/unassigned", params = "stream=true", produces = BulkRowReader.NDJSON)
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public void streamUnassignedDevices(HttpServletResponse response) throws IOException {
+        response.setContentType(BulkRowReader.NDJSON);
+        deviceService.streamUnassignedDevices(response.getOutputStream());
     }
 
     @Operation(summary = "Create a new device (Admin Only)")
@@ -96,6 +148,30 @@ public class DeviceController {
         return ResponseEntity.created(location).build();
     }
 
+    @Operation(summary = "Import devices in bulk (Admin Only)",
+               description = "Body is a JSON array, newline-delimited JSON or CSV with a header line, one device per row "
+                       + "with the same fields as a single create. Each row is reported as CREATED, INVALID or DUPLICATE.")
+    @ApiResponse(responseCode = "200", description = "Per-row results")
+    @ApiResponse(responseCode = "403", description = "Forbidden (User is not ADMIN)")
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, BulkRowReader.NDJSON, BulkRowReader.CSV})
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<BulkResultDTO> importDevices(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                       InputStream body) throws IOException {
+        return ResponseEntity.ok(deviceBulkService.importDevices(BulkRowReader.open(body, contentType, objectMapper)));
+    }
+
+    @Operation(summary = "Assign devices in bulk (Admin Only)",
+               description = "Rows of deviceId and userId, as JSON, newline-delimited JSON or CSV; an empty userId unassigns. "
+                       + "Each row is reported as ASSIGNED, INVALID, NOT_FOUND, DUPLICATE or CONFLICT.")
+    @ApiResponse(responseCode = "200", description = "Per-row results")
+    @ApiResponse(responseCode = "403", description = "Forbidden (User is not ADMIN)")
+    @PostMapping(value = "/bulk/assignments", consumes = {MediaType.APPLICATION_JSON_VALUE, BulkRowReader.NDJSON, BulkRowReader.CSV})
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<BulkResultDTO> assignDevices(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                       InputStream body) throws IOException {
+        return ResponseEntity.ok(deviceBulkService.assignDevices(BulkRowReader.open(body, contentType, objectMapper)));
+    }
+
     @Operation(summary = "Update a device (Admin Only)")
     @ApiResponse(responseCode = "204", description = "Device updated successfully")
     @ApiResponse(responseCode = "400", description = "Validation error")
@@ -151,4 +227,20 @@ public class DeviceController {
     public ResponseEntity<Long> countDevicesByUser(@PathVariable UUID userId) {
         return ResponseEntity.ok(deviceService.countDevicesByUser(userId));
     }
-}
\ No newline at end of file
+
+    /** A full page carries the cursor for the next one; a short page is the last. */
+    private static ResponseEntity<List<DeviceDTO>> page(List<DeviceDTO> devices, int limit) {
+        if (devices.size() < limit) {
+            return ResponseEntity.ok(devices);
+        }
+        String next = devices.get(devices.size() - 1).getId().toString();
+        URI nextPage = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("after", next)
+                .build()
+                .toUri();
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, next)
+                .header(HttpHeaders.LINK, "<" + nextPage + ">; rel=\"next\"")
+                .body(devices);
+    }
+}
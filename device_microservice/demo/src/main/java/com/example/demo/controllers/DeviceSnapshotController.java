@@ -0,0 +1,50 @@
+package com.example.demo.controllers;
+
+import com.example.demo.handlers.exceptions.model.CustomException;
+import com.example.demo.services.DeviceSnapshotService;
+import io.swagger.v3.oas.annotations.Hidden;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+/**
+ * Service-to-service export used by the Monitoring Service to bootstrap its device table. The
+ * path is not routed by Traefik and is guarded by a shared token instead of a user JWT.
+ */
+@Hidden
+@RestController
+@RequestMapping("/internal/devices")
+public class DeviceSnapshotController {
+
+    private static final String SNAPSHOT_TOKEN_HEADER = "X-Snapshot-Token";
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final DeviceSnapshotService deviceSnapshotService;
+    private final byte[] snapshotToken;
+
+    public DeviceSnapshotController(DeviceSnapshotService deviceSnapshotService,
+                                    @Value("${app.snapshot.token}") String snapshotToken) {
+        this.deviceSnapshotService = deviceSnapshotService;
+        this.snapshotToken = snapshotToken.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @GetMapping(value = "/snapshot", produces = NDJSON)
+    public void exportSnapshot(@RequestHeader(value = SNAPSHOT_TOKEN_HEADER, required = false) String token,
+                               HttpServletResponse response) throws IOException {
+        if (token == null || !MessageDigest.isEqual(snapshotToken, token.getBytes(StandardCharsets.UTF_8))) {
+            throw new CustomException("Invalid snapshot token", HttpStatus.FORBIDDEN, "snapshot", List.of());
+        }
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        deviceSnapshotService.writeSnapshot(response.getOutputStream());
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.demo.dtos;
+
+import java.util.List;
+
+public class BulkResultDTO {
+    private int total;
+    private int succeeded;
+    private int failed;
+    private List<BulkRowResultDTO> rows;
+
+    public BulkResultDTO() {
+    }
+
+    public BulkResultDTO(List<BulkRowResultDTO> rows) {
+        this.rows = rows;
+        this.total = rows.size();
+        this.succeeded = (int) rows.stream().filter(BulkRowResultDTO::isSucceeded).count();
+        this.failed = total - succeeded;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public List<BulkRowResultDTO> getRows() {
+        return rows;
+    }
+}
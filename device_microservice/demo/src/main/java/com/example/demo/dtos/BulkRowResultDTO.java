@@ -0,0 +1,55 @@
+package com.example.demo.dtos;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Outcome of one input row of a bulk request. Rows are numbered from 1 in input order.
+ */
+public class BulkRowResultDTO {
+    private int row;
+    private BulkRowStatus status;
+    private UUID deviceId;
+    private List<String> errors;
+
+    public BulkRowResultDTO() {
+    }
+
+    public BulkRowResultDTO(int row, BulkRowStatus status, UUID deviceId, List<String> errors) {
+        this.row = row;
+        this.status = status;
+        this.deviceId = deviceId;
+        this.errors = errors;
+    }
+
+    public static BulkRowResultDTO success(int row, BulkRowStatus status, UUID deviceId) {
+        return new BulkRowResultDTO(row, status, deviceId, List.of());
+    }
+
+    public static BulkRowResultDTO failure(int row, BulkRowStatus status, UUID deviceId, List<String> errors) {
+        return new BulkRowResultDTO(row, status, deviceId, errors);
+    }
+
+    @JsonIgnore
+    public boolean isSucceeded() {
+        return status == BulkRowStatus.CREATED || status == BulkRowStatus.ASSIGNED;
+    }
+
+    public int getRow() {
+        return row;
+    }
+
+    public BulkRowStatus getStatus() {
+        return status;
+    }
+
+    public UUID getDeviceId() {
+        return deviceId;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.demo.dtos;
+
+public enum BulkRowStatus {
+    CREATED,
+    ASSIGNED,
+    INVALID,
+    DUPLICATE,
+    NOT_FOUND,
+    CONFLICT,
+    /** The row was valid, but its chunk could not be written (e.g. the database failed). */
+    FAILED
+}
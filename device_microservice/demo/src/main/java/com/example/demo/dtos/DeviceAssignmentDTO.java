@@ -0,0 +1,40 @@
+package com.example.demo.dtos;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.util.UUID;
+
+/**
+ * One row of a bulk assignment: the device and its new owner, or no owner to unassign it.
+ */
+public class DeviceAssignmentDTO {
+
+    @NotNull(message = "Device id is required")
+    private UUID deviceId;
+
+    private UUID userId;
+
+    public DeviceAssignmentDTO() {
+    }
+
+    public DeviceAssignmentDTO(UUID deviceId, UUID userId) {
+        this.deviceId = deviceId;
+        this.userId = userId;
+    }
+
+    public UUID getDeviceId() {
+        return deviceId;
+    }
+
+    public void setDeviceId(UUID deviceId) {
+        this.deviceId = deviceId;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public void setUserId(UUID userId) {
+        this.userId = userId;
+    }
+}
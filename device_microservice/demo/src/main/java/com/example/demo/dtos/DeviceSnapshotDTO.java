@@ -0,0 +1,39 @@
+package com.example.demo.dtos;
+
+import java.util.UUID;
+
+/**
+ * One line of the device snapshot: the fields the Monitoring Service replicates.
+ */
+public class DeviceSnapshotDTO {
+    private UUID id;
+    private Double maxConsumption;
+    private UUID userId;
+    private long version;
+
+    public DeviceSnapshotDTO() {
+    }
+
+    public DeviceSnapshotDTO(UUID id, Double maxConsumption, UUID userId, long version) {
+        this.id = id;
+        this.maxConsumption = maxConsumption;
+        this.userId = userId;
+        this.version = version;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public Double getMaxConsumption() {
+        return maxConsumption;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.demo.dtos;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The device service's copy of the sync event (schema 1, see "Event contract" in README section
+ * 3.2). It publishes device upserts at the device's JPA version and deletions at that version
+ * plus one, and applies user events by id only, so profile fields are not mapped.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class SyncEvent {
+
+    public static final int SCHEMA = 1;
+
+    private int schema = SCHEMA;
+    private SyncEventType type;
+    private UUID entityId;
+    private long version;
+    private long occurredAt;
+
+    private UUID userId;
+    private Double maxConsumption;
+
+    public SyncEvent() {
+    }
+
+    private SyncEvent(SyncEventType type, UUID entityId, long version) {
+        this.type = type;
+        this.entityId = entityId;
+        this.version = version;
+        this.occurredAt = System.currentTimeMillis();
+    }
+
+    public static SyncEvent deviceUpserted(UUID deviceId, long version, UUID userId, Double maxConsumption) {
+        SyncEvent event = new SyncEvent(SyncEventType.DEVICE_UPSERTED, deviceId, version);
+        event.userId = userId;
+        event.maxConsumption = maxConsumption;
+        return event;
+    }
+
+    public static SyncEvent deviceDeleted(UUID deviceId, long lastVersion) {
+        return new SyncEvent(SyncEventType.DEVICE_DELETED, deviceId, lastVersion + 1);
+    }
+
+    /**
+     * Collapses a batch to the latest event per entity, in first-seen order. A higher version
+     * wins; on equal versions a deletion wins, then the later event. Untyped events are dropped.
+     */
+    public static Map<UUID, SyncEvent> latestPerEntity(Collection<SyncEvent> events) {
+        Map<UUID, SyncEvent> latest = new LinkedHashMap<>();
+        for (SyncEvent event : events) {
+            if (event == null || !event.isTyped()) {
+                continue;
+            }
+            latest.merge(event.entityId, event, (current, candidate) -> {
+                if (candidate.version != current.version) {
+                    return candidate.version > current.version ? candidate : current;
+                }
+                return current.type.isDelete() && !candidate.type.isDelete() ? current : candidate;
+            });
+        }
+        return latest;
+    }
+
+    /** False for messages in the map format used before schema 1, which have no type or entity id. */
+    @JsonIgnore
+    public boolean isTyped() {
+        return type != null && entityId != null;
+    }
+
+    public int getSchema() {
+        return schema;
+    }
+
+    public void setSchema(int schema) {
+        this.schema = schema;
+    }
+
+    public SyncEventType getType() {
+        return type;
+    }
+
+    public void setType(SyncEventType type) {
+        this.type = type;
+    }
+
+    public UUID getEntityId() {
+        return entityId;
+    }
+
+    public void setEntityId(UUID entityId) {
+        this.entityId = entityId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public long getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(long occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public void setUserId(UUID userId) {
+        this.userId = userId;
+    }
+
+    public Double getMaxConsumption() {
+        return maxConsumption;
+    }
+
+    public void setMaxConsumption(Double maxConsumption) {
+        this.maxConsumption = maxConsumption;
+    }
+}
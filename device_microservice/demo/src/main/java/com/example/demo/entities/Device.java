@@ -10,7 +10,7 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "devices")
+@Table(name = "devices", indexes = @Index(name = "idx_devices_user_id", columnList = "user_id"))
 public class Device implements Serializable {
 
     private static final long serialVersionUID = 1L;
@@ -47,6 +47,11 @@ public class Device implements Serializable {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    /** Incremented on every change; sync events carry it so consumers can drop stale ones. */
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0 not null")
+    private long version;
+
     public Device() {
     }
 
@@ -125,6 +130,10 @@ public class Device implements Serializable {
         this.status = status;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
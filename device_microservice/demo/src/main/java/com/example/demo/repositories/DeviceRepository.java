@@ -1,36 +1,100 @@
 package com.example.demo.repositories;
 
+import com.example.demo.dtos.DeviceDTO;
+import com.example.demo.dtos.DeviceDetailsDTO;
 import com.example.demo.entities.Device;
 import com.example.demo.entities.DeviceStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface DeviceRepository extends JpaRepository<Device, UUID> {
+/**
+ * Read methods return DTOs built by a JPQL constructor expression: only the listed columns are
+ * selected and no entity enters the persistence context.
+ */
+public interface DeviceRepository extends JpaRepository<Device, UUID>, DeviceRepositoryCustom {
+
+    String DEVICE_DTO = "new com.example.demo.dtos.DeviceDTO(d.id, d.name, d.description, d.address, "
+            + "d.maxConsumption, d.userId, d.status, d.createdAt, d.updatedAt)";
+
+    String DEVICE_DETAILS_DTO = "new com.example.demo.dtos.DeviceDetailsDTO(d.id, d.name, d.description, d.address, "
+            + "d.maxConsumption, d.userId, d.status, d.createdAt, d.updatedAt)";
+
+    /**
+     * Find a device by id
+     */
+    @Query("SELECT " + DEVICE_DETAILS_DTO + " FROM Device d WHERE d.id = :id")
+    Optional<DeviceDetailsDTO> findDetailsById(@Param("id") UUID id);
 
     /**
      * Find all devices assigned to a specific user
      */
-    List<Device> findByUserId(UUID userId);
+    @Query("SELECT " + DEVICE_DTO + " FROM Device d WHERE d.userId = :userId")
+    List<DeviceDTO> findDTOsByUserId(@Param("userId") UUID userId);
+
+    /**
+     * Keyset page of all devices: the first {@code limit} with an id after {@code after}
+     */
+    @Query("SELECT " + DEVICE_DTO + " FROM Device d WHERE d.id > :after ORDER BY d.id")
+    List<DeviceDTO> findPage(@Param("after") UUID after, Limit limit);
+
+    /**
+     * Keyset page of devices by status
+     */
+    @Query("SELECT " + DEVICE_DTO + " FROM Device d WHERE d.status = :status AND d.id > :after ORDER BY d.id")
+    List<DeviceDTO> findPageByStatus(@Param("status") DeviceStatus status, @Param("after") UUID after, Limit limit);
+
+    /**
+     * Keyset page of unassigned devices (no user assigned)
+     */
+    @Query("SELECT " + DEVICE_DTO + " FROM Device d WHERE d.userId IS NULL AND d.id > :after ORDER BY d.id")
+    List<DeviceDTO> findUnassignedPage(@Param("after") UUID after, Limit limit);
+
+    /**
+     * All devices in id order, fetched through a cursor. Must be consumed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT " + DEVICE_DTO + " FROM Device d ORDER BY d.id")
+    Stream<DeviceDTO> streamAll();
 
     /**
-     * Find devices by status
+     * Devices by status in id order, fetched through a cursor
      */
-    List<Device> findByStatus(DeviceStatus status);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT " + DEVICE_DTO + " FROM Device d WHERE d.status = :status ORDER BY d.id")
+    Stream<DeviceDTO> streamByStatus(@Param("status") DeviceStatus status);
 
     /**
-     * Find unassigned devices (no user assigned)
+     * Unassigned devices in id order, fetched through a cursor
      */
-    List<Device> findByUserIdIsNull();
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT " + DEVICE_DTO + " FROM Device d WHERE d.userId IS NULL ORDER BY d.id")
+    Stream<DeviceDTO> streamUnassigned();
 
     /**
      * Check if a device name exists
      */
     boolean existsByName(String name);
 
+    /**
+     * Which of the given names are already taken
+     */
+    @Query("SELECT d.name FROM Device d WHERE d.name IN :names")
+    Set<String> findNamesIn(@Param("names") Collection<String> names);
+
     /**
      * Count devices assigned to a user
      */
     long countByUserId(UUID userId);
-}
\ No newline at end of file
+}
@@ -0,0 +1,26 @@
+package com.example.demo.repositories;
+
+import com.example.demo.dtos.DeviceAssignmentDTO;
+import com.example.demo.entities.Device;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public interface DeviceRepositoryCustom {
+
+    /**
+     * Inserts new devices in one JDBC batch. Ids and timestamps must already be set; the
+     * version starts at 0.
+     */
+    void insertAll(Collection<Device> devices);
+
+    /**
+     * Sets the owner of each device in one JDBC batch, provided its version still matches
+     * {@code expectedVersions}, and bumps the version.
+     *
+     * @return the update count per assignment: 1 if applied, 0 if the device changed meanwhile
+     */
+    int[] assignAll(List<DeviceAssignmentDTO> assignments, Map<UUID, Long> expectedVersions);
+}
@@ -0,0 +1,69 @@
+package com.example.demo.repositories;
+
+import com.example.demo.dtos.DeviceAssignmentDTO;
+import com.example.demo.entities.Device;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public class DeviceRepositoryImpl implements DeviceRepositoryCustom {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO devices (id, name, description, address, max_consumption, user_id, status, " +
+            "created_at, updated_at, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private static final String ASSIGN_SQL =
+            "UPDATE devices SET user_id = ?, updated_at = ?, version = version + 1 WHERE id = ? AND version = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DeviceRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertAll(Collection<Device> devices) {
+        if (devices.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(devices.size());
+        for (Device device : devices) {
+            rows.add(new Object[]{
+                    device.getId(),
+                    device.getName(),
+                    device.getDescription(),
+                    device.getAddress(),
+                    device.getMaxConsumption(),
+                    device.getUserId(),
+                    device.getStatus().name(),
+                    Timestamp.valueOf(device.getCreatedAt()),
+                    Timestamp.valueOf(device.getUpdatedAt())
+            });
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+
+    @Override
+    public int[] assignAll(List<DeviceAssignmentDTO> assignments, Map<UUID, Long> expectedVersions) {
+        if (assignments.isEmpty()) {
+            return new int[0];
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(assignments.size());
+        for (DeviceAssignmentDTO assignment : assignments) {
+            rows.add(new Object[]{
+                    assignment.getUserId(),
+                    now,
+                    assignment.getDeviceId(),
+                    expectedVersions.get(assignment.getDeviceId())
+            });
+        }
+        return jdbcTemplate.batchUpdate(ASSIGN_SQL, rows);
+    }
+}
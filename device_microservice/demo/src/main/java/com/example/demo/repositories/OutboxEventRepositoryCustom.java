@@ -0,0 +1,13 @@
+package com.example.demo.repositories;
+
+import com.example.demo.entities.OutboxEvent;
+
+import java.util.Collection;
+
+public interface OutboxEventRepositoryCustom {
+
+    /**
+     * Inserts the events in one JDBC batch. Identity ids rule out Hibernate's own batching.
+     */
+    void insertAll(Collection<OutboxEvent> events);
+}
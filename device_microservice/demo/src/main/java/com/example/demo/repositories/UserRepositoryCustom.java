@@ -0,0 +1,12 @@
+package com.example.demo.repositories;
+
+import java.util.Collection;
+import java.util.UUID;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Inserts the given user ids in one JDBC batch, skipping ids that already exist.
+     */
+    void insertMissing(Collection<UUID> userIds);
+}
@@ -0,0 +1,31 @@
+package com.example.demo.repositories;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    private static final String INSERT_SQL = "INSERT INTO users (id) VALUES (?) ON CONFLICT (id) DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertMissing(Collection<UUID> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(userIds.size());
+        for (UUID userId : userIds) {
+            rows.add(new Object[]{userId});
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.demo.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.http.MediaType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads the body of a bulk request one row at a time, so a large upload is never held in
+ * memory. Accepts a JSON array, newline-delimited JSON, or CSV with a header line naming the
+ * fields; empty CSV cells are left out of the row. A UTF-8 byte order mark, as spreadsheet
+ * exports often write, is skipped. Each row is returned as a JSON object and bound by the
+ * caller, so a bad row fails on its own.
+ */
+public final class BulkRowReader {
+
+    public static final String NDJSON = "application/x-ndjson";
+    public static final String CSV = "text/csv";
+
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private BulkRowReader() {
+    }
+
+    public static Iterator<JsonNode> open(InputStream body, MediaType contentType, ObjectMapper objectMapper) throws IOException {
+        if (contentType != null && MediaType.parseMediaType(CSV).includes(contentType)) {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+            reader.mark(1);
+            if (reader.read() != BYTE_ORDER_MARK) {
+                reader.reset();
+            }
+            return new CsvRows(reader, objectMapper);
+        }
+        // Jackson skips a byte order mark itself and iterates over the elements of a root-level array, or over concatenated values.
+        return objectMapper.readerFor(JsonNode.class).readValues(body);
+    }
+
+    private static final class CsvRows implements Iterator<JsonNode> {
+
+        private final Reader reader;
+        private final ObjectMapper objectMapper;
+        private final List<String> header;
+        private List<String> next;
+
+        CsvRows(Reader reader, ObjectMapper objectMapper) throws IOException {
+            this.reader = reader;
+            this.objectMapper = objectMapper;
+            List<String> names = readRecord();
+            this.header = names != null ? names.stream().map(String::trim).toList() : List.of();
+            this.next = names != null ? readRecord() : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public JsonNode next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            ObjectNode row = objectMapper.createObjectNode();
+            for (int i = 0; i < Math.min(header.size(), next.size()); i++) {
+                String value = next.get(i).trim();
+                if (!value.isEmpty()) {
+                    row.put(header.get(i), value);
+                }
+            }
+            try {
+                next = readRecord();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return row;
+        }
+
+        /** One RFC 4180 record; blank lines are skipped. Returns null at end of input. */
+        private List<String> readRecord() throws IOException {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean any = false;
+            int c;
+            while ((c = reader.read()) != -1) {
+                char ch = (char) c;
+                if (quoted) {
+                    if (ch == '"') {
+                        reader.mark(1);
+                        int peek = reader.read();
+                        if (peek == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            if (peek != -1) {
+                                reader.reset();
+                            }
+                        }
+                    } else {
+                        field.append(ch);
+                    }
+                } else if (ch == '"') {
+                    quoted = true;
+                    any = true;
+                } else if (ch == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                    any = true;
+                } else if (ch == '\n') {
+                    if (any || field.length() > 0) {
+                        fields.add(field.toString());
+                        return fields;
+                    }
+                } else if (ch != '\r') {
+                    field.append(ch);
+                    any = true;
+                }
+            }
+            if (!any && field.length() == 0) {
+                return null;
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.example.demo.services;
+
+import com.example.demo.config.RabbitConfig;
+import com.example.demo.dtos.BulkResultDTO;
+import com.example.demo.dtos.BulkRowResultDTO;
+import com.example.demo.dtos.BulkRowStatus;
+import com.example.demo.dtos.DeviceAssignmentDTO;
+import com.example.demo.dtos.DeviceDetailsDTO;
+import com.example.demo.dtos.SyncEvent;
+import com.example.demo.dtos.builders.DeviceBuilder;
+import com.example.demo.entities.Device;
+import com.example.demo.entities.User;
+import com.example.demo.repositories.DeviceRepository;
+import com.example.demo.repositories.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk device import and assignment. Rows are read as a stream and handled in chunks of
+ * {@code app.bulk.chunk-size}, each in its own transaction: one query to check names (or
+ * devices and users), one JDBC batch for the change, and one batched insert of the sync events
+ * into the outbox. A bad row is reported and skipped; it does not fail its chunk. If a chunk
+ * cannot be written, its rows are reported as {@link BulkRowStatus#FAILED} and the request goes
+ * on with the next chunk; chunks that have committed stay committed.
+ */
+@Service
+public class DeviceBulkService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DeviceBulkService.class);
+
+    private final DeviceRepository deviceRepository;
+    private final UserRepository userRepository;
+    private final OutboxService outboxService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public DeviceBulkService(DeviceRepository deviceRepository,
+                             UserRepository userRepository,
+                             OutboxService outboxService,
+                             ObjectMapper objectMapper,
+                             Validator validator,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.bulk.chunk-size:1000}") int chunkSize) {
+        this.deviceRepository = deviceRepository;
+        this.userRepository = userRepository;
+        this.outboxService = outboxService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    public BulkResultDTO importDevices(Iterator<JsonNode> rows) {
+        long start = System.nanoTime();
+        Set<String> namesInRequest = new HashSet<>();
+        List<BulkRowResultDTO> results = process(rows, DeviceDetailsDTO.class, chunk -> {
+            Set<String> namesInChunk = new HashSet<>();
+            List<BulkRowResultDTO> chunkResults =
+                    transactionTemplate.execute(status -> insertChunk(chunk, namesInRequest, namesInChunk));
+            // Only names that were committed block later rows.
+            namesInRequest.addAll(namesInChunk);
+            return chunkResults;
+        });
+        LOGGER.info("Bulk import of {} rows took {} ms", results.size(), (System.nanoTime() - start) / 1_000_000);
+        return new BulkResultDTO(results);
+    }
+
+    public BulkResultDTO assignDevices(Iterator<JsonNode> rows) {
+        long start = System.nanoTime();
+        Set<UUID> devicesInRequest = new HashSet<>();
+        List<BulkRowResultDTO> results = process(rows, DeviceAssignmentDTO.class, chunk -> {
+            Set<UUID> devicesInChunk = new HashSet<>();
+            List<BulkRowResultDTO> chunkResults =
+                    transactionTemplate.execute(status -> assignChunk(chunk, devicesInRequest, devicesInChunk));
+            devicesInRequest.addAll(devicesInChunk);
+            return chunkResults;
+        });
+        LOGGER.info("Bulk assignment of {} rows took {} ms", results.size(), (System.nanoTime() - start) / 1_000_000);
+        return new BulkResultDTO(results);
+    }
+
+    private List<BulkRowResultDTO> insertChunk(List<Row<DeviceDetailsDTO>> chunk, Set<String> namesInRequest,
+                                               Set<String> namesInChunk) {
+        List<BulkRowResultDTO> results = new ArrayList<>(chunk.size());
+        Set<String> taken = deviceRepository.findNamesIn(chunk.stream()
+                .map(row -> row.value().getName())
+                .collect(Collectors.toSet()));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Device> devices = new ArrayList<>();
+        for (Row<DeviceDetailsDTO> row : chunk) {
+            String name = row.value().getName();
+            if (taken.contains(name) || namesInRequest.contains(name) || !namesInChunk.add(name)) {
+                results.add(BulkRowResultDTO.failure(row.number(), BulkRowStatus.DUPLICATE, null,
+                        List.of("Device name " + name + " is already taken")));
+                continue;
+            }
+            Device device = DeviceBuilder.toEntity(row.value());
+            device.setId(UUID.randomUUID());
+            device.setCreatedAt(now);
+            device.setUpdatedAt(now);
+            devices.add(device);
+            results.add(BulkRowResultDTO.success(row.number(), BulkRowStatus.CREATED, device.getId()));
+        }
+
+        deviceRepository.insertAll(devices);
+        outboxService.enqueueAll(RabbitConfig.EXCHANGE_NAME, "", devices.stream()
+                .map(device -> SyncEvent.deviceUpserted(device.getId(), 0, device.getUserId(), device.getMaxConsumption()))
+                .toList());
+        return results;
+    }
+
+    private List<BulkRowResultDTO> assignChunk(List<Row<DeviceAssignmentDTO>> chunk, Set<UUID> devicesInRequest,
+                                               Set<UUID> devicesInChunk) {
+        List<BulkRowResultDTO> results = new ArrayList<>(chunk.size());
+        Map<UUID, Device> devices = deviceRepository.findAllById(chunk.stream()
+                        .map(row -> row.value().getDeviceId())
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Device::getId, Function.identity()));
+        Map<UUID, Long> versions = devices.values().stream()
+                .collect(Collectors.toMap(Device::getId, Device::getVersion));
+        Set<UUID> users = userRepository.findAllById(chunk.stream()
+                        .map(row -> row.value().getUserId())
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .map(User::getId)
+                .collect(Collectors.toSet());
+
+        List<Row<DeviceAssignmentDTO>> valid = new ArrayList<>();
+        for (Row<DeviceAssignmentDTO> row : chunk) {
+            UUID deviceId = row.value().getDeviceId();
+            UUID userId = row.value().getUserId();
+            if (!devices.containsKey(deviceId)) {
+                results.add(BulkRowResultDTO.failure(row.number(), BulkRowStatus.NOT_FOUND, deviceId,
+                        List.of("Device with id " + deviceId + " was not found")));
+            } else if (userId != null && !users.contains(userId)) {
+                results.add(BulkRowResultDTO.failure(row.number(), BulkRowStatus.NOT_FOUND, deviceId,
+                        List.of("User with id " + userId + " was not found")));
+            } else if (devicesInRequest.contains(deviceId) || !devicesInChunk.add(deviceId)) {
+                results.add(BulkRowResultDTO.failure(row.number(), BulkRowStatus.DUPLICATE, deviceId,
+                        List.of("Device " + deviceId + " appears more than once")));
+            } else {
+                valid.add(row);
+            }
+        }
+
+        int[] counts = deviceRepository.assignAll(valid.stream().map(Row::value).toList(), versions);
+        List<SyncEvent> events = new ArrayList<>(valid.size());
+        for (int i = 0; i < valid.size(); i++) {
+            Row<DeviceAssignmentDTO> row = valid.get(i);
+            UUID deviceId = row.value().getDeviceId();
+            if (counts[i] == 0) {
+                results.add(BulkRowResultDTO.failure(row.number(), BulkRowStatus.CONFLICT, deviceId,
+                        List.of("Device " + deviceId + " was modified concurrently, retry the row")));
+                continue;
+            }
+            Device device = devices.get(deviceId);
+            events.add(SyncEvent.deviceUpserted(deviceId, device.getVersion() + 1, row.value().getUserId(),
+                    device.getMaxConsumption()));
+            results.add(BulkRowResultDTO.success(row.number(), BulkRowStatus.ASSIGNED, deviceId));
+        }
+        outboxService.enqueueAll(RabbitConfig.EXCHANGE_NAME, "", events);
+        return results;
+    }
+
+    /**
+     * Binds and validates each row, hands valid rows to {@code applyChunk} in chunks, and
+     * returns one result per row in input order. Unreadable input ends the request at that row.
+     */
+    private <T> List<BulkRowResultDTO> process(Iterator<JsonNode> rows, Class<T> type,
+                                               Function<List<Row<T>>, List<BulkRowResultDTO>> applyChunk) {
+        List<BulkRowResultDTO> results = new ArrayList<>();
+        List<Row<T>> chunk = new ArrayList<>(chunkSize);
+        int number = 0;
+        while (true) {
+            JsonNode node;
+            try {
+                if (!rows.hasNext()) {
+                    break;
+                }
+                node = rows.next();
+            } catch (RuntimeException e) {
+                results.add(BulkRowResultDTO.failure(number + 1, BulkRowStatus.INVALID, null,
+                        List.of("Unreadable input, stopped here: " + e.getMessage())));
+                break;
+            }
+            number++;
+
+            T value;
+            try {
+                value = objectMapper.treeToValue(node, type);
+            } catch (JsonProcessingException e) {
+                results.add(BulkRowResultDTO.failure(number, BulkRowStatus.INVALID, null,
+                        List.of(e.getOriginalMessage())));
+                continue;
+            }
+            Set<ConstraintViolation<T>> violations = validator.validate(value);
+            if (!violations.isEmpty()) {
+                results.add(BulkRowResultDTO.failure(number, BulkRowStatus.INVALID, null, violations.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .sorted()
+                        .toList()));
+                continue;
+            }
+
+            chunk.add(new Row<>(number, value));
+            if (chunk.size() == chunkSize) {
+                results.addAll(applyOrFail(chunk, applyChunk));
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(applyOrFail(chunk, applyChunk));
+        }
+        results.sort(Comparator.comparingInt(BulkRowResultDTO::getRow));
+        return results;
+    }
+
+    /** Runs one chunk; if it throws, its transaction has rolled back and every row in it is reported as failed. */
+    private static <T> List<BulkRowResultDTO> applyOrFail(List<Row<T>> chunk,
+                                                          Function<List<Row<T>>, List<BulkRowResultDTO>> applyChunk) {
+        try {
+            return applyChunk.apply(chunk);
+        } catch (RuntimeException e) {
+            LOGGER.warn("Bulk chunk of rows {}-{} failed: {}", chunk.get(0).number(),
+                    chunk.get(chunk.size() - 1).number(), e.getMessage());
+            List<String> errors = List.of("Not saved, retry the row: " + e.getMessage());
+            return chunk.stream()
+                    .map(row -> BulkRowResultDTO.failure(row.number(), BulkRowStatus.FAILED, null, errors))
+                    .toList();
+        }
+    }
+
+    private record Row<T>(int number, T value) {
+    }
+}
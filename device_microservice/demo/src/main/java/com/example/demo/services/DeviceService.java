@@ -2,79 +2,96 @@ package com.example.demo.services;
 
 import com.example.demo.dtos.DeviceDTO;
 import com.example.demo.dtos.DeviceDetailsDTO;
+import com.example.demo.dtos.SyncEvent;
 import com.example.demo.dtos.builders.DeviceBuilder;
 import com.example.demo.entities.Device;
 import com.example.demo.entities.DeviceStatus;
 import com.example.demo.handlers.exceptions.model.CustomException;
 import com.example.demo.handlers.exceptions.model.ResourceNotFoundException;
 import com.example.demo.repositories.DeviceRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import java.util.HashMap;
-import java.util.Map;
 import com.example.demo.config.RabbitConfig;
 
 @Service
 public class DeviceService {
     private static final Logger LOGGER = LoggerFactory.getLogger(DeviceService.class);
+    /** Lower bound for the first keyset page; random UUIDs are never nil. */
+    private static final UUID KEYSET_START = new UUID(0, 0);
+
     private final DeviceRepository deviceRepository;
-    private final RabbitTemplate rabbitTemplate;
+    private final OutboxService outboxService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public DeviceService(DeviceRepository deviceRepository, RabbitTemplate rabbitTemplate) {
+    public DeviceService(DeviceRepository deviceRepository, OutboxService outboxService, ObjectMapper objectMapper) {
         this.deviceRepository = deviceRepository;
-        this.rabbitTemplate = rabbitTemplate;
+        this.outboxService = outboxService;
+        this.objectMapper = objectMapper;
     }
 
-    public List<DeviceDTO> findDevices() {
-        List<Device> deviceList = deviceRepository.findAll();
-        return deviceList.stream()
-                .map(DeviceBuilder::toDeviceDTO)
-                .collect(Collectors.toList());
+    /** Up to {@code limit} devices with an id after {@code after} (null for the first page), in id order. */
+    public List<DeviceDTO> findDevices(UUID after, int limit) {
+        return deviceRepository.findPage(keysetStart(after), Limit.of(limit));
     }
 
     public DeviceDetailsDTO findDeviceById(UUID id) {
-        Optional<Device> deviceOptional = deviceRepository.findById(id);
+        Optional<DeviceDetailsDTO> deviceOptional = deviceRepository.findDetailsById(id);
         if (!deviceOptional.isPresent()) {
             LOGGER.error("Device with id {} was not found in db", id);
             throw new ResourceNotFoundException(Device.class.getSimpleName() + " with id: " + id);
         }
-        return DeviceBuilder.toDeviceDetailsDTO(deviceOptional.get());
+        return deviceOptional.get();
     }
 
     public List<DeviceDTO> findDevicesByUserId(UUID userId) {
-        List<Device> deviceList = deviceRepository.findByUserId(userId);
+        List<DeviceDTO> deviceList = deviceRepository.findDTOsByUserId(userId);
         LOGGER.debug("Found {} devices for user {}", deviceList.size(), userId);
-        return deviceList.stream()
-                .map(DeviceBuilder::toDeviceDTO)
-                .collect(Collectors.toList());
+        return deviceList;
     }
 
-    public List<DeviceDTO> findDevicesByStatus(DeviceStatus status) {
-        List<Device> deviceList = deviceRepository.findByStatus(status);
-        return deviceList.stream()
-                .map(DeviceBuilder::toDeviceDTO)
-                .collect(Collectors.toList());
+    public List<DeviceDTO> findDevicesByStatus(DeviceStatus status, UUID after, int limit) {
+        return deviceRepository.findPageByStatus(status, keysetStart(after), Limit.of(limit));
     }
 
-    public List<DeviceDTO> findUnassignedDevices() {
-        List<Device> deviceList = deviceRepository.findByUserIdIsNull();
+    public List<DeviceDTO> findUnassignedDevices(UUID after, int limit) {
+        List<DeviceDTO> deviceList = deviceRepository.findUnassignedPage(keysetStart(after), Limit.of(limit));
         LOGGER.debug("Found {} unassigned devices", deviceList.size());
-        return deviceList.stream()
-                .map(DeviceBuilder::toDeviceDTO)
-                .collect(Collectors.toList());
+        return deviceList;
+    }
+
+    @Transactional(readOnly = true)
+    public void streamDevices(OutputStream out) throws IOException {
+        writeNdjson(deviceRepository.streamAll(), out);
+    }
+
+    @Transactional(readOnly = true)
+    public void streamDevicesByStatus(DeviceStatus status, OutputStream out) throws IOException {
+        writeNdjson(deviceRepository.streamByStatus(status), out);
+    }
+
+    @Transactional(readOnly = true)
+    public void streamUnassignedDevices(OutputStream out) throws IOException {
+        writeNdjson(deviceRepository.streamUnassigned(), out);
     }
 
+    @Transactional
     public UUID insert(DeviceDetailsDTO deviceDTO) {
         if (deviceRepository.existsByName(deviceDTO.getName())) {
             LOGGER.error("Device name {} already exists", deviceDTO.getName());
@@ -88,23 +105,12 @@ public class DeviceService {
 
         Device device = DeviceBuilder.toEntity(deviceDTO);
         device = deviceRepository.save(device);
-
-        try {
-            Map<String, Object> syncMsg = new HashMap<>();
-            syncMsg.put("action", "create_device");
-            syncMsg.put("deviceId", device.getId());
-            syncMsg.put("userId", device.getUserId());
-            syncMsg.put("maxConsumption", device.getMaxConsumption());
-
-            rabbitTemplate.convertAndSend(RabbitConfig.EXCHANGE_NAME, "", syncMsg);
-            LOGGER.debug("Sent sync message for device creation: {}", device.getId());
-        } catch (Exception e) {
-            LOGGER.error("Failed to send sync message", e);
-        }
+        sendSyncMessage(device);
         LOGGER.debug("Device with id {} was inserted in db", device.getId());
         return device.getId();
     }
 
+    @Transactional
     public void update(UUID id, DeviceDetailsDTO deviceDTO) {
         Optional<Device> deviceOptional = deviceRepository.findById(id);
         if (!deviceOptional.isPresent()) {
@@ -132,34 +138,28 @@ public class DeviceService {
         device.setStatus(deviceDTO.getStatus());
         device.setUserId(deviceDTO.getUserId());
 
-        deviceRepository.save(device);
+        deviceRepository.saveAndFlush(device);
 
-        sendSyncMessage(device, "update_device");
+        sendSyncMessage(device);
 
         LOGGER.debug("Device with id {} was updated in db", id);
     }
 
+    @Transactional
     public void delete(UUID id) {
         Optional<Device> deviceOptional = deviceRepository.findById(id);
         if (!deviceOptional.isPresent()) {
             LOGGER.error("Device with id {} was not found in db", id);
             throw new ResourceNotFoundException(Device.class.getSimpleName() + " with id: " + id);
         }
-        deviceRepository.deleteById(id);
+        deviceRepository.delete(deviceOptional.get());
 
-        try {
-            Map<String, Object> syncMsg = new HashMap<>();
-            syncMsg.put("action", "delete_device");
-            syncMsg.put("deviceId", id);
-
-            rabbitTemplate.convertAndSend(RabbitConfig.EXCHANGE_NAME, "", syncMsg);
-        } catch (Exception e) {
-             LOGGER.error("Failed to send sync message", e);
-        }
+        outboxService.enqueue(RabbitConfig.EXCHANGE_NAME, "", SyncEvent.deviceDeleted(id, deviceOptional.get().getVersion()));
 
         LOGGER.debug("Device with id {} was deleted from db", id);
     }
 
+    @Transactional
     public void assignDeviceToUser(UUID deviceId, UUID userId) {
         Optional<Device> deviceOptional = deviceRepository.findById(deviceId);
         if (!deviceOptional.isPresent()) {
@@ -169,11 +169,12 @@ public class DeviceService {
 
         Device device = deviceOptional.get();
         device.setUserId(userId);
-        deviceRepository.save(device);
-        sendSyncMessage(device, "update_device");
+        deviceRepository.saveAndFlush(device);
+        sendSyncMessage(device);
         LOGGER.debug("Device with id {} was assigned to user {}", deviceId, userId);
     }
 
+    @Transactional
     public void unassignDevice(UUID deviceId) {
         Optional<Device> deviceOptional = deviceRepository.findById(deviceId);
         if (!deviceOptional.isPresent()) {
@@ -183,8 +184,8 @@ public class DeviceService {
 
         Device device = deviceOptional.get();
         device.setUserId(null);
-        deviceRepository.save(device);
-        sendSyncMessage(device, "update_device");
+        deviceRepository.saveAndFlush(device);
+        sendSyncMessage(device);
         LOGGER.debug("Device with id {} was unassigned", deviceId);
     }
 
@@ -192,18 +193,25 @@ public class DeviceService {
         return deviceRepository.countByUserId(userId);
     }
 
-    private void sendSyncMessage(Device device, String action) {
-        try {
-            Map<String, Object> syncMsg = new HashMap<>();
-            syncMsg.put("action", action);
-            syncMsg.put("deviceId", device.getId());
-            syncMsg.put("userId", device.getUserId()); // Can be null
-            syncMsg.put("maxConsumption", device.getMaxConsumption());
+    /** Call after the change is flushed, so the event carries the new version. */
+    private void sendSyncMessage(Device device) {
+        SyncEvent event = SyncEvent.deviceUpserted(device.getId(), device.getVersion(),
+                device.getUserId(), device.getMaxConsumption());
+        outboxService.enqueue(RabbitConfig.EXCHANGE_NAME, "", event);
+        LOGGER.debug("Queued sync event for device {} at version {}", device.getId(), device.getVersion());
+    }
+
+    private static UUID keysetStart(UUID after) {
+        return after != null ? after : KEYSET_START;
+    }
 
-            rabbitTemplate.convertAndSend(RabbitConfig.EXCHANGE_NAME, "", syncMsg);
-            LOGGER.debug("Sent sync message: {} for device {}", action, device.getId());
-        } catch (Exception e) {
-            LOGGER.error("Failed to send sync message", e);
+    /** Writes one device per line as rows arrive from the cursor. */
+    private void writeNdjson(Stream<DeviceDTO> devices, OutputStream out) throws IOException {
+        try (devices; SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(out)) {
+            Iterator<DeviceDTO> it = devices.iterator();
+            while (it.hasNext()) {
+                writer.write(it.next());
+            }
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,76 @@
+package com.example.demo.services;
+
+import com.example.demo.dtos.DeviceSnapshotDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.UUID;
+
+/**
+ * Streams every device as newline-delimited JSON for replicas that bootstrap from a snapshot.
+ * Rows are read through a server-side cursor inside one read-only repeatable-read transaction,
+ * so the export is consistent and never holds more than {@code app.snapshot.fetch-size} rows.
+ */
+@Service
+public class DeviceSnapshotService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DeviceSnapshotService.class);
+    private static final String SNAPSHOT_SQL = "SELECT id, max_consumption, user_id, version FROM devices";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    public DeviceSnapshotService(DataSource dataSource,
+                                 PlatformTransactionManager transactionManager,
+                                 ObjectMapper objectMapper,
+                                 @Value("${app.snapshot.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Writes the snapshot to {@code out}, one device per line.
+     *
+     * @return the number of devices written
+     */
+    public long writeSnapshot(OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        long[] count = {0};
+        try (SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(out)) {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(SNAPSHOT_SQL, rs -> {
+                DeviceSnapshotDTO device = new DeviceSnapshotDTO(
+                        rs.getObject("id", UUID.class),
+                        (Double) rs.getObject("max_consumption"),
+                        rs.getObject("user_id", UUID.class),
+                        rs.getLong("version"));
+                try {
+                    writer.write(device);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                count[0]++;
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        LOGGER.info("Exported snapshot of {} devices in {} ms", count[0], (System.nanoTime() - start) / 1_000_000);
+        return count[0];
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.demo.services;
+
+import com.example.demo.dtos.SyncEvent;
+import com.example.demo.entities.OutboxEvent;
+import com.example.demo.repositories.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Records sync events in {@code outbox_events} instead of publishing them directly. Must be
+ * called inside the transaction that changes the entity, so the event is stored if and only if
+ * the change commits; {@link OutboxRelay} publishes it afterwards.
+ */
+@Service
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public OutboxService(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String exchange, String routingKey, SyncEvent event) {
+        try {
+            outboxEventRepository.save(new OutboxEvent(exchange, routingKey, objectMapper.writeValueAsString(event)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Sync event is not serialisable: " + event.getType(), e);
+        }
+    }
+
+    /** Records many events with one batched insert, for bulk changes. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueAll(String exchange, String routingKey, Collection<SyncEvent> events) {
+        List<OutboxEvent> rows = new ArrayList<>(events.size());
+        for (SyncEvent event : events) {
+            try {
+                rows.add(new OutboxEvent(exchange, routingKey, objectMapper.writeValueAsString(event)));
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Sync event is not serialisable: " + event.getType(), e);
+            }
+        }
+        outboxEventRepository.insertAll(rows);
+    }
+}
@@ -1,61 +1,92 @@
 package com.example.demo.services;
 
 import com.example.demo.config.RabbitConfig;
-import com.example.demo.entities.User;
+import com.example.demo.dtos.SyncEvent;
+import com.example.demo.dtos.SyncEventType;
 import com.example.demo.repositories.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
+/**
+ * Applies user sync events in batches. Each user keeps only its latest event; creations are
+ * inserted in one JDBC batch and deletions removed in one statement, both idempotent, so a
+ * redelivered batch changes nothing.
+ * <p>
+ * A batch that fails because the database is down is redelivered. On any other failure the
+ * events are retried one per transaction and those that still fail are logged and dropped.
+ */
 @Service
 public class UserSyncConsumer {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(UserSyncConsumer.class);
     private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
 
-    public UserSyncConsumer(UserRepository userRepository) {
+    public UserSyncConsumer(UserRepository userRepository, TransactionTemplate transactionTemplate) {
         this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
     }
 
-    @RabbitListener(queues = RabbitConfig.SYNC_QUEUE)
-    public void receiveSyncMessage(Map<String, Object> message) {
+    @RabbitListener(queues = RabbitConfig.SYNC_QUEUE, containerFactory = RabbitConfig.SYNC_BATCH_CONTAINER_FACTORY)
+    public void receiveSyncEvents(List<SyncEvent> events) {
+        long untyped = events.stream().filter(event -> !event.isTyped()).count();
+        if (untyped > 0) {
+            LOGGER.warn("Ignoring {} sync messages without a type or entity id (pre-schema-1 format)", untyped);
+        }
         try {
-            String action = (String) message.get("action");
-            
-            if ("create_user".equals(action)) {
-                String userIdStr = (String) message.get("userId");
-                if (userIdStr != null) {
-                    UUID userId = UUID.fromString(userIdStr);
-                    LOGGER.info("Received sync event: User created with ID {}", userId);
-                    
-                    if (!userRepository.existsById(userId)) {
-                        userRepository.save(new User(userId));
-                        LOGGER.debug("User {} saved to local database.", userId);
-                    } else {
-                        LOGGER.debug("User {} already exists locally.", userId);
+            transactionTemplate.executeWithoutResult(status -> apply(events));
+        } catch (RuntimeException e) {
+            if (isDatabaseUnavailable(e)) {
+                throw e;
+            }
+            LOGGER.error("Sync batch of {} events failed, applying them one by one", events.size(), e);
+            for (SyncEvent event : events) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> apply(List.of(event)));
+                } catch (RuntimeException eventFailure) {
+                    if (isDatabaseUnavailable(eventFailure)) {
+                        throw eventFailure;
                     }
+                    LOGGER.error("Dropping sync event {} for {} (version {})",
+                            event.getType(), event.getEntityId(), event.getVersion(), eventFailure);
                 }
+            }
+        }
+    }
 
-            } else if ("delete_user".equals(action)) {
-                String userIdStr = (String) message.get("userId");
-                if (userIdStr != null) {
-                    UUID userId = UUID.fromString(userIdStr);
-                    LOGGER.info("Received sync event: User deleted with ID {}", userId);
-                    
-                    if (userRepository.existsById(userId)) {
-                        userRepository.deleteById(userId);
-                        LOGGER.debug("User {} deleted from local database.", userId);
-                    } else {
-                        LOGGER.warn("User {} not found locally, skipping delete.", userId);
-                    }
-                }
+    private void apply(List<SyncEvent> events) {
+        List<UUID> created = new ArrayList<>();
+        List<UUID> deleted = new ArrayList<>();
+        for (SyncEvent event : SyncEvent.latestPerEntity(events).values()) {
+            if (event.getType() == SyncEventType.USER_UPSERTED) {
+                created.add(event.getEntityId());
+            } else if (event.getType() == SyncEventType.USER_DELETED) {
+                deleted.add(event.getEntityId());
             }
-        } catch (Exception e) {
-            LOGGER.error("Error processing user sync message", e);
         }
+
+        userRepository.insertMissing(created);
+        if (!deleted.isEmpty()) {
+            userRepository.deleteAllByIdInBatch(deleted);
+        }
+        LOGGER.info("Applied {} sync events: {} users created, {} deleted", events.size(), created.size(), deleted.size());
+    }
+
+    private static boolean isDatabaseUnavailable(Throwable e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException;
     }
-}
\ No newline at end of file
+}
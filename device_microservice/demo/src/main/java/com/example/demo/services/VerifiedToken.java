@@ -0,0 +1,9 @@
+package com.example.demo.services;
+
+/**
+ * What {@code JwtAuthenticationFilter} needs from a token whose signature has been checked.
+ *
+ * @param expiresAtMillis the token's {@code exp}; the cached entry is unusable from then on
+ */
+public record VerifiedToken(String userId, String role, long expiresAtMillis) {
+}
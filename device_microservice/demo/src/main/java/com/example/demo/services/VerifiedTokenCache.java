@@ -0,0 +1,81 @@
+package com.example.demo.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tokens whose signature has already been verified, keyed by the SHA-256 of the token so raw
+ * tokens are not kept in memory. An entry is only returned before the token's expiry. At most
+ * {@code app.jwt.cache.max-entries} are kept; when full, expired entries are purged first and
+ * then arbitrary ones, which only costs those tokens one more signature check.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final int maxEntries;
+    private final Map<Digest, VerifiedToken> entries = new ConcurrentHashMap<>();
+
+    public VerifiedTokenCache(@Value("${app.jwt.cache.max-entries:10000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public VerifiedToken get(String token) {
+        Digest digest = digest(token);
+        VerifiedToken verified = entries.get(digest);
+        if (verified == null) {
+            return null;
+        }
+        if (verified.expiresAtMillis() <= System.currentTimeMillis()) {
+            entries.remove(digest, verified);
+            return null;
+        }
+        return verified;
+    }
+
+    public void put(String token, VerifiedToken verified) {
+        if (entries.size() >= maxEntries) {
+            evict();
+        }
+        entries.put(digest(token), verified);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void evict() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(verified -> verified.expiresAtMillis() <= now);
+        // Still full: drop an eighth so the next few puts do not scan again.
+        Iterator<Digest> it = entries.keySet().iterator();
+        int target = maxEntries - Math.max(1, maxEntries / 8);
+        while (entries.size() > target && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private static Digest digest(String token) {
+        // A fresh instance per call: requests run on virtual threads, so a ThreadLocal would
+        // allocate one per request anyway and never be reused.
+        MessageDigest sha256;
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        ByteBuffer hash = ByteBuffer.wrap(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        return new Digest(hash.getLong(), hash.getLong(), hash.getLong(), hash.getLong());
+    }
+
+    private record Digest(long a, long b, long c, long d) {
+    }
+}
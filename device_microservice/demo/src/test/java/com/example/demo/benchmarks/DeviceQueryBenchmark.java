@@ -0,0 +1,129 @@
+package com.example.demo.benchmarks;
+
+import com.example.demo.dtos.DeviceDTO;
+import com.example.demo.dtos.builders.DeviceBuilder;
+import com.example.demo.entities.Device;
+import com.example.demo.entities.DeviceStatus;
+import com.example.demo.repositories.DeviceRepository;
+import com.example.demo.services.DeviceService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code GET /api/devices/user/{id}} against an in-memory H2 table of 100 000 devices, 100 per
+ * owner: the former entity query mapped through {@link DeviceBuilder} vs. the DTO projection.
+ * Run with {@code -prof gc} to compare allocation per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeviceQueryBenchmark {
+
+    private static final int OWNERS = 1_000;
+    private static final int DEVICES_PER_OWNER = 100;
+
+    private ConfigurableApplicationContext context;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnly;
+    private DeviceService deviceService;
+    private UUID[] owners;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(QueryConfig.class)
+                .web(WebApplicationType.NONE)
+                // Arguments override application.properties, which points at PostgreSQL.
+                .run("--spring.datasource.url=jdbc:h2:mem:devices;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.properties.hibernate.show_sql=false",
+                        "--logging.level.root=WARN");
+        DeviceRepository deviceRepository = context.getBean(DeviceRepository.class);
+        entityManager = context.getBean(EntityManager.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        deviceService = new DeviceService(deviceRepository, null, new ObjectMapper());
+
+        owners = new UUID[OWNERS];
+        LocalDateTime now = LocalDateTime.now();
+        for (int o = 0; o < OWNERS; o++) {
+            owners[o] = UUID.randomUUID();
+            List<Device> devices = new ArrayList<>(DEVICES_PER_OWNER);
+            for (int d = 0; d < DEVICES_PER_OWNER; d++) {
+                Device device = new Device("device-" + o + "-" + d, "Benchmark device", "Street " + d,
+                        100.0 + d, DeviceStatus.ACTIVE);
+                device.setId(UUID.randomUUID());
+                device.setUserId(owners[o]);
+                device.setCreatedAt(now);
+                device.setUpdatedAt(now);
+                devices.add(device);
+            }
+            deviceRepository.insertAll(devices);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    /** What the service did before: managed entities, then a copy into DTOs. */
+    @Benchmark
+    public List<DeviceDTO> entities() {
+        UUID owner = randomOwner();
+        return readOnly.execute(status -> entityManager
+                .createQuery("SELECT d FROM Device d WHERE d.userId = :userId", Device.class)
+                .setParameter("userId", owner)
+                .getResultStream()
+                .map(DeviceBuilder::toDeviceDTO)
+                .toList());
+    }
+
+    @Benchmark
+    public List<DeviceDTO> projection() {
+        return deviceService.findDevicesByUserId(randomOwner());
+    }
+
+    private UUID randomOwner() {
+        return owners[ThreadLocalRandom.current().nextInt(OWNERS)];
+    }
+
+    @Configuration
+    @ImportAutoConfiguration({
+            DataSourceAutoConfiguration.class,
+            DataSourceTransactionManagerAutoConfiguration.class,
+            JdbcTemplateAutoConfiguration.class,
+            HibernateJpaAutoConfiguration.class,
+            TransactionAutoConfiguration.class
+    })
+    @EntityScan("com.example.demo.entities")
+    @EnableJpaRepositories("com.example.demo.repositories")
+    static class QueryConfig {
+    }
+}
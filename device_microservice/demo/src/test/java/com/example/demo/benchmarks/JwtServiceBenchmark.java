@@ -0,0 +1,91 @@
+package com.example.demo.benchmarks;
+
+import com.example.demo.services.JwtService;
+import com.example.demo.services.VerifiedToken;
+import com.example.demo.services.VerifiedTokenCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token parsing cost paid by {@code JwtAuthenticationFilter} on every authenticated request.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private JwtService jwtService;
+    private JwtService uncachedJwtService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        byte[] secret = new byte[32];
+        ThreadLocalRandom.current().nextBytes(secret);
+        String encodedSecret = Base64.getEncoder().encodeToString(secret);
+
+        jwtService = new JwtService(encodedSecret, new VerifiedTokenCache(10_000));
+        uncachedJwtService = new JwtService(encodedSecret, new VerifiedTokenCache(0) {
+            @Override
+            public VerifiedToken get(String token) {
+                return null;
+            }
+
+            @Override
+            public void put(String token, VerifiedToken verified) {
+            }
+        });
+
+        token = Jwts.builder()
+                .subject("benchmark-user")
+                .claim("role", "CLIENT")
+                .claim("userId", "5b0f4e3c-3c9a-4c4e-9a57-8a0b2f9d1e11")
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(encodedSecret)))
+                .compact();
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtService.isTokenValid(token);
+    }
+
+    /** What the filter did per request before the cache: validate, then parse again for the claims. */
+    @Benchmark
+    public String filterPath() {
+        if (!jwtService.isTokenValid(token)) {
+            return null;
+        }
+        Claims claims = jwtService.extractAllClaims(token);
+        return claims.get("role", String.class) + claims.get("userId", String.class);
+    }
+
+    /** What the filter does per request now for a token it has seen: a digest and a map lookup. */
+    @Benchmark
+    public VerifiedToken verify() {
+        return jwtService.verify(token);
+    }
+
+    /** First request with a token: one signature check. */
+    @Benchmark
+    public VerifiedToken verifyUncached() {
+        return uncachedJwtService.verify(token);
+    }
+
+    @Benchmark
+    public Claims extractAllClaims() {
+        return jwtService.extractAllClaims(token);
+    }
+}
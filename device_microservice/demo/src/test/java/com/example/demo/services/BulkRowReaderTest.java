@@ -0,0 +1,59 @@
+package com.example.demo.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BulkRowReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void readsCsvWithQuotesAndSkipsEmptyCells() throws IOException {
+        List<JsonNode> rows = read(BulkRowReader.CSV,
+                "name, maxConsumption ,description\r\n" +
+                "Heater,2.5,\"Living room, \"\"north\"\" wall\"\r\n" +
+                "\r\n" +
+                "Fridge,,\n");
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0).get("name").asText()).isEqualTo("Heater");
+        assertThat(rows.get(0).get("maxConsumption").asText()).isEqualTo("2.5");
+        assertThat(rows.get(0).get("description").asText()).isEqualTo("Living room, \"north\" wall");
+        assertThat(rows.get(1).has("maxConsumption")).isFalse();
+    }
+
+    @Test
+    void skipsAUtf8ByteOrderMarkBeforeTheCsvHeader() throws IOException {
+        List<JsonNode> rows = read(BulkRowReader.CSV, "\uFEFFname,status\nHeater,ACTIVE\n");
+
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0).get("name").asText()).isEqualTo("Heater");
+    }
+
+    @Test
+    void readsAJsonArrayAndNdjson() throws IOException {
+        assertThat(read(MediaType.APPLICATION_JSON_VALUE, "\uFEFF[{\"name\":\"a\"},{\"name\":\"b\"}]"))
+                .extracting(row -> row.get("name").asText()).containsExactly("a", "b");
+        assertThat(read(BulkRowReader.NDJSON, "{\"name\":\"a\"}\n{\"name\":\"b\"}\n"))
+                .extracting(row -> row.get("name").asText()).containsExactly("a", "b");
+    }
+
+    private List<JsonNode> read(String contentType, String body) throws IOException {
+        Iterator<JsonNode> rows = BulkRowReader.open(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)),
+                MediaType.parseMediaType(contentType), objectMapper);
+        List<JsonNode> result = new ArrayList<>();
+        rows.forEachRemaining(result::add);
+        return result;
+    }
+}
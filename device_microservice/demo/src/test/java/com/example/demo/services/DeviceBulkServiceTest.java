@@ -0,0 +1,145 @@
+package com.example.demo.services;
+
+import com.example.demo.dtos.BulkResultDTO;
+import com.example.demo.dtos.BulkRowResultDTO;
+import com.example.demo.dtos.BulkRowStatus;
+import com.example.demo.entities.Device;
+import com.example.demo.entities.DeviceStatus;
+import com.example.demo.entities.User;
+import com.example.demo.repositories.DeviceRepository;
+import com.example.demo.repositories.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DeviceBulkServiceTest {
+
+    private final DeviceRepository deviceRepository = mock(DeviceRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    void importReportsEveryRow() throws IOException {
+        when(deviceRepository.findNamesIn(anyCollection())).thenReturn(Set.of("Taken"));
+
+        BulkResultDTO result = service(10).importDevices(csv(
+                "name,maxConsumption,status\n" +
+                "Heater,2.5,ACTIVE\n" +
+                "Taken,1,ACTIVE\n" +
+                "Heater,3,ACTIVE\n" +
+                "X,1,ACTIVE\n" +
+                "Fridge,1,BROKEN\n"));
+
+        assertThat(statuses(result)).containsExactly(BulkRowStatus.CREATED, BulkRowStatus.DUPLICATE,
+                BulkRowStatus.DUPLICATE, BulkRowStatus.INVALID, BulkRowStatus.INVALID);
+        assertThat(result.getSucceeded()).isEqualTo(1);
+        assertThat(result.getRows().get(0).getDeviceId()).isNotNull();
+    }
+
+    @Test
+    void aChunkThatCannotBeWrittenIsReportedAndTheNextChunksStillRun() throws IOException {
+        when(deviceRepository.findNamesIn(anyCollection())).thenReturn(Set.of());
+        doThrow(new DataAccessResourceFailureException("connection reset"))
+                .doNothing()
+                .when(deviceRepository).insertAll(anyCollection());
+
+        BulkResultDTO result = service(2).importDevices(csv(
+                "name,maxConsumption,status\n" +
+                "Heater,1,ACTIVE\n" +
+                "Fridge,1,ACTIVE\n" +
+                "Oven,1,ACTIVE\n" +
+                "Heater,1,ACTIVE\n"));
+
+        // The first chunk rolled back, so its names do not make later rows duplicates.
+        assertThat(statuses(result)).containsExactly(BulkRowStatus.FAILED, BulkRowStatus.FAILED,
+                BulkRowStatus.CREATED, BulkRowStatus.CREATED);
+        assertThat(result.getRows().get(0).getErrors()).singleElement().asString().contains("connection reset");
+    }
+
+    @Test
+    void assignmentReportsEveryRow() throws IOException {
+        Device device = device();
+        Device concurrentlyModified = device();
+        Device other = device();
+        UUID user = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        when(deviceRepository.findAllById(anyIterable())).thenReturn(List.of(device, concurrentlyModified, other));
+        when(userRepository.findAllById(anyIterable())).thenReturn(List.of(new User(user)));
+        when(deviceRepository.assignAll(anyList(), anyMap())).thenReturn(new int[]{1, 0});
+
+        BulkResultDTO result = service(10).assignDevices(json(
+                "[{\"deviceId\":\"" + device.getId() + "\",\"userId\":\"" + user + "\"}," +
+                "{\"deviceId\":\"" + concurrentlyModified.getId() + "\"}," +
+                "{\"deviceId\":\"" + missing + "\"}," +
+                "{\"deviceId\":\"" + other.getId() + "\",\"userId\":\"" + missing + "\"}," +
+                "{\"deviceId\":\"" + device.getId() + "\"}," +
+                "{\"userId\":\"" + user + "\"}]"));
+
+        assertThat(statuses(result)).containsExactly(BulkRowStatus.ASSIGNED, BulkRowStatus.CONFLICT,
+                BulkRowStatus.NOT_FOUND, BulkRowStatus.NOT_FOUND, BulkRowStatus.DUPLICATE, BulkRowStatus.INVALID);
+    }
+
+    @Test
+    void anAssignmentChunkThatFailsIsReportedAsFailed() throws IOException {
+        Device device = device();
+        when(deviceRepository.findAllById(anyIterable()))
+                .thenThrow(new DataAccessResourceFailureException("connection reset"))
+                .thenReturn(List.of(device));
+        when(userRepository.findAllById(anyIterable())).thenReturn(List.of());
+        when(deviceRepository.assignAll(anyList(), anyMap())).thenReturn(new int[]{1});
+
+        BulkResultDTO result = service(1).assignDevices(json(
+                "{\"deviceId\":\"" + device.getId() + "\"}\n{\"deviceId\":\"" + device.getId() + "\"}\n"));
+
+        assertThat(statuses(result)).containsExactly(BulkRowStatus.FAILED, BulkRowStatus.ASSIGNED);
+    }
+
+    private DeviceBulkService service(int chunkSize) {
+        return new DeviceBulkService(deviceRepository, userRepository, mock(OutboxService.class), objectMapper,
+                Validation.buildDefaultValidatorFactory().getValidator(), mock(PlatformTransactionManager.class),
+                chunkSize);
+    }
+
+    private Iterator<JsonNode> csv(String body) throws IOException {
+        return rows(body, MediaType.parseMediaType(BulkRowReader.CSV));
+    }
+
+    private Iterator<JsonNode> json(String body) throws IOException {
+        return rows(body, MediaType.APPLICATION_JSON);
+    }
+
+    private Iterator<JsonNode> rows(String body, MediaType contentType) throws IOException {
+        return BulkRowReader.open(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), contentType, objectMapper);
+    }
+
+    private static Device device() {
+        Device device = new Device("Device", null, null, 1.0, DeviceStatus.ACTIVE);
+        device.setId(UUID.randomUUID());
+        return device;
+    }
+
+    private static List<BulkRowStatus> statuses(BulkResultDTO result) {
+        return result.getRows().stream().map(BulkRowResultDTO::getStatus).toList();
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.producer.metrics;
+
+/**
+ * {@code x-pipeline-*} header names (README 3.4), in epoch milliseconds. The simulator is the
+ * first hop: it sets {@link #SOURCE_SENT_AT} and {@link #SENT_AT} on every reading it publishes.
+ */
+public final class PipelineHeaders {
+
+    public static final String PREFIX = "x-pipeline-";
+
+    /** Set once by the simulator and carried unchanged through every hop. */
+    public static final String SOURCE_SENT_AT = PREFIX + "source-sent-at";
+
+    /** Overwritten by each hop right before it publishes to the next queue. */
+    public static final String SENT_AT = PREFIX + "sent-at";
+
+    private PipelineHeaders() {
+    }
+
+    public static String receivedAt(String stage) {
+        return PREFIX + stage + "-received-at";
+    }
+
+    public static String sentAt(String stage) {
+        return PREFIX + stage + "-sent-at";
+    }
+}
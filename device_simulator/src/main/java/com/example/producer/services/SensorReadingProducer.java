@@ -2,6 +2,9 @@ package com.example.producer.services;
 
 import com.example.producer.config.RabbitConfig;
 import com.example.producer.dtos.SensorDataDTO;
+import com.example.producer.metrics.PipelineHeaders;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ClassPathResource;
@@ -16,6 +19,7 @@ import java.util.UUID;
 public class SensorReadingProducer {
 
     private final RabbitTemplate rabbitTemplate;
+    private final Timer publishTimer;
 
     @Value("${DEVICE_ID}")
     private UUID configuredDeviceId;
@@ -26,8 +30,14 @@ public class SensorReadingProducer {
 
     private static final int BATCH_SIZE = 6; 
 
-    public SensorReadingProducer(RabbitTemplate rabbitTemplate) {
+    public SensorReadingProducer(RabbitTemplate rabbitTemplate, MeterRegistry meterRegistry) {
         this.rabbitTemplate = rabbitTemplate;
+        this.publishTimer = Timer.builder("pipeline.processing.time")
+                .description("Time spent by a pipeline stage handling one message")
+                .tag("stage", "simulator")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
         initializeReader();
     }
 
@@ -89,7 +99,13 @@ public class SensorReadingProducer {
 
             SensorDataDTO data = new SensorDataDTO(timestamp, deviceId, measurement);
             
-            rabbitTemplate.convertAndSend(RabbitConfig.QUEUE_NAME, data);
+            publishTimer.record(() -> rabbitTemplate.convertAndSend(RabbitConfig.QUEUE_NAME, data, message -> {
+                long now = System.currentTimeMillis();
+                message.getMessageProperties().setHeader(PipelineHeaders.SOURCE_SENT_AT, now);
+                message.getMessageProperties().setHeader(PipelineHeaders.sentAt("simulator"), now);
+                message.getMessageProperties().setHeader(PipelineHeaders.SENT_AT, now);
+                return message;
+            }));
 
         } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
             System.err.println("Skipping malformed line: " + line + " Error: " + e.getMessage());
@@ -1,25 +1,34 @@
 package com.example.loadbalancer.services;
 
 import com.example.loadbalancer.dtos.SensorDataDTO;
+import com.example.loadbalancer.metrics.PipelineMetrics;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.messaging.handler.annotation.Headers;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
 import java.util.UUID;
 
 @Service
 public class LoadBalancerService {
 
     private final RabbitTemplate rabbitTemplate;
+    private final PipelineMetrics pipelineMetrics;
     
     private static final int REPLICA_COUNT = 2; 
 
-    public LoadBalancerService(RabbitTemplate rabbitTemplate) {
+    public LoadBalancerService(RabbitTemplate rabbitTemplate, PipelineMetrics pipelineMetrics) {
         this.rabbitTemplate = rabbitTemplate;
+        this.pipelineMetrics = pipelineMetrics;
     }
 
     @RabbitListener(queues = "${app.queue.input}")
-    public void distributeMessage(SensorDataDTO data) {
+    public void distributeMessage(SensorDataDTO data, @Headers Map<String, Object> headers) {
+        long receivedAt = System.currentTimeMillis();
+        long start = System.nanoTime();
+        pipelineMetrics.recordReceived(headers, receivedAt);
+
         UUID deviceId = data.getDeviceId();
         
         if (deviceId == null) {
@@ -32,8 +41,12 @@ public class LoadBalancerService {
         
         String targetQueue = "sensor.queue." + replicaIndex;
         
-        rabbitTemplate.convertAndSend(targetQueue, data);
+        rabbitTemplate.convertAndSend(targetQueue, data, message -> {
+            pipelineMetrics.stamp(message.getMessageProperties(), headers, receivedAt);
+            return message;
+        });
+        pipelineMetrics.recordProcessing(start);
         
         System.out.println("Routed Device " + deviceId + " -> " + targetQueue);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,105 @@
+package com.example.loadbalancer.benchmarks;
+
+import com.example.loadbalancer.dtos.SensorDataDTO;
+import com.example.loadbalancer.metrics.PipelineHeaders;
+import com.example.loadbalancer.metrics.PipelineMetrics;
+import com.example.loadbalancer.services.LoadBalancerService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Routing hot path of the load balancer, run outside Spring against a template that
+ * serialises the message but never touches a broker.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RoutingBenchmark {
+
+    private static final int FLEET_SIZE = 1024;
+
+    private final Jackson2JsonMessageConverter converter = new Jackson2JsonMessageConverter();
+
+    private SensorDataDTO[] readings;
+    private Map<String, Object> headers;
+    private CapturingRabbitTemplate template;
+    private LoadBalancerService service;
+    private Message encoded;
+    private PrintStream originalOut;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        readings = new SensorDataDTO[FLEET_SIZE];
+        for (int i = 0; i < FLEET_SIZE; i++) {
+            readings[i] = new SensorDataDTO(System.currentTimeMillis(), UUID.randomUUID(), random.nextDouble(10));
+        }
+
+        long now = System.currentTimeMillis();
+        headers = new HashMap<>();
+        headers.put(PipelineHeaders.SOURCE_SENT_AT, now);
+        headers.put(PipelineHeaders.SENT_AT, now);
+
+        template = new CapturingRabbitTemplate();
+        template.setMessageConverter(converter);
+        service = new LoadBalancerService(template, new PipelineMetrics(new SimpleMeterRegistry()));
+
+        encoded = converter.toMessage(readings[0], new MessageProperties());
+
+        // The service logs every routed reading; keep that out of the benchmark output.
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    private SensorDataDTO nextReading() {
+        next = (next + 1) & (FLEET_SIZE - 1);
+        return readings[next];
+    }
+
+    @Benchmark
+    public Message distributeMessage() {
+        service.distributeMessage(nextReading(), headers);
+        return template.last;
+    }
+
+    @Benchmark
+    public Message serializeSensorData() {
+        return converter.toMessage(nextReading(), new MessageProperties());
+    }
+
+    @Benchmark
+    public Object deserializeSensorData() {
+        return converter.fromMessage(encoded);
+    }
+
+    static final class CapturingRabbitTemplate extends RabbitTemplate {
+        private Message last;
+
+        @Override
+        public void send(String exchange, String routingKey, Message message, CorrelationData correlationData) {
+            last = message;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.loadtest.chat;
+
+import org.HdrHistogram.Histogram;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.testcontainers.containers.RabbitMQContainer;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * WebSocket capacity test of the chat service.
+ * <p>
+ * Launches the packaged chat service as a local process (RabbitMQ from a container unless
+ * {@code --rabbit=host:port} is given). For each step it opens the given number of SockJS/STOMP
+ * sessions, each subscribed to its own {@code /topic/user/{id}}, then injects alerts through
+ * {@code notification.queue} and admin replies through {@code /app/chat} at fixed rates. It
+ * reports delivery latency percentiles, lost messages and sessions, and server heap per session.
+ */
+public class ChatLoadTest {
+
+    private static final int CHAT_PORT = 18084;
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+    private static final Duration SETTLE = Duration.ofSeconds(2);
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+
+        if (!config.getRabbit().isEmpty()) {
+            String[] hostPort = config.getRabbit().split(":");
+            run(config, hostPort[0], Integer.parseInt(hostPort[1]), "guest", "guest");
+            return;
+        }
+        try (RabbitMQContainer rabbit = new RabbitMQContainer("rabbitmq:3-management")) {
+            rabbit.start();
+            run(config, rabbit.getHost(), rabbit.getAmqpPort(), rabbit.getAdminUsername(), rabbit.getAdminPassword());
+        }
+    }
+
+    private static void run(LoadTestConfig config, String rabbitHost, int rabbitPort, String username, String password)
+            throws Exception {
+        List<String> properties = List.of(
+                "--spring.rabbitmq.host=" + rabbitHost,
+                "--spring.rabbitmq.port=" + rabbitPort,
+                "--spring.rabbitmq.username=" + username,
+                "--spring.rabbitmq.password=" + password,
+                "--app.notification.coalesce-window-ms=" + config.getCoalesceWindowMs(),
+                "--app.chat.history.dir=target/chat-history");
+
+        CachingConnectionFactory connectionFactory = new CachingConnectionFactory(rabbitHost, rabbitPort);
+        connectionFactory.setUsername(username);
+        connectionFactory.setPassword(password);
+        RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
+        rabbitTemplate.setMessageConverter(new Jackson2JsonMessageConverter());
+
+        List<StepResult> results = new ArrayList<>();
+        try (ServiceProcess chat = ServiceProcess.start(config.getJavaBin(), config.getChatJar(), "chat", CHAT_PORT, properties)) {
+            chat.awaitHealthy(STARTUP_TIMEOUT);
+            ServerMemory memory = new ServerMemory(config.getJavaBin(), chat.pid(), CHAT_PORT);
+            MessageInjector injector = new MessageInjector(rabbitTemplate);
+            DeliveryRecorder recorder = new DeliveryRecorder();
+
+            for (int sessions : config.getSessions()) {
+                results.add(runStep(config, sessions, memory, injector, recorder));
+            }
+        } finally {
+            connectionFactory.destroy();
+        }
+
+        printReport(results);
+        writeReport(config, results);
+    }
+
+    private static StepResult runStep(LoadTestConfig config, int sessions, ServerMemory memory,
+                                      MessageInjector injector, DeliveryRecorder recorder) throws Exception {
+        System.out.printf("%n=== Step: %d sessions, %d alerts/s, %d chat/s, %ds ===%n",
+                sessions, config.getNotificationRate(), config.getChatRate(), config.getDuration().toSeconds());
+
+        long heapBefore = memory.heapAfterGc();
+        try (StompFleet fleet = new StompFleet("http://localhost:" + CHAT_PORT + "/ws", recorder)) {
+            long connectStart = System.nanoTime();
+            fleet.connect(sessions, config.getConnectRate(), Duration.ofSeconds(60));
+            double connectSeconds = (System.nanoTime() - connectStart) / 1e9;
+            System.out.printf("  connected %d/%d in %.1fs%n", fleet.size(), sessions, connectSeconds);
+            if (fleet.size() == 0) {
+                throw new IllegalStateException("No session could connect");
+            }
+
+            // SUBSCRIBE has no receipt on the simple broker; give the last ones time to register.
+            Thread.sleep(SETTLE.toMillis());
+            long heapConnected = memory.heapAfterGc();
+            long bytesPerSession = Math.max(0, heapConnected - heapBefore) / fleet.size();
+            System.out.printf("  heap %d MiB -> %d MiB (%d bytes/session)%n",
+                    heapBefore >> 20, heapConnected >> 20, bytesPerSession);
+
+            recorder.reset();
+            injector.run(fleet, config.getNotificationRate(), config.getChatRate(), config.getDuration());
+
+            long deadline = System.currentTimeMillis() + config.getDrainTimeout().toMillis();
+            while ((recorder.getNotifications() < injector.getNotificationsSent()
+                    || recorder.getChatMessages() < injector.getChatSent())
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(100);
+            }
+
+            return new StepResult(sessions, fleet.size(), fleet.getFailedConnects(), connectSeconds, bytesPerSession,
+                    injector.getNotificationsSent(), recorder.getNotifications(), recorder.notificationLatencySnapshot(),
+                    injector.getChatSent(), recorder.getChatMessages(), recorder.chatLatencySnapshot(),
+                    recorder.getFrames(), fleet.getLostSessions(), config.getLatencySloMs());
+        }
+    }
+
+    private static void printReport(List<StepResult> results) {
+        System.out.printf("%n%-9s %10s %10s %9s %9s %9s %9s %9s %9s %8s %8s %s%n",
+                "sessions", "connected", "B/session", "alert p50", "alert p99", "alert max",
+                "chat p50", "chat p99", "chat max", "dropped", "lost", "verdict");
+        for (StepResult r : results) {
+            System.out.printf("%-9d %10d %10d %9.1f %9.1f %9.1f %9.1f %9.1f %9.1f %8d %8d %s%n",
+                    r.sessions(), r.connected(), r.bytesPerSession(),
+                    ms(r.notificationLatency(), 50), ms(r.notificationLatency(), 99), r.notificationLatency().getMaxValue() / 1000.0,
+                    ms(r.chatLatency(), 50), ms(r.chatLatency(), 99), r.chatLatency().getMaxValue() / 1000.0,
+                    r.droppedNotifications() + r.droppedChat(), r.lostSessions(),
+                    r.degraded() ? "DEGRADED" : "ok");
+        }
+        System.out.println("(latencies in ms)");
+    }
+
+    private static double ms(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static void writeReport(LoadTestConfig config, List<StepResult> results) throws IOException {
+        Files.createDirectories(config.getReportFile().toAbsolutePath().getParent());
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(config.getReportFile()))) {
+            out.println("sessions,connected,failed_connects,connect_s,bytes_per_session," +
+                    "alerts_sent,alerts_received,alert_p50_us,alert_p95_us,alert_p99_us,alert_max_us," +
+                    "chat_sent,chat_received,chat_p50_us,chat_p95_us,chat_p99_us,chat_max_us," +
+                    "frames,lost_sessions,degraded");
+            for (StepResult r : results) {
+                Histogram a = r.notificationLatency();
+                Histogram c = r.chatLatency();
+                out.printf("%d,%d,%d,%.1f,%d,%d,%d,%d,%d,%d,%d,%d,%d,%d,%d,%d,%d,%d,%d,%b%n",
+                        r.sessions(), r.connected(), r.failedConnects(), r.connectSeconds(), r.bytesPerSession(),
+                        r.notificationsSent(), r.notificationsReceived(),
+                        a.getValueAtPercentile(50), a.getValueAtPercentile(95), a.getValueAtPercentile(99), a.getMaxValue(),
+                        r.chatSent(), r.chatReceived(),
+                        c.getValueAtPercentile(50), c.getValueAtPercentile(95), c.getValueAtPercentile(99), c.getMaxValue(),
+                        r.frames(), r.lostSessions(), r.degraded());
+            }
+        }
+        System.out.println("\nReport written to " + config.getReportFile());
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.loadtest.chat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses every frame the fleet receives and records delivery latency. Injected messages carry
+ * {@code "lt <System.nanoTime()>"} as their text, and sender and receivers share this JVM, so
+ * receive time minus that value is the end-to-end latency without clock-sync concerns.
+ */
+public class DeliveryRecorder {
+
+    static final String TOKEN = "lt ";
+    private static final String NOTIFICATION_PREFIX = "NOTIFICATION: ";
+    private static final long MAX_LATENCY_US = TimeUnit.HOURS.toMicros(1);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private Histogram notificationLatencyUs;
+    private Histogram chatLatencyUs;
+    private long notifications;
+    private long chatMessages;
+    private long frames;
+    private long unparsed;
+
+    public DeliveryRecorder() {
+        reset();
+    }
+
+    public synchronized void reset() {
+        notificationLatencyUs = new Histogram(MAX_LATENCY_US, 3);
+        chatLatencyUs = new Histogram(MAX_LATENCY_US, 3);
+        notifications = 0;
+        chatMessages = 0;
+        frames = 0;
+        unparsed = 0;
+    }
+
+    public void onFrame(byte[] payload) {
+        long receivedAt = System.nanoTime();
+        String body = new String(payload, StandardCharsets.UTF_8);
+
+        if (body.startsWith(NOTIFICATION_PREFIX)) {
+            long sentAt = sentAt(body.substring(NOTIFICATION_PREFIX.length()));
+            synchronized (this) {
+                frames++;
+                notifications++;
+                record(notificationLatencyUs, sentAt, receivedAt);
+            }
+            return;
+        }
+
+        JsonNode json;
+        try {
+            json = objectMapper.readTree(body);
+        } catch (IOException e) {
+            synchronized (this) {
+                frames++;
+                unparsed++;
+            }
+            return;
+        }
+
+        synchronized (this) {
+            frames++;
+            if ("NOTIFICATION_BATCH".equals(json.path("type").asText())) {
+                // Only the latest few messages travel in a batch; all of them count as delivered.
+                notifications += json.path("count").asLong();
+                for (JsonNode message : json.path("messages")) {
+                    record(notificationLatencyUs, sentAt(message.asText()), receivedAt);
+                }
+            } else if (json.has("content")) {
+                chatMessages++;
+                record(chatLatencyUs, sentAt(json.path("content").asText()), receivedAt);
+            } else {
+                unparsed++;
+            }
+        }
+    }
+
+    private static long sentAt(String text) {
+        if (!text.startsWith(TOKEN)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(text.substring(TOKEN.length()).trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static void record(Histogram histogram, long sentAt, long receivedAt) {
+        if (sentAt >= 0) {
+            histogram.recordValue(Math.min(MAX_LATENCY_US, Math.max(0, (receivedAt - sentAt) / 1000)));
+        }
+    }
+
+    public synchronized long getNotifications() { return notifications; }
+
+    public synchronized long getChatMessages() { return chatMessages; }
+
+    public synchronized long getFrames() { return frames; }
+
+    public synchronized long getUnparsed() { return unparsed; }
+
+    public synchronized Histogram notificationLatencySnapshot() { return notificationLatencyUs.copy(); }
+
+    public synchronized Histogram chatLatencySnapshot() { return chatLatencyUs.copy(); }
+}
@@ -0,0 +1,92 @@
+package com.example.loadtest.chat;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command-line options of the harness, given as {@code --name=value}.
+ */
+public class LoadTestConfig {
+
+    /** Concurrent STOMP sessions, one step per entry, run in order. */
+    private final List<Integer> sessions;
+    /** New sessions opened per second while a step ramps up. */
+    private final int connectRate;
+    /** Messages published to {@code notification.queue} per second. */
+    private final int notificationRate;
+    /** Admin messages sent to {@code /app/chat} per second. */
+    private final int chatRate;
+    /** How long each step injects messages. */
+    private final Duration duration;
+    /** How long to wait after injecting for the last frames to arrive. */
+    private final Duration drainTimeout;
+    /** A step whose p99 delivery latency exceeds this is reported as degraded. */
+    private final long latencySloMs;
+    /** Passed to the chat service; 0 measures every notification on its own. */
+    private final long coalesceWindowMs;
+    /** {@code host:port} of an already running RabbitMQ; a container is started when empty. */
+    private final String rabbit;
+    private final Path chatJar;
+    private final Path javaBin;
+    private final Path reportFile;
+
+    private LoadTestConfig(Map<String, String> options) {
+        this.sessions = Arrays.stream(options.getOrDefault("sessions", "500,1000,2000").split(","))
+                .map(String::trim)
+                .map(Integer::parseInt)
+                .toList();
+        this.connectRate = Integer.parseInt(options.getOrDefault("connect-rate", "200"));
+        this.notificationRate = Integer.parseInt(options.getOrDefault("notification-rate", "200"));
+        this.chatRate = Integer.parseInt(options.getOrDefault("chat-rate", "100"));
+        this.duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "30")));
+        this.drainTimeout = Duration.ofSeconds(Long.parseLong(options.getOrDefault("drain-timeout", "10")));
+        this.latencySloMs = Long.parseLong(options.getOrDefault("latency-slo-ms", "250"));
+        this.coalesceWindowMs = Long.parseLong(options.getOrDefault("coalesce-window-ms", "0"));
+        this.rabbit = options.getOrDefault("rabbit", "");
+        this.chatJar = Path.of(options.getOrDefault("chat-jar",
+                "../../chat_microservice/target/chat-microservice-0.0.1-SNAPSHOT.jar"));
+        this.javaBin = Path.of(options.getOrDefault("java",
+                Path.of(System.getProperty("java.home"), "bin", "java").toString()));
+        this.reportFile = Path.of(options.getOrDefault("report", "target/chat-load-test.csv"));
+    }
+
+    public static LoadTestConfig parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return new LoadTestConfig(options);
+    }
+
+    public List<Integer> getSessions() { return sessions; }
+
+    public int getConnectRate() { return connectRate; }
+
+    public int getNotificationRate() { return notificationRate; }
+
+    public int getChatRate() { return chatRate; }
+
+    public Duration getDuration() { return duration; }
+
+    public Duration getDrainTimeout() { return drainTimeout; }
+
+    public long getLatencySloMs() { return latencySloMs; }
+
+    public long getCoalesceWindowMs() { return coalesceWindowMs; }
+
+    public String getRabbit() { return rabbit; }
+
+    public Path getChatJar() { return chatJar; }
+
+    public Path getJavaBin() { return javaBin; }
+
+    public Path getReportFile() { return reportFile; }
+}
@@ -0,0 +1,88 @@
+package com.example.loadtest.chat;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Drives traffic at fixed rates: alerts published to {@code notification.queue} the way the
+ * Monitoring Service does, and admin replies sent over STOMP to {@code /app/chat}. Each picks a
+ * random connected user as recipient, so the server routes to every session over a step.
+ */
+public class MessageInjector {
+
+    static final String NOTIFICATION_QUEUE = "notification.queue";
+
+    private final RabbitTemplate rabbitTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong notificationsSent = new AtomicLong();
+    private final AtomicLong chatSent = new AtomicLong();
+
+    public MessageInjector(RabbitTemplate rabbitTemplate) {
+        this.rabbitTemplate = rabbitTemplate;
+    }
+
+    /** Runs both streams for {@code duration} and returns when both are done. */
+    public void run(StompFleet fleet, int notificationRate, int chatRate, Duration duration) throws InterruptedException {
+        notificationsSent.set(0);
+        chatSent.set(0);
+        Thread notifications = Thread.ofPlatform().name("inject-notifications").start(() ->
+                paced(notificationRate, duration, random -> publishNotification(fleet, random)));
+        Thread chat = Thread.ofPlatform().name("inject-chat").start(() ->
+                paced(chatRate, duration, random -> sendChat(fleet, random)));
+        notifications.join();
+        chat.join();
+    }
+
+    private void publishNotification(StompFleet fleet, SplittableRandom random) {
+        int to = random.nextInt(fleet.size());
+        rabbitTemplate.convertAndSend(NOTIFICATION_QUEUE, Map.of(
+                "userId", fleet.userId(to).toString(),
+                "message", DeliveryRecorder.TOKEN + System.nanoTime()));
+        notificationsSent.incrementAndGet();
+    }
+
+    private void sendChat(StompFleet fleet, SplittableRandom random) {
+        int from = random.nextInt(fleet.size());
+        int to = random.nextInt(fleet.size());
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(Map.of(
+                    "sender", "Admin",
+                    "content", DeliveryRecorder.TOKEN + System.nanoTime(),
+                    "userId", fleet.userId(to).toString(),
+                    "chatWithAdmin", false));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        fleet.sendChat(from, json);
+        chatSent.incrementAndGet();
+    }
+
+    private static void paced(int rate, Duration duration, Consumer<SplittableRandom> action) {
+        if (rate <= 0) {
+            return;
+        }
+        SplittableRandom random = new SplittableRandom();
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long total = rate * duration.toSeconds();
+        long next = System.nanoTime();
+        for (long i = 0; i < total; i++) {
+            action.accept(random);
+            next += intervalNanos;
+            LockSupport.parkNanos(next - System.nanoTime());
+        }
+    }
+
+    public long getNotificationsSent() { return notificationsSent.get(); }
+
+    public long getChatSent() { return chatSent.get(); }
+}
@@ -0,0 +1,52 @@
+package com.example.loadtest.chat;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Heap in use by the chat service after a full GC. The service runs as a local process, so the
+ * GC is requested with {@code jcmd <pid> GC.run}, and the heap is then read from
+ * {@code jvm_memory_used_bytes{area="heap"}} on its Prometheus endpoint.
+ */
+public class ServerMemory {
+
+    private static final HttpClient HTTP = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(2))
+            .build();
+
+    private final Path jcmd;
+    private final long pid;
+    private final URI prometheus;
+
+    public ServerMemory(Path javaBin, long pid, int port) {
+        this.jcmd = javaBin.resolveSibling("jcmd");
+        this.pid = pid;
+        this.prometheus = URI.create("http://localhost:" + port + "/actuator/prometheus");
+    }
+
+    public long heapAfterGc() throws IOException, InterruptedException {
+        Process gc = new ProcessBuilder(jcmd.toString(), Long.toString(pid), "GC.run")
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        if (!gc.waitFor(30, TimeUnit.SECONDS)) {
+            gc.destroyForcibly();
+        }
+
+        HttpResponse<String> response = HTTP.send(HttpRequest.newBuilder(prometheus).build(),
+                HttpResponse.BodyHandlers.ofString());
+        long heap = 0;
+        for (String line : response.body().split("\n")) {
+            if (line.startsWith("jvm_memory_used_bytes{") && line.contains("area=\"heap\"")) {
+                heap += (long) Double.parseDouble(line.substring(line.lastIndexOf(' ') + 1));
+            }
+        }
+        return heap;
+    }
+}
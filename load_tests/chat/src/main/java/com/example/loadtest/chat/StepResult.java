@@ -0,0 +1,32 @@
+package com.example.loadtest.chat;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Outcome of one session-count step. Latencies are in microseconds.
+ *
+ * @param bytesPerSession heap growth after GC between before and after connecting, per session
+ * @param lostSessions    sessions the server closed during the step (e.g. slow consumers)
+ */
+public record StepResult(int sessions, int connected, int failedConnects, double connectSeconds,
+                         long bytesPerSession,
+                         long notificationsSent, long notificationsReceived, Histogram notificationLatency,
+                         long chatSent, long chatReceived, Histogram chatLatency,
+                         long frames, int lostSessions, long latencySloMs) {
+
+    public long droppedNotifications() {
+        return Math.max(0, notificationsSent - notificationsReceived);
+    }
+
+    public long droppedChat() {
+        return Math.max(0, chatSent - chatReceived);
+    }
+
+    /** Not every session connected, frames were lost, or p99 delivery latency exceeded the SLO. */
+    public boolean degraded() {
+        long sloUs = latencySloMs * 1000;
+        return failedConnects > 0 || lostSessions > 0 || droppedNotifications() > 0 || droppedChat() > 0
+                || notificationLatency.getValueAtPercentile(99) > sloUs
+                || chatLatency.getValueAtPercentile(99) > sloUs;
+    }
+}
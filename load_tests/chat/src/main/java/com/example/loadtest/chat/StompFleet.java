@@ -0,0 +1,154 @@
+package com.example.loadtest.chat;
+
+import org.springframework.messaging.simp.stomp.ConnectionLostException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The simulated browsers: SockJS/STOMP sessions against the chat service's {@code /ws} endpoint,
+ * each subscribed to {@code /topic/user/{userId}} for its own random user.
+ */
+public class StompFleet implements AutoCloseable {
+
+    private final WebSocketStompClient stompClient;
+    private final String url;
+    private final DeliveryRecorder recorder;
+
+    private final List<UUID> userIds = new ArrayList<>();
+    private final List<StompSession> sessions = new ArrayList<>();
+    private final AtomicInteger failedConnects = new AtomicInteger();
+    private final AtomicInteger lostSessions = new AtomicInteger();
+
+    public StompFleet(String url, DeliveryRecorder recorder) {
+        this.stompClient = new WebSocketStompClient(
+                new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        this.url = url;
+        this.recorder = recorder;
+    }
+
+    /**
+     * Opens {@code count} sessions at {@code ratePerSecond}, waiting for each batch of pending
+     * connects to finish before the ramp moves on.
+     */
+    public void connect(int count, int ratePerSecond, Duration timeout) {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, ratePerSecond);
+        long next = System.nanoTime();
+        List<CompletableFuture<StompSession>> pending = new ArrayList<>(count);
+        List<UUID> pendingUsers = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            UUID userId = UUID.randomUUID();
+            pendingUsers.add(userId);
+            pending.add(stompClient.connectAsync(url, new SessionHandler(userId)));
+            next += intervalNanos;
+            LockSupport.parkNanos(next - System.nanoTime());
+        }
+
+        long deadline = System.nanoTime() + timeout.toNanos();
+        for (int i = 0; i < pending.size(); i++) {
+            try {
+                StompSession session = pending.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                synchronized (this) {
+                    sessions.add(session);
+                    userIds.add(pendingUsers.get(i));
+                }
+            } catch (Exception e) {
+                failedConnects.incrementAndGet();
+                pending.get(i).cancel(true);
+            }
+        }
+    }
+
+    public synchronized int size() { return sessions.size(); }
+
+    public synchronized UUID userId(int index) { return userIds.get(index); }
+
+    public synchronized StompSession session(int index) { return sessions.get(index); }
+
+    public int getFailedConnects() { return failedConnects.get(); }
+
+    public int getLostSessions() { return lostSessions.get(); }
+
+    /** Sends an admin reply through session {@code from}; it comes back on the topic of the user named in it. */
+    public void sendChat(int from, byte[] json) {
+        StompHeaders headers = new StompHeaders();
+        headers.setDestination("/app/chat");
+        headers.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        StompSession session = session(from);
+        if (session.isConnected()) {
+            session.send(headers, json);
+        }
+    }
+
+    @Override
+    public void close() {
+        List<StompSession> open;
+        synchronized (this) {
+            open = List.copyOf(sessions);
+            sessions.clear();
+            userIds.clear();
+        }
+        for (StompSession session : open) {
+            try {
+                session.disconnect();
+            } catch (RuntimeException e) {
+                // already gone
+            }
+        }
+    }
+
+    private final class SessionHandler extends StompSessionHandlerAdapter {
+
+        private final UUID userId;
+
+        SessionHandler(UUID userId) {
+            this.userId = userId;
+        }
+
+        @Override
+        public void afterConnected(StompSession session, StompHeaders connectedHeaders) {
+            session.subscribe("/topic/user/" + userId, new StompFrameHandler() {
+                @Override
+                public Type getPayloadType(StompHeaders headers) {
+                    return byte[].class;
+                }
+
+                @Override
+                public void handleFrame(StompHeaders headers, Object payload) {
+                    recorder.onFrame((byte[]) payload);
+                }
+            });
+        }
+
+        @Override
+        public void handleException(StompSession session, StompCommand command, StompHeaders headers,
+                                    byte[] payload, Throwable exception) {
+            System.err.println("Frame error on session " + session.getSessionId() + ": " + exception.getMessage());
+        }
+
+        @Override
+        public void handleTransportError(StompSession session, Throwable exception) {
+            if (exception instanceof ConnectionLostException) {
+                lostSessions.incrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.loadtest.http;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * HS256 token with the ADMIN role, signed with the services' development secret so the harness
+ * does not need the auth service. The secret is Base64, as the services decode it.
+ */
+public final class AdminToken {
+
+    public static final String DEV_SECRET = "ThisIsAFallbackSecretKeyForDevOnlyDoNotUseInProd";
+
+    private AdminToken() {
+    }
+
+    public static String mint(String secret, Duration validity) {
+        long now = System.currentTimeMillis() / 1000;
+        String header = "{\"alg\":\"HS256\",\"typ\":\"JWT\"}";
+        String claims = String.format(
+                "{\"sub\":\"load-test\",\"role\":\"ADMIN\",\"userId\":\"%s\",\"iat\":%d,\"exp\":%d}",
+                UUID.randomUUID(), now, now + validity.toSeconds());
+        String unsigned = encode(header.getBytes(StandardCharsets.UTF_8)) + "."
+                + encode(claims.getBytes(StandardCharsets.UTF_8));
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(Base64.getDecoder().decode(secret), "HmacSHA256"));
+            return unsigned + "." + encode(mac.doFinal(unsigned.getBytes(StandardCharsets.US_ASCII)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot sign token", e);
+        }
+    }
+
+    private static String encode(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.loadtest.http;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop clients: each one sends a request, waits for the response and immediately sends
+ * the next, so offered load rises with the number of clients. Latencies are recorded in
+ * microseconds only after the warm-up.
+ */
+public class ClientFleet {
+
+    private static final long MAX_LATENCY_US = TimeUnit.MINUTES.toMicros(1);
+
+    private final HttpClient http;
+    private final String token;
+    private final Duration requestTimeout;
+
+    public ClientFleet(HttpClient http, String token, Duration requestTimeout) {
+        this.http = http;
+        this.token = token;
+        this.requestTimeout = requestTimeout;
+    }
+
+    public StepResult run(String mode, int clients, List<URI> reads, Duration warmup, Duration duration)
+            throws InterruptedException {
+        Recorder recorder = new Recorder(MAX_LATENCY_US, 3);
+        AtomicLong ok = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        AtomicLong timedOut = new AtomicLong();
+
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long stopAt = measureFrom + duration.toNanos();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    long now;
+                    while ((now = System.nanoTime()) < stopAt) {
+                        HttpRequest request = HttpRequest.newBuilder(reads.get(random.nextInt(reads.size())))
+                                .header("Authorization", "Bearer " + token)
+                                .timeout(requestTimeout)
+                                .GET()
+                                .build();
+                        boolean measured = now >= measureFrom;
+                        try {
+                            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (!measured) {
+                                continue;
+                            }
+                            recorder.recordValue(Math.min(MAX_LATENCY_US, (System.nanoTime() - now) / 1000));
+                            if (response.statusCode() == 200) {
+                                ok.incrementAndGet();
+                            } else {
+                                failed.incrementAndGet();
+                            }
+                        } catch (HttpTimeoutException e) {
+                            if (measured) {
+                                timedOut.incrementAndGet();
+                            }
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        } catch (Exception e) {
+                            if (measured) {
+                                failed.incrementAndGet();
+                            }
+                        }
+                    }
+                });
+            }
+        }
+
+        Histogram latency = recorder.getIntervalHistogram();
+        return new StepResult(mode, clients, ok.get(), failed.get(), timedOut.get(),
+                duration.toMillis() / 1000.0, latency);
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.loadtest.http;
+
+import org.HdrHistogram.Histogram;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.RabbitMQContainer;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Before/after test of virtual-thread request execution for the servlet services.
+ * <p>
+ * Starts PostgreSQL and RabbitMQ in containers and the packaged device (or user) service as a
+ * local process, once per mode: {@code platform} runs requests on a Tomcat pool of
+ * {@code --tomcat-max-threads} (1, as deployed before), {@code virtual} on one virtual thread
+ * per request with only the JDBC pool bounding concurrency. Each mode is stepped through the
+ * client counts and reports throughput, latency percentiles and errors.
+ */
+public class HttpLoadTest {
+
+    private static final int SERVICE_PORT = 18090;
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+    private static final Duration TOKEN_VALIDITY = Duration.ofHours(4);
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+
+        try (PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+                     .withDatabaseName(config.getService() + "_db");
+             RabbitMQContainer rabbit = new RabbitMQContainer("rabbitmq:3-management")) {
+            postgres.start();
+            rabbit.start();
+            run(config, postgres, rabbit);
+        }
+    }
+
+    private static void run(LoadTestConfig config, PostgreSQLContainer<?> postgres, RabbitMQContainer rabbit)
+            throws Exception {
+        Path jar = "user".equals(config.getService()) ? config.getUserJar() : config.getDeviceJar();
+        String baseUrl = "http://localhost:" + SERVICE_PORT;
+        String token = AdminToken.mint(AdminToken.DEV_SECRET, TOKEN_VALIDITY);
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        ClientFleet fleet = new ClientFleet(http, token, config.getRequestTimeout());
+
+        List<StepResult> results = new ArrayList<>();
+        Workload workload = null;
+        for (String mode : config.getModes()) {
+            List<String> properties = List.of(
+                    "--spring.datasource.url=" + postgres.getJdbcUrl(),
+                    "--spring.datasource.username=" + postgres.getUsername(),
+                    "--spring.datasource.password=" + postgres.getPassword(),
+                    "--spring.rabbitmq.host=" + rabbit.getHost(),
+                    "--spring.rabbitmq.port=" + rabbit.getAmqpPort(),
+                    "--spring.rabbitmq.username=" + rabbit.getAdminUsername(),
+                    "--spring.rabbitmq.password=" + rabbit.getAdminPassword(),
+                    "--spring.threads.virtual.enabled=" + "virtual".equals(mode),
+                    "--server.tomcat.threads.max=" + config.getTomcatMaxThreads(),
+                    "--spring.datasource.hikari.maximum-pool-size=" + config.getDbPoolSize(),
+                    "--spring.jpa.properties.hibernate.show_sql=false",
+                    "--logging.level.com.example.demo=warn");
+
+            try (ServiceProcess service = ServiceProcess.start(config.getJavaBin(), jar,
+                    config.getService() + "-" + mode, SERVICE_PORT, properties)) {
+                service.awaitHealthy(STARTUP_TIMEOUT);
+                if (workload == null) {
+                    workload = Workload.seed(config.getService(), baseUrl, token, config.getSeedRows(), http);
+                    System.out.printf("Seeded %d rows, %d distinct reads%n",
+                            config.getSeedRows(), workload.getReads().size());
+                }
+                for (int clients : config.getClients()) {
+                    System.out.printf("%n=== %s threads, %d clients, %ds ===%n",
+                            mode, clients, config.getDuration().toSeconds());
+                    StepResult result = fleet.run(mode, clients, workload.getReads(),
+                            config.getWarmup(), config.getDuration());
+                    System.out.printf("  %.0f req/s, p99 %.1f ms, %d errors%n",
+                            result.throughput(), ms(result.latency(), 99), result.failed() + result.timedOut());
+                    results.add(result);
+                }
+            }
+        }
+
+        printReport(results);
+        writeReport(config, results);
+    }
+
+    private static void printReport(List<StepResult> results) {
+        System.out.printf("%n%-9s %8s %10s %9s %9s %9s %9s %8s %8s%n",
+                "mode", "clients", "req/s", "p50", "p95", "p99", "max", "failed", "timeout");
+        for (StepResult r : results) {
+            System.out.printf("%-9s %8d %10.0f %9.1f %9.1f %9.1f %9.1f %8d %8d%n",
+                    r.mode(), r.clients(), r.throughput(),
+                    ms(r.latency(), 50), ms(r.latency(), 95), ms(r.latency(), 99), r.latency().getMaxValue() / 1000.0,
+                    r.failed(), r.timedOut());
+        }
+        System.out.println("(latencies in ms)");
+    }
+
+    private static double ms(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static void writeReport(LoadTestConfig config, List<StepResult> results) throws IOException {
+        Files.createDirectories(config.getReportFile().toAbsolutePath().getParent());
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(config.getReportFile()))) {
+            out.println("service,mode,clients,ok,failed,timed_out,req_per_s,p50_us,p95_us,p99_us,max_us,error_rate");
+            for (StepResult r : results) {
+                Histogram h = r.latency();
+                out.printf("%s,%s,%d,%d,%d,%d,%.1f,%d,%d,%d,%d,%.4f%n",
+                        config.getService(), r.mode(), r.clients(), r.ok(), r.failed(), r.timedOut(), r.throughput(),
+                        h.getValueAtPercentile(50), h.getValueAtPercentile(95), h.getValueAtPercentile(99),
+                        h.getMaxValue(), r.errorRate());
+            }
+        }
+        System.out.println("\nReport written to " + config.getReportFile());
+    }
+}
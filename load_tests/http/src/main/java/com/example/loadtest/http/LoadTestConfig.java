@@ -0,0 +1,99 @@
+package com.example.loadtest.http;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command-line options of the harness, given as {@code --name=value}.
+ */
+public class LoadTestConfig {
+
+    /** Which service to load: {@code device} or {@code user}. */
+    private final String service;
+    /** Concurrent clients, one step per entry, run in order for every mode. */
+    private final List<Integer> clients;
+    /** Request execution modes to compare: {@code platform} and/or {@code virtual}. */
+    private final List<String> modes;
+    /** Passed to the service as {@code server.tomcat.threads.max}; only matters in platform mode. */
+    private final int tomcatMaxThreads;
+    /** Passed to the service as the Hikari pool size, the intended concurrency limit. */
+    private final int dbPoolSize;
+    /** Rows created through the API before the first step. */
+    private final int seedRows;
+    /** How long each step runs before measuring starts. */
+    private final Duration warmup;
+    /** How long each step is measured. */
+    private final Duration duration;
+    /** A request without a response after this long counts as an error. */
+    private final Duration requestTimeout;
+    private final Path deviceJar;
+    private final Path userJar;
+    private final Path javaBin;
+    private final Path reportFile;
+
+    private LoadTestConfig(Map<String, String> options) {
+        this.service = options.getOrDefault("service", "device");
+        this.clients = Arrays.stream(options.getOrDefault("clients", "50,100,250,500").split(","))
+                .map(String::trim)
+                .map(Integer::parseInt)
+                .toList();
+        this.modes = Arrays.stream(options.getOrDefault("modes", "platform,virtual").split(","))
+                .map(String::trim)
+                .toList();
+        this.tomcatMaxThreads = Integer.parseInt(options.getOrDefault("tomcat-max-threads", "1"));
+        this.dbPoolSize = Integer.parseInt(options.getOrDefault("db-pool-size", "10"));
+        this.seedRows = Integer.parseInt(options.getOrDefault("seed-rows", "1000"));
+        this.warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "5")));
+        this.duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "30")));
+        this.requestTimeout = Duration.ofSeconds(Long.parseLong(options.getOrDefault("request-timeout", "10")));
+        this.deviceJar = Path.of(options.getOrDefault("device-jar",
+                "../../device_microservice/demo/target/device-microservice-0.0.1-SNAPSHOT.jar"));
+        this.userJar = Path.of(options.getOrDefault("user-jar",
+                "../../user_microservice/demo/target/user-microservice-0.0.1-SNAPSHOT.jar"));
+        this.javaBin = Path.of(options.getOrDefault("java",
+                Path.of(System.getProperty("java.home"), "bin", "java").toString()));
+        this.reportFile = Path.of(options.getOrDefault("report", "target/http-load-test.csv"));
+    }
+
+    public static LoadTestConfig parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return new LoadTestConfig(options);
+    }
+
+    public String getService() { return service; }
+
+    public List<Integer> getClients() { return clients; }
+
+    public List<String> getModes() { return modes; }
+
+    public int getTomcatMaxThreads() { return tomcatMaxThreads; }
+
+    public int getDbPoolSize() { return dbPoolSize; }
+
+    public int getSeedRows() { return seedRows; }
+
+    public Duration getWarmup() { return warmup; }
+
+    public Duration getDuration() { return duration; }
+
+    public Duration getRequestTimeout() { return requestTimeout; }
+
+    public Path getDeviceJar() { return deviceJar; }
+
+    public Path getUserJar() { return userJar; }
+
+    public Path getJavaBin() { return javaBin; }
+
+    public Path getReportFile() { return reportFile; }
+}
@@ -0,0 +1,23 @@
+package com.example.loadtest.http;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Outcome of one client-count step in one execution mode. Latencies are in microseconds and
+ * include non-200 responses but not timeouts.
+ *
+ * @param failed   responses other than 200, and connection errors
+ * @param timedOut requests without a response within {@code --request-timeout}
+ */
+public record StepResult(String mode, int clients, long ok, long failed, long timedOut, double seconds,
+                         Histogram latency) {
+
+    public double throughput() {
+        return ok / seconds;
+    }
+
+    public double errorRate() {
+        long total = ok + failed + timedOut;
+        return total == 0 ? 0 : (double) (failed + timedOut) / total;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.loadtest.http;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The requests one service is loaded with: rows are created through its own API, then every
+ * client repeatedly reads them back by owner (device) or by id (user). Both reads pass through
+ * JWT authentication, one JPA query and JSON serialisation.
+ */
+public final class Workload {
+
+    private static final int DEVICES_PER_OWNER = 10;
+
+    private final List<URI> reads;
+
+    private Workload(List<URI> reads) {
+        this.reads = List.copyOf(reads);
+    }
+
+    public List<URI> getReads() {
+        return reads;
+    }
+
+    public static Workload seed(String service, String baseUrl, String token, int rows, HttpClient http)
+            throws IOException, InterruptedException {
+        return switch (service) {
+            case "device" -> seedDevices(baseUrl, token, rows, http);
+            case "user" -> seedUsers(baseUrl, token, rows, http);
+            default -> throw new IllegalArgumentException("Unknown service: " + service);
+        };
+    }
+
+    private static Workload seedDevices(String baseUrl, String token, int rows, HttpClient http)
+            throws IOException, InterruptedException {
+        List<UUID> owners = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, rows / DEVICES_PER_OWNER); i++) {
+            owners.add(UUID.randomUUID());
+        }
+        String run = Long.toString(System.currentTimeMillis(), 36);
+        for (int i = 0; i < rows; i++) {
+            String body = String.format(
+                    "{\"name\":\"lt-%s-%d\",\"description\":\"load test\",\"address\":\"Street %d\","
+                            + "\"maxConsumption\":%d.0,\"userId\":\"%s\",\"status\":\"ACTIVE\"}",
+                    run, i, i, 100 + i % 400, owners.get(i % owners.size()));
+            post(http, baseUrl + "/api/devices", token, body);
+        }
+
+        List<URI> reads = new ArrayList<>();
+        for (UUID owner : owners) {
+            reads.add(URI.create(baseUrl + "/api/devices/user/" + owner));
+        }
+        return new Workload(reads);
+    }
+
+    private static Workload seedUsers(String baseUrl, String token, int rows, HttpClient http)
+            throws IOException, InterruptedException {
+        String run = Long.toString(System.currentTimeMillis(), 36);
+        List<URI> reads = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            String body = String.format(
+                    "{\"username\":\"lt-%s-%d\",\"password\":\"secret-%d\",\"email\":\"lt%d@example.com\","
+                            + "\"name\":\"Load Test %d\",\"role\":\"CLIENT\"}",
+                    run, i, i, i, i);
+            String location = post(http, baseUrl + "/api/users", token, body);
+            String id = location.substring(location.lastIndexOf('/') + 1);
+            reads.add(URI.create(baseUrl + "/api/users/" + id));
+        }
+        return new Workload(reads);
+    }
+
+    private static String post(HttpClient http, String url, String token, String body)
+            throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 201) {
+            throw new IllegalStateException("Seeding " + url + " failed with " + response.statusCode()
+                    + ": " + response.body());
+        }
+        return response.headers().firstValue("Location")
+                .orElseThrow(() -> new IllegalStateException("No Location header from " + url));
+    }
+}
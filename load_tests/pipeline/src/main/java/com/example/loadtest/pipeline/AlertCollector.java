@@ -0,0 +1,65 @@
+package com.example.loadtest.pipeline;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageListener;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Consumes {@code notification.queue} in place of the chat service. Each alert carries the
+ * {@link PipelineHeaders#SOURCE_SENT_AT} of the reading that closed its window, so receive time
+ * minus that header is the simulator-to-alert latency.
+ */
+public class AlertCollector implements MessageListener {
+
+    static final String NOTIFICATION_QUEUE = "notification.queue";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private UUID expectedUserId;
+    private Histogram latencyMs;
+    private long alerts;
+    private long lastAlertAt;
+
+    /** Starts counting alerts addressed to the given step's user; others are ignored. */
+    public synchronized void reset(UUID userId) {
+        this.expectedUserId = userId;
+        this.latencyMs = new Histogram(3_600_000L, 3);
+        this.alerts = 0;
+        this.lastAlertAt = 0;
+    }
+
+    @Override
+    public void onMessage(Message message) {
+        long receivedAt = System.currentTimeMillis();
+        UUID userId;
+        try {
+            JsonNode body = objectMapper.readTree(message.getBody());
+            userId = UUID.fromString(body.path("userId").asText());
+        } catch (IOException | IllegalArgumentException e) {
+            return;
+        }
+        Object source = message.getMessageProperties().getHeaders().get(PipelineHeaders.SOURCE_SENT_AT);
+
+        synchronized (this) {
+            if (!userId.equals(expectedUserId)) {
+                return;
+            }
+            alerts++;
+            lastAlertAt = receivedAt;
+            if (source instanceof Number sentAt) {
+                latencyMs.recordValue(Math.max(0, receivedAt - sentAt.longValue()));
+            }
+        }
+    }
+
+    public synchronized long getAlerts() { return alerts; }
+
+    public synchronized long getLastAlertAt() { return lastAlertAt; }
+
+    public synchronized Histogram latencySnapshot() { return latencyMs.copy(); }
+}
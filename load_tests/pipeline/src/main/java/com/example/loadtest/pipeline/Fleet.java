@@ -0,0 +1,50 @@
+package com.example.loadtest.pipeline;
+
+import java.util.UUID;
+
+/**
+ * Synthetic devices of one load step, all owned by a step-specific user so that alerts and
+ * hourly rows of different steps can be told apart. Tracks what the pipeline should persist.
+ */
+public class Fleet {
+
+    /** Readings per hourly window in the monitoring service. */
+    public static final int WINDOW_SIZE = 6;
+
+    private final UUID userId = UUID.randomUUID();
+    private final UUID[] deviceIds;
+    private final double[] expectedTotals;
+    private int readingsPerDevice;
+
+    public Fleet(int size) {
+        this.deviceIds = new UUID[size];
+        this.expectedTotals = new double[size];
+        for (int i = 0; i < size; i++) {
+            deviceIds[i] = UUID.randomUUID();
+        }
+    }
+
+    public UUID getUserId() { return userId; }
+
+    public int size() { return deviceIds.length; }
+
+    public UUID deviceId(int index) { return deviceIds[index]; }
+
+    public void recordReading(int index, double value) {
+        expectedTotals[index] += value;
+    }
+
+    public double expectedTotal(int index) { return expectedTotals[index]; }
+
+    public void setReadingsPerDevice(int readingsPerDevice) {
+        this.readingsPerDevice = readingsPerDevice;
+    }
+
+    public int expectedWindowsPerDevice() {
+        return readingsPerDevice / WINDOW_SIZE;
+    }
+
+    public long expectedWindows() {
+        return (long) expectedWindowsPerDevice() * size();
+    }
+}
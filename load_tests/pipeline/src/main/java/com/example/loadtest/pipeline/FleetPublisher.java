@@ -0,0 +1,96 @@
+package com.example.loadtest.pipeline;
+
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Plays the device simulator: registers the fleet through the device sync exchange and then
+ * publishes readings to {@code sensor.data.queue} at a fixed rate, round-robin over the fleet.
+ */
+public class FleetPublisher {
+
+    static final String SENSOR_QUEUE = "sensor.data.queue";
+    static final String SYNC_EXCHANGE = "internal.exchange";
+
+    /** Simulated spacing between two readings of the same device. */
+    private static final long READING_INTERVAL_MS = TimeUnit.MINUTES.toMillis(10);
+
+    private final RabbitTemplate rabbitTemplate;
+
+    public FleetPublisher(RabbitTemplate rabbitTemplate) {
+        this.rabbitTemplate = rabbitTemplate;
+    }
+
+    /**
+     * Sends the same {@code DEVICE_UPSERTED} sync event the Device Service emits for a new device,
+     * at version 0. A max consumption of zero makes every closed window raise an alert, which is
+     * what end-to-end latency is measured on.
+     */
+    public void register(Fleet fleet) {
+        for (int i = 0; i < fleet.size(); i++) {
+            Map<String, Object> event = new HashMap<>();
+            event.put("schema", 1);
+            event.put("type", "DEVICE_UPSERTED");
+            event.put("entityId", fleet.deviceId(i).toString());
+            event.put("version", 0L);
+            event.put("occurredAt", System.currentTimeMillis());
+            event.put("userId", fleet.getUserId().toString());
+            event.put("maxConsumption", 0.0);
+            rabbitTemplate.convertAndSend(SYNC_EXCHANGE, "", event);
+        }
+    }
+
+    /**
+     * Publishes {@code rate * duration} readings, rounded down to whole windows per device.
+     *
+     * @return the number of readings sent
+     */
+    public long publish(Fleet fleet, int rate, Duration duration) {
+        int devices = fleet.size();
+        long windows = Math.max(1, rate * duration.toSeconds() / ((long) devices * Fleet.WINDOW_SIZE));
+        int readingsPerDevice = (int) (windows * Fleet.WINDOW_SIZE);
+        long total = (long) readingsPerDevice * devices;
+        fleet.setReadingsPerDevice(readingsPerDevice);
+
+        SplittableRandom random = new SplittableRandom();
+        long baseTimestamp = System.currentTimeMillis();
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+
+        for (long i = 0; i < total; i++) {
+            long due = start + i * intervalNanos;
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            int device = (int) (i % devices);
+            long sequence = i / devices;
+            double value = 0.1 + random.nextDouble(9.9);
+            fleet.recordReading(device, value);
+
+            Reading reading = new Reading(baseTimestamp + sequence * READING_INTERVAL_MS, fleet.deviceId(device), value);
+            rabbitTemplate.convertAndSend(SENSOR_QUEUE, reading, message -> {
+                MessageProperties properties = message.getMessageProperties();
+                long now = System.currentTimeMillis();
+                properties.setHeader(PipelineHeaders.SOURCE_SENT_AT, now);
+                properties.setHeader(PipelineHeaders.sentAt("simulator"), now);
+                properties.setHeader(PipelineHeaders.SENT_AT, now);
+                return message;
+            });
+        }
+        return total;
+    }
+
+    /** Same JSON shape as the simulator's SensorDataDTO. */
+    public record Reading(long timestamp, UUID deviceId, double measurementValue) {
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.loadtest.pipeline;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Compares the monitoring database against what a {@link Fleet} should have produced:
+ * one {@code hourly_consumption} row per closed window, with totals adding up to the
+ * published readings.
+ */
+public class HourlyConsumptionVerifier {
+
+    private static final double TOLERANCE = 1e-6;
+
+    private final String jdbcUrl;
+    private final String username;
+    private final String password;
+
+    public HourlyConsumptionVerifier(String jdbcUrl, String username, String password) {
+        this.jdbcUrl = jdbcUrl;
+        this.username = username;
+        this.password = password;
+    }
+
+    public long registeredDevices(Fleet fleet) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, username, password);
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT count(*) FROM device WHERE user_id = ?")) {
+            statement.setObject(1, fleet.getUserId());
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    public Result verify(Fleet fleet) throws SQLException {
+        Map<UUID, Long> rowCounts = new HashMap<>();
+        Map<UUID, Double> totals = new HashMap<>();
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, username, password);
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT h.device_id, count(*), sum(h.total_consumption) " +
+                     "FROM hourly_consumption h JOIN device d ON d.id = h.device_id " +
+                     "WHERE d.user_id = ? GROUP BY h.device_id")) {
+            statement.setObject(1, fleet.getUserId());
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    UUID deviceId = rs.getObject(1, UUID.class);
+                    rowCounts.put(deviceId, rs.getLong(2));
+                    totals.put(deviceId, rs.getDouble(3));
+                }
+            }
+        }
+
+        long rows = 0;
+        long missingRows = 0;
+        long extraRows = 0;
+        long totalMismatches = 0;
+        int expected = fleet.expectedWindowsPerDevice();
+        for (int i = 0; i < fleet.size(); i++) {
+            UUID deviceId = fleet.deviceId(i);
+            long count = rowCounts.getOrDefault(deviceId, 0L);
+            rows += count;
+            if (count < expected) {
+                missingRows += expected - count;
+            } else if (count > expected) {
+                extraRows += count - expected;
+            }
+            double total = totals.getOrDefault(deviceId, 0.0);
+            double want = fleet.expectedTotal(i);
+            if (count == expected && Math.abs(total - want) > TOLERANCE * Math.max(1.0, want)) {
+                totalMismatches++;
+            }
+        }
+        return new Result(rows, missingRows, extraRows, totalMismatches);
+    }
+
+    public record Result(long rows, long missingRows, long extraRows, long totalMismatches) {
+
+        public boolean isCorrect() {
+            return missingRows == 0 && extraRows == 0 && totalMismatches == 0;
+        }
+    }
+}
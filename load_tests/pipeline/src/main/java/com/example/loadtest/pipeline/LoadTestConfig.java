@@ -0,0 +1,72 @@
+package com.example.loadtest.pipeline;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command-line options of the harness, given as {@code --name=value}.
+ */
+public class LoadTestConfig {
+
+    /** Devices in the synthetic fleet of each step. */
+    private final int devices;
+    /** Offered readings per second, one step per entry, run in order. */
+    private final List<Integer> rates;
+    /** How long each step publishes. */
+    private final Duration duration;
+    /** How long to wait after publishing for the pipeline to catch up. */
+    private final Duration drainTimeout;
+    private final Path loadBalancerJar;
+    private final Path monitoringJar;
+    private final Path javaBin;
+    private final Path reportFile;
+
+    private LoadTestConfig(Map<String, String> options) {
+        this.devices = Integer.parseInt(options.getOrDefault("devices", "200"));
+        this.rates = Arrays.stream(options.getOrDefault("rates", "500,1000,2000").split(","))
+                .map(String::trim)
+                .map(Integer::parseInt)
+                .toList();
+        this.duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "60")));
+        this.drainTimeout = Duration.ofSeconds(Long.parseLong(options.getOrDefault("drain-timeout", "120")));
+        this.loadBalancerJar = Path.of(options.getOrDefault("lb-jar",
+                "../../load_balancer/target/load-balancer-0.0.1-SNAPSHOT.jar"));
+        this.monitoringJar = Path.of(options.getOrDefault("monitoring-jar",
+                "../../monitoring_microservice/target/consumer-0.0.1-SNAPSHOT.jar"));
+        this.javaBin = Path.of(options.getOrDefault("java",
+                Path.of(System.getProperty("java.home"), "bin", "java").toString()));
+        this.reportFile = Path.of(options.getOrDefault("report", "target/pipeline-load-test.csv"));
+    }
+
+    public static LoadTestConfig parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return new LoadTestConfig(options);
+    }
+
+    public int getDevices() { return devices; }
+
+    public List<Integer> getRates() { return rates; }
+
+    public Duration getDuration() { return duration; }
+
+    public Duration getDrainTimeout() { return drainTimeout; }
+
+    public Path getLoadBalancerJar() { return loadBalancerJar; }
+
+    public Path getMonitoringJar() { return monitoringJar; }
+
+    public Path getJavaBin() { return javaBin; }
+
+    public Path getReportFile() { return reportFile; }
+}
@@ -0,0 +1,199 @@
+package com.example.loadtest.pipeline;
+
+import org.HdrHistogram.Histogram;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitAdmin;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.RabbitMQContainer;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end capacity test of the sensor pipeline.
+ * <p>
+ * Starts RabbitMQ and Postgres in containers, launches the packaged load balancer and two
+ * monitoring replicas (one per partition queue), then runs one step per offered rate with a
+ * fresh synthetic fleet. For each step it reports achieved throughput, simulator-to-alert
+ * latency percentiles, peak queue backlog and whether the persisted hourly rows are correct.
+ */
+public class PipelineLoadTest {
+
+    private static final String DB_NAME = "monitoring_db";
+    private static final int LOAD_BALANCER_PORT = 18085;
+    private static final int MONITORING_BASE_PORT = 18083;
+    private static final int PARTITIONS = 2;
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+
+        try (RabbitMQContainer rabbit = new RabbitMQContainer("rabbitmq:3-management");
+             PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15").withDatabaseName(DB_NAME)) {
+            rabbit.start();
+            postgres.start();
+
+            List<String> rabbitProperties = List.of(
+                    "--spring.rabbitmq.host=" + rabbit.getHost(),
+                    "--spring.rabbitmq.port=" + rabbit.getAmqpPort(),
+                    "--spring.rabbitmq.username=" + rabbit.getAdminUsername(),
+                    "--spring.rabbitmq.password=" + rabbit.getAdminPassword());
+
+            List<ServiceProcess> services = new ArrayList<>();
+            try {
+                for (int partition = 0; partition < PARTITIONS; partition++) {
+                    List<String> properties = new ArrayList<>(rabbitProperties);
+                    properties.add("--spring.datasource.url=" + postgres.getJdbcUrl() + "&reWriteBatchedInserts=true");
+                    properties.add("--spring.datasource.username=" + postgres.getUsername());
+                    properties.add("--spring.datasource.password=" + postgres.getPassword());
+                    properties.add("--app.queue.partition=sensor.queue." + partition);
+                    // No Device Service here: the fleet is registered through sync events.
+                    properties.add("--app.snapshot.mode=never");
+                    services.add(ServiceProcess.start(config.getJavaBin(), config.getMonitoringJar(),
+                            "monitoring-" + partition, MONITORING_BASE_PORT + partition, properties));
+                }
+                services.add(ServiceProcess.start(config.getJavaBin(), config.getLoadBalancerJar(),
+                        "load-balancer", LOAD_BALANCER_PORT, rabbitProperties));
+                for (ServiceProcess service : services) {
+                    service.awaitHealthy(STARTUP_TIMEOUT);
+                }
+
+                run(config, rabbit, postgres);
+            } finally {
+                services.forEach(ServiceProcess::close);
+            }
+        }
+    }
+
+    private static void run(LoadTestConfig config, RabbitMQContainer rabbit, PostgreSQLContainer<?> postgres)
+            throws Exception {
+        CachingConnectionFactory connectionFactory = new CachingConnectionFactory(rabbit.getHost(), rabbit.getAmqpPort());
+        connectionFactory.setUsername(rabbit.getAdminUsername());
+        connectionFactory.setPassword(rabbit.getAdminPassword());
+
+        RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
+        rabbitTemplate.setMessageConverter(new Jackson2JsonMessageConverter());
+        RabbitAdmin rabbitAdmin = new RabbitAdmin(connectionFactory);
+
+        AlertCollector alerts = new AlertCollector();
+        SimpleMessageListenerContainer alertContainer = new SimpleMessageListenerContainer(connectionFactory);
+        alertContainer.setQueueNames(AlertCollector.NOTIFICATION_QUEUE);
+        alertContainer.setMessageListener(alerts);
+        alertContainer.start();
+
+        FleetPublisher publisher = new FleetPublisher(rabbitTemplate);
+        QueueDepthSampler sampler = new QueueDepthSampler(rabbitAdmin);
+        HourlyConsumptionVerifier verifier = new HourlyConsumptionVerifier(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+        List<StepResult> results = new ArrayList<>();
+        try {
+            for (int rate : config.getRates()) {
+                results.add(runStep(config, rate, publisher, alerts, sampler, verifier, scheduler));
+            }
+        } finally {
+            scheduler.shutdownNow();
+            alertContainer.stop();
+            connectionFactory.destroy();
+        }
+
+        printReport(results);
+        writeReport(config, results);
+    }
+
+    private static StepResult runStep(LoadTestConfig config, int rate, FleetPublisher publisher,
+                                      AlertCollector alerts, QueueDepthSampler sampler,
+                                      HourlyConsumptionVerifier verifier, ScheduledExecutorService scheduler)
+            throws Exception {
+        Fleet fleet = new Fleet(config.getDevices());
+        System.out.printf("%n=== Step: %d readings/s, %d devices, %ds ===%n",
+                rate, fleet.size(), config.getDuration().toSeconds());
+
+        publisher.register(fleet);
+        awaitRegistration(fleet, verifier);
+
+        alerts.reset(fleet.getUserId());
+        sampler.reset();
+        long startedAt = System.currentTimeMillis();
+        var sampling = scheduler.scheduleAtFixedRate(() -> System.out.printf("  t+%3ds  queues %s  alerts %d%n",
+                        (System.currentTimeMillis() - startedAt) / 1000, Arrays.toString(sampler.sample()),
+                        alerts.getAlerts()),
+                1, 1, TimeUnit.SECONDS);
+
+        long sent = publisher.publish(fleet, rate, config.getDuration());
+        long publishedAt = System.currentTimeMillis();
+        long backlogAtPublishEnd = Arrays.stream(sampler.sample()).sum();
+
+        long deadline = publishedAt + config.getDrainTimeout().toMillis();
+        while (alerts.getAlerts() < fleet.expectedWindows() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(200);
+        }
+        sampling.cancel(false);
+
+        long finishedAt = alerts.getAlerts() > 0 ? alerts.getLastAlertAt() : System.currentTimeMillis();
+        HourlyConsumptionVerifier.Result rows = verifier.verify(fleet);
+
+        return new StepResult(rate, sent, (publishedAt - startedAt) / 1000.0, (finishedAt - startedAt) / 1000.0,
+                fleet.expectedWindows(), alerts.getAlerts(), alerts.latencySnapshot(),
+                sampler.getMaxBacklog(), backlogAtPublishEnd, rows);
+    }
+
+    private static void awaitRegistration(Fleet fleet, HourlyConsumptionVerifier verifier) throws Exception {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(60);
+        while (verifier.registeredDevices(fleet) < fleet.size()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new IllegalStateException("Monitoring did not register the fleet within 60s");
+            }
+            Thread.sleep(200);
+        }
+    }
+
+    private static void printReport(List<StepResult> results) {
+        System.out.printf("%n%-8s %10s %12s %8s %8s %8s %8s %10s %10s %-10s %s%n",
+                "offered", "sent", "achieved/s", "p50 ms", "p95 ms", "p99 ms", "max ms",
+                "peak q", "alerts", "rows", "verdict");
+        for (StepResult r : results) {
+            System.out.printf("%-8d %10d %12.1f %8d %8d %8d %8d %10d %10s %-10s %s%n",
+                    r.rate(), r.sent(), r.achievedThroughput(),
+                    r.latency().getValueAtPercentile(50), r.latency().getValueAtPercentile(95),
+                    r.latency().getValueAtPercentile(99), r.latency().getMaxValue(),
+                    r.peakBacklog(), r.alerts() + "/" + r.expectedAlerts(),
+                    r.rows().isCorrect() ? "ok" : "WRONG", r.saturated() ? "SATURATED" : "sustained");
+            if (!r.rows().isCorrect()) {
+                System.out.printf("         rows=%d missing=%d extra=%d totalMismatches=%d%n",
+                        r.rows().rows(), r.rows().missingRows(), r.rows().extraRows(), r.rows().totalMismatches());
+            }
+        }
+    }
+
+    private static void writeReport(LoadTestConfig config, List<StepResult> results) throws IOException {
+        Files.createDirectories(config.getReportFile().toAbsolutePath().getParent());
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(config.getReportFile()))) {
+            out.println("offered_rate,sent,publish_s,drain_s,achieved_per_s,p50_ms,p95_ms,p99_ms,max_ms," +
+                    "peak_backlog,backlog_at_publish_end,alerts,expected_alerts,rows,missing_rows,extra_rows," +
+                    "total_mismatches,saturated");
+            for (StepResult r : results) {
+                Histogram h = r.latency();
+                out.printf("%d,%d,%.1f,%.1f,%.1f,%d,%d,%d,%d,%d,%d,%d,%d,%d,%d,%d,%d,%b%n",
+                        r.rate(), r.sent(), r.publishSeconds(), r.totalSeconds(), r.achievedThroughput(),
+                        h.getValueAtPercentile(50), h.getValueAtPercentile(95), h.getValueAtPercentile(99),
+                        h.getMaxValue(), r.peakBacklog(), r.backlogAtPublishEnd(), r.alerts(), r.expectedAlerts(),
+                        r.rows().rows(), r.rows().missingRows(), r.rows().extraRows(),
+                        r.rows().totalMismatches(), r.saturated());
+            }
+        }
+        System.out.println("\nReport written to " + config.getReportFile());
+    }
+}
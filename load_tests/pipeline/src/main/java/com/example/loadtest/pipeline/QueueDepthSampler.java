@@ -0,0 +1,42 @@
+package com.example.loadtest.pipeline;
+
+import org.springframework.amqp.rabbit.core.RabbitAdmin;
+
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Polls the depth of the pipeline queues, once per call, through passive declares.
+ */
+public class QueueDepthSampler {
+
+    static final List<String> QUEUES = List.of(FleetPublisher.SENSOR_QUEUE, "sensor.queue.0", "sensor.queue.1");
+
+    private final RabbitAdmin rabbitAdmin;
+    private long maxBacklog;
+
+    public QueueDepthSampler(RabbitAdmin rabbitAdmin) {
+        this.rabbitAdmin = rabbitAdmin;
+    }
+
+    /** @return message count per queue, in {@link #QUEUES} order */
+    public long[] sample() {
+        long[] depths = new long[QUEUES.size()];
+        long backlog = 0;
+        for (int i = 0; i < depths.length; i++) {
+            Properties properties = rabbitAdmin.getQueueProperties(QUEUES.get(i));
+            if (properties != null) {
+                depths[i] = ((Number) properties.get(RabbitAdmin.QUEUE_MESSAGE_COUNT)).longValue();
+            }
+            backlog += depths[i];
+        }
+        maxBacklog = Math.max(maxBacklog, backlog);
+        return depths;
+    }
+
+    public long getMaxBacklog() { return maxBacklog; }
+
+    public void reset() {
+        maxBacklog = 0;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.loadtest.pipeline;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Outcome of one offered-rate step.
+ *
+ * @param publishSeconds time spent publishing
+ * @param totalSeconds   time from the first reading until the last alert arrived
+ */
+public record StepResult(int rate, long sent, double publishSeconds, double totalSeconds,
+                         long expectedAlerts, long alerts, Histogram latency,
+                         long peakBacklog, long backlogAtPublishEnd,
+                         HourlyConsumptionVerifier.Result rows) {
+
+    /** Readings the whole chain absorbed per second, including the time needed to drain. */
+    public double achievedThroughput() {
+        return totalSeconds > 0 ? sent / totalSeconds : 0;
+    }
+
+    /**
+     * The chain could not keep up if more than one second of offered load was still queued when
+     * publishing stopped, or if not every window produced its alert within the drain timeout.
+     */
+    public boolean saturated() {
+        return backlogAtPublishEnd > rate || alerts < expectedAlerts;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.consumer.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
@@ -7,7 +8,15 @@ import java.net.UnknownHostException;
 @Component("queueConfig")
 public class QueueConfiguration {
 
+    // Pins the partition explicitly (e.g. several replicas on one host); empty means derive it from the Swarm hostname.
+    @Value("${app.queue.partition:}")
+    private String partitionQueue;
+
     public String getQueueName() {
+        if (!partitionQueue.isBlank()) {
+            return partitionQueue;
+        }
+
         try {
             String hostname = InetAddress.getLocalHost().getHostName();
             System.out.println("Initializing Replica with Hostname: " + hostname);
@@ -27,4 +36,4 @@ public class QueueConfiguration {
 
         return "sensor.queue.0";
     }
-}
\ No newline at end of file
+}
@@ -4,9 +4,12 @@ import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.FanoutExchange;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -18,6 +21,7 @@ public class RabbitConfig {
 
     public static final String SYNC_QUEUE = "monitoring.sync.queue";
     public static final String EXCHANGE_NAME = "internal.exchange";
+    public static final String SYNC_BATCH_CONTAINER_FACTORY = "syncBatchContainerFactory";
 
     @Bean
     public Queue sensorDataQueue() {
@@ -48,4 +52,24 @@ public class RabbitConfig {
     public MessageConverter jsonMessageConverter() {
         return new Jackson2JsonMessageConverter();
     }
+
+    /**
+     * Hands sync events to the listener in batches of up to {@code app.sync.batch-size}, or
+     * whatever arrived within {@code app.sync.batch-timeout-ms}.
+     */
+    @Bean(SYNC_BATCH_CONTAINER_FACTORY)
+    public SimpleRabbitListenerContainerFactory syncBatchContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            @Value("${app.sync.batch-size:200}") int batchSize,
+            @Value("${app.sync.batch-timeout-ms:100}") long batchTimeoutMs) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setReceiveTimeout(batchTimeoutMs);
+        factory.setPrefetchCount(batchSize);
+        return factory;
+    }
 }
\ No newline at end of file
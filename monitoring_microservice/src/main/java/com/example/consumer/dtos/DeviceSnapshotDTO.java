@@ -0,0 +1,52 @@
+package com.example.consumer.dtos;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.UUID;
+
+/**
+ * One line of the Device Service snapshot export.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class DeviceSnapshotDTO {
+
+    private UUID id;
+    private Double maxConsumption;
+    private UUID userId;
+    private long version;
+
+    public DeviceSnapshotDTO() {
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public Double getMaxConsumption() {
+        return maxConsumption;
+    }
+
+    public void setMaxConsumption(Double maxConsumption) {
+        this.maxConsumption = maxConsumption;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public void setUserId(UUID userId) {
+        this.userId = userId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+}
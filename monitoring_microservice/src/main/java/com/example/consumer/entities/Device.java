@@ -1,5 +1,6 @@
 package com.example.consumer.entities;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import java.util.UUID;
@@ -13,6 +14,10 @@ public class Device {
     private Double maxConsumption;
     private UUID userId;
 
+    /** Version of the last sync event applied; older events are ignored. */
+    @Column(nullable = false, columnDefinition = "bigint default 0 not null")
+    private long version;
+
     public Device() {
     }
 
@@ -22,6 +27,11 @@ public class Device {
         this.userId = userId;
     }
 
+    public Device(UUID id, Double maxConsumption, UUID userId, long version) {
+        this(id, maxConsumption, userId);
+        this.version = version;
+    }
+
     public UUID getId() {
         return id;
     }
@@ -45,4 +55,12 @@ public class Device {
     public void setUserId(UUID userId) {
         this.userId = userId;
     }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,60 @@
+package com.example.consumer.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Marks a device deleted at {@code version}. Sync upserts and snapshot rows with a version up to
+ * this one are ignored, so a late or redelivered event cannot bring the device back. Device ids
+ * are never reused, so tombstones are kept.
+ */
+@Entity
+@Table(name = "device_tombstone")
+public class DeviceTombstone {
+
+    @Id
+    private UUID id;
+
+    @Column(nullable = false)
+    private long version;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    public DeviceTombstone() {
+    }
+
+    public DeviceTombstone(UUID id, long version, LocalDateTime deletedAt) {
+        this.id = id;
+        this.version = version;
+        this.deletedAt = deletedAt;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+}
@@ -5,14 +5,22 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(
+        name = HourlyConsumption.NATURAL_KEY,
+        columnNames = {"device_id", "timestamp"}))
 public class HourlyConsumption {
 
+    public static final String NATURAL_KEY = "uk_hourly_consumption_device_hour";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    /** Start of the hour the window belongs to; together with {@code deviceId} the natural key. */
+    @Column(name = "timestamp")
     private LocalDateTime timestamp;
     private double totalConsumption;
+    @Column(name = "device_id")
     private UUID deviceId;
 
     public HourlyConsumption() {
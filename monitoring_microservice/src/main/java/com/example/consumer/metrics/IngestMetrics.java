@@ -0,0 +1,82 @@
+package com.example.consumer.metrics;
+
+import com.example.consumer.services.ConsumptionWindowBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Counters, gauges and timers for the sensor ingest path, exposed on /actuator/prometheus.
+ */
+@Component
+public class IngestMetrics {
+
+    private final Counter messages;
+    private final Counter discardedUnknownDevice;
+    private final Counter windowsClosed;
+    private final Counter alertsSent;
+    private final Timer deviceLookup;
+    private final Timer persistence;
+
+    public IngestMetrics(MeterRegistry registry, ConsumptionWindowBuffer windowBuffer) {
+        this.messages = Counter.builder("monitoring.ingest.messages")
+                .description("Sensor readings received")
+                .register(registry);
+        this.discardedUnknownDevice = Counter.builder("monitoring.ingest.discarded")
+                .description("Sensor readings dropped before windowing")
+                .tag("reason", "unknown_device")
+                .register(registry);
+        this.windowsClosed = Counter.builder("monitoring.windows.closed")
+                .description("Hourly windows completed")
+                .register(registry);
+        this.alertsSent = Counter.builder("monitoring.alerts.sent")
+                .description("Over-consumption notifications published")
+                .register(registry);
+
+        Gauge.builder("monitoring.windows.open", windowBuffer, ConsumptionWindowBuffer::openWindows)
+                .description("Devices with a partially filled hourly window")
+                .register(registry);
+        Gauge.builder("monitoring.windows.heap", windowBuffer, ConsumptionWindowBuffer::estimatedHeapBytes)
+                .description("Estimated heap held by open window state")
+                .baseUnit("bytes")
+                .register(registry);
+
+        this.deviceLookup = timer(registry, "monitoring.device.lookup", "Device lookup per reading");
+        this.persistence = timer(registry, "monitoring.persistence", "Upserting a batch of closed hourly windows");
+    }
+
+    private static Timer timer(MeterRegistry registry, String name, String description) {
+        return Timer.builder(name)
+                .description(description)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+    }
+
+    public void messageReceived() {
+        messages.increment();
+    }
+
+    public void discardedUnknownDevice() {
+        discardedUnknownDevice.increment();
+    }
+
+    public void windowClosed() {
+        windowsClosed.increment();
+    }
+
+    public void alertSent() {
+        alertsSent.increment();
+    }
+
+    public <T> T timeDeviceLookup(Supplier<T> lookup) {
+        return deviceLookup.record(lookup);
+    }
+
+    public void timePersistence(Runnable write) {
+        persistence.record(write);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.consumer.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pipeline timers (README 3.4) with {@code stage=monitoring}, recorded for every reading taken
+ * from the sensor queue; {@link #stamp} marks the alerts published to the chat service.
+ */
+@Component
+public class PipelineMetrics {
+
+    public static final String STAGE = "monitoring";
+
+    private final Timer queueDelay;
+    private final Timer processingTime;
+    private final Timer sinceSource;
+
+    public PipelineMetrics(MeterRegistry registry) {
+        this.queueDelay = timer(registry, "pipeline.queue.delay", "Time a message waited in the broker before this stage received it");
+        this.processingTime = timer(registry, "pipeline.processing.time", "Time spent by a pipeline stage handling one message");
+        this.sinceSource = timer(registry, "pipeline.since.source", "Time from simulator publish until this stage received the message");
+    }
+
+    private static Timer timer(MeterRegistry registry, String name, String description) {
+        return Timer.builder(name)
+                .description(description)
+                .tag("stage", STAGE)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /**
+     * Records the broker and end-to-end delays carried in the inbound headers.
+     */
+    public void recordReceived(Map<String, Object> headers, long receivedAt) {
+        record(queueDelay, headers.get(PipelineHeaders.SENT_AT), receivedAt);
+        record(sinceSource, headers.get(PipelineHeaders.SOURCE_SENT_AT), receivedAt);
+    }
+
+    public void recordProcessing(long startNanos) {
+        processingTime.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Copies the upstream pipeline headers onto an outgoing message and stamps this hop.
+     */
+    public void stamp(MessageProperties outgoing, Map<String, Object> inbound, long receivedAt) {
+        inbound.forEach((name, value) -> {
+            if (name.startsWith(PipelineHeaders.PREFIX)) {
+                outgoing.setHeader(name, value);
+            }
+        });
+        long now = System.currentTimeMillis();
+        outgoing.setHeader(PipelineHeaders.receivedAt(STAGE), receivedAt);
+        outgoing.setHeader(PipelineHeaders.sentAt(STAGE), now);
+        outgoing.setHeader(PipelineHeaders.SENT_AT, now);
+    }
+
+    private static void record(Timer timer, Object sentAt, long receivedAt) {
+        if (sentAt instanceof Number number) {
+            timer.record(Math.max(0, receivedAt - number.longValue()), TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -4,5 +4,5 @@ import com.example.consumer.entities.Device;
 import org.springframework.data.jpa.repository.JpaRepository;
 import java.util.UUID;
 
-public interface DeviceRepository extends JpaRepository<Device, UUID> {
-}
\ No newline at end of file
+public interface DeviceRepository extends JpaRepository<Device, UUID>, DeviceRepositoryCustom {
+}
@@ -0,0 +1,39 @@
+package com.example.consumer.repositories;
+
+import com.example.consumer.entities.Device;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+public interface DeviceRepositoryCustom {
+
+    /**
+     * Inserts or overwrites the given devices in a single JDBC batch. A row is only overwritten
+     * by the same or a newer version, so replayed or reordered sync events cannot roll it back,
+     * and a device with a tombstone at the same or a newer version is not inserted again.
+     */
+    void upsertAll(Collection<Device> devices);
+
+    /**
+     * Records a tombstone for each device id at the given deletion version, then deletes the
+     * devices whose stored version is older, in one JDBC batch each.
+     */
+    void deleteAll(Map<UUID, Long> deletedVersions);
+
+    /**
+     * Starts collecting the ids of a snapshot load in a temporary table dropped at commit.
+     * Must run in the same transaction as {@link #upsertSnapshot} and {@link #pruneMissingFromSnapshot}.
+     */
+    void startSnapshot();
+
+    /**
+     * {@link #upsertAll} for a batch of snapshot rows, remembering their ids.
+     */
+    void upsertSnapshot(Collection<Device> devices);
+
+    /**
+     * Deletes the devices the snapshot did not contain, leaving a tombstone at their stored version.
+     */
+    void pruneMissingFromSnapshot();
+}
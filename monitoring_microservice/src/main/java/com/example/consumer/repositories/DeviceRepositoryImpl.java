@@ -0,0 +1,103 @@
+package com.example.consumer.repositories;
+
+import com.example.consumer.entities.Device;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public class DeviceRepositoryImpl implements DeviceRepositoryCustom {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO device (id, max_consumption, user_id, version) " +
+            "SELECT CAST(? AS uuid), CAST(? AS double precision), CAST(? AS uuid), CAST(? AS bigint) " +
+            "WHERE NOT EXISTS (SELECT 1 FROM device_tombstone t WHERE t.id = CAST(? AS uuid) AND t.version >= CAST(? AS bigint)) " +
+            "ON CONFLICT (id) DO UPDATE SET max_consumption = EXCLUDED.max_consumption, " +
+            "user_id = EXCLUDED.user_id, version = EXCLUDED.version " +
+            "WHERE device.version <= EXCLUDED.version";
+
+    private static final String TOMBSTONE_SQL =
+            "INSERT INTO device_tombstone (id, version, deleted_at) VALUES (?, ?, ?) " +
+            "ON CONFLICT (id) DO UPDATE SET version = EXCLUDED.version, deleted_at = EXCLUDED.deleted_at " +
+            "WHERE device_tombstone.version < EXCLUDED.version";
+
+    private static final String DELETE_SQL = "DELETE FROM device WHERE id = ? AND version < ?";
+
+    private static final String SNAPSHOT_TABLE_SQL =
+            "CREATE TEMPORARY TABLE IF NOT EXISTS snapshot_device (id uuid PRIMARY KEY) ON COMMIT DROP";
+
+    private static final String SNAPSHOT_ID_SQL = "INSERT INTO snapshot_device (id) VALUES (?) ON CONFLICT DO NOTHING";
+
+    private static final String PRUNE_SQL =
+            "WITH gone AS (DELETE FROM device d " +
+            "WHERE NOT EXISTS (SELECT 1 FROM snapshot_device s WHERE s.id = d.id) RETURNING d.id, d.version) " +
+            "INSERT INTO device_tombstone (id, version, deleted_at) SELECT id, version, ? FROM gone " +
+            "ON CONFLICT (id) DO UPDATE SET version = EXCLUDED.version, deleted_at = EXCLUDED.deleted_at " +
+            "WHERE device_tombstone.version < EXCLUDED.version";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DeviceRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void upsertAll(Collection<Device> devices) {
+        if (devices.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(devices.size());
+        for (Device device : devices) {
+            rows.add(new Object[]{
+                    device.getId(),
+                    device.getMaxConsumption(),
+                    device.getUserId(),
+                    device.getVersion(),
+                    device.getId(),
+                    device.getVersion()
+            });
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+    }
+
+    @Override
+    public void deleteAll(Map<UUID, Long> deletedVersions) {
+        if (deletedVersions.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> tombstones = new ArrayList<>(deletedVersions.size());
+        List<Object[]> deletes = new ArrayList<>(deletedVersions.size());
+        deletedVersions.forEach((id, version) -> {
+            tombstones.add(new Object[]{id, version, now});
+            deletes.add(new Object[]{id, version});
+        });
+        jdbcTemplate.batchUpdate(TOMBSTONE_SQL, tombstones);
+        jdbcTemplate.batchUpdate(DELETE_SQL, deletes);
+    }
+
+    @Override
+    public void startSnapshot() {
+        jdbcTemplate.execute(SNAPSHOT_TABLE_SQL);
+    }
+
+    @Override
+    public void upsertSnapshot(Collection<Device> devices) {
+        upsertAll(devices);
+        List<Object[]> ids = new ArrayList<>(devices.size());
+        for (Device device : devices) {
+            ids.add(new Object[]{device.getId()});
+        }
+        jdbcTemplate.batchUpdate(SNAPSHOT_ID_SQL, ids);
+    }
+
+    @Override
+    public void pruneMissingFromSnapshot() {
+        jdbcTemplate.update(PRUNE_SQL, Timestamp.valueOf(LocalDateTime.now()));
+    }
+}
@@ -6,6 +6,6 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
-public interface HourlyConsumptionRepository extends JpaRepository<HourlyConsumption, Long> {
+public interface HourlyConsumptionRepository extends JpaRepository<HourlyConsumption, Long>, HourlyConsumptionRepositoryCustom {
     List<HourlyConsumption> findByDeviceIdAndTimestampBetween(UUID deviceId, LocalDateTime start, LocalDateTime end);
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.example.consumer.repositories;
+
+import com.example.consumer.entities.HourlyConsumption;
+
+import java.util.Collection;
+
+public interface HourlyConsumptionRepositoryCustom {
+
+    /**
+     * Inserts or overwrites one row per (device, hour) in a single JDBC batch.
+     * Writing the same window again leaves the table unchanged.
+     */
+    void upsertAll(Collection<HourlyConsumption> windows);
+
+    /**
+     * Whether the (device, hour) unique constraint the upsert conflicts on exists.
+     */
+    boolean hasNaturalKey();
+}
@@ -0,0 +1,50 @@
+package com.example.consumer.repositories;
+
+import com.example.consumer.entities.HourlyConsumption;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class HourlyConsumptionRepositoryImpl implements HourlyConsumptionRepositoryCustom {
+
+    // The WHERE clause skips rewriting rows whose total did not change, so replays create no dead tuples.
+    private static final String UPSERT_SQL =
+            "INSERT INTO hourly_consumption (device_id, timestamp, total_consumption) VALUES (?, ?, ?) " +
+            "ON CONFLICT (device_id, timestamp) DO UPDATE SET total_consumption = EXCLUDED.total_consumption " +
+            "WHERE hourly_consumption.total_consumption IS DISTINCT FROM EXCLUDED.total_consumption";
+
+    private static final String NATURAL_KEY_SQL =
+            "SELECT EXISTS (SELECT 1 FROM pg_constraint " +
+            "WHERE conrelid = to_regclass('hourly_consumption') AND conname = ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public HourlyConsumptionRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void upsertAll(Collection<HourlyConsumption> windows) {
+        if (windows.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(windows.size());
+        for (HourlyConsumption window : windows) {
+            rows.add(new Object[]{
+                    window.getDeviceId(),
+                    Timestamp.valueOf(window.getTimestamp()),
+                    window.getTotalConsumption()
+            });
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+    }
+
+    @Override
+    public boolean hasNaturalKey() {
+        return Boolean.TRUE.equals(
+                jdbcTemplate.queryForObject(NATURAL_KEY_SQL, Boolean.class, HourlyConsumption.NATURAL_KEY));
+    }
+}
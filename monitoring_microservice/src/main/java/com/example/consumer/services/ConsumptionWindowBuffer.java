@@ -0,0 +1,81 @@
+package com.example.consumer.services;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Accumulates readings per device into hourly windows of {@link #WINDOW_SIZE} measurements.
+ * Windows are kept as primitive arrays so the live state stays small and easy to account for.
+ */
+@Component
+public class ConsumptionWindowBuffer {
+
+    public static final int WINDOW_SIZE = 6;
+
+    /**
+     * Rough per-window footprint: map node + UUID key (~64 B), window object (~32 B)
+     * and the double[6] backing array (~64 B).
+     */
+    static final long ESTIMATED_BYTES_PER_WINDOW = 160;
+
+    private final Map<UUID, Window> windows = new ConcurrentHashMap<>();
+
+    /**
+     * Adds a reading to the device's open window.
+     *
+     * @return the closed window once it holds {@link #WINDOW_SIZE} readings, otherwise {@code null}
+     */
+    public ClosedWindow add(UUID deviceId, long timestamp, double value) {
+        Window window = windows.computeIfAbsent(deviceId, id -> new Window());
+        if (window.count == 0) {
+            window.startTimestamp = timestamp;
+        }
+        window.values[window.count++] = value;
+
+        if (window.count < WINDOW_SIZE) {
+            return null;
+        }
+
+        double total = 0;
+        for (double v : window.values) {
+            total += v;
+        }
+        windows.remove(deviceId);
+        return new ClosedWindow(deviceId, window.startTimestamp, total);
+    }
+
+    public int openWindows() {
+        return windows.size();
+    }
+
+    public long estimatedHeapBytes() {
+        return windows.size() * ESTIMATED_BYTES_PER_WINDOW;
+    }
+
+    private static final class Window {
+        private final double[] values = new double[WINDOW_SIZE];
+        private int count;
+        private long startTimestamp;
+    }
+
+    public static final class ClosedWindow {
+        private final UUID deviceId;
+        private final long startTimestamp;
+        private final double total;
+
+        public ClosedWindow(UUID deviceId, long startTimestamp, double total) {
+            this.deviceId = deviceId;
+            this.startTimestamp = startTimestamp;
+            this.total = total;
+        }
+
+        public UUID getDeviceId() { return deviceId; }
+
+        public long getStartTimestamp() { return startTimestamp; }
+
+        public double getTotal() { return total; }
+    }
+}
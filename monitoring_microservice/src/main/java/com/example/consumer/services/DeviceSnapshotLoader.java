@@ -0,0 +1,179 @@
+package com.example.consumer.services;
+
+import com.example.consumer.dtos.DeviceSnapshotDTO;
+import com.example.consumer.entities.Device;
+import com.example.consumer.repositories.DeviceRepository;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fills the device table from the Device Service snapshot before any listener starts.
+ * <p>
+ * The sync and sensor listeners are created stopped. At startup the snapshot is streamed from
+ * {@code app.snapshot.url} and upserted in batches of {@code app.snapshot.batch-size} with the
+ * same version check as sync events, all in one transaction: a load that fails halfway leaves
+ * nothing behind, so the next attempt (or {@code if-empty} on the next start) begins afresh. Only
+ * then does the sync listener start and catch up on the events queued in the meantime: those
+ * older than the snapshot are ignored by the version check, newer ones apply on top. The sensor
+ * listener starts last, so readings wait in the queue instead of being discarded for devices that
+ * are not known yet.
+ * <p>
+ * {@code app.snapshot.mode} is {@code if-empty} (default: only when the device table is empty),
+ * {@code always} or {@code never}. {@code always} also deletes (and tombstones) devices the snapshot
+ * no longer contains. If the Device Service cannot be reached after
+ * {@code app.snapshot.attempts} tries the listeners start anyway and rely on sync events alone.
+ */
+@Service
+public class DeviceSnapshotLoader {
+
+    public static final String SYNC_LISTENER_ID = "deviceSync";
+    public static final String SENSOR_LISTENER_ID = "sensorData";
+    private static final String SNAPSHOT_TOKEN_HEADER = "X-Snapshot-Token";
+
+    private final DeviceRepository deviceRepository;
+    private final RabbitListenerEndpointRegistry listenerRegistry;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @Value("${app.snapshot.mode:if-empty}")
+    private String mode;
+
+    @Value("${app.snapshot.url}")
+    private String url;
+
+    @Value("${app.snapshot.token}")
+    private String token;
+
+    @Value("${app.snapshot.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.snapshot.attempts:5}")
+    private int attempts;
+
+    @Value("${app.snapshot.retry-delay-ms:2000}")
+    private long retryDelayMs;
+
+    public DeviceSnapshotLoader(DeviceRepository deviceRepository,
+                                RabbitListenerEndpointRegistry listenerRegistry,
+                                ObjectMapper objectMapper,
+                                TransactionTemplate transactionTemplate) {
+        this.deviceRepository = deviceRepository;
+        this.listenerRegistry = listenerRegistry;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        try {
+            if (shouldLoad()) {
+                loadWithRetries();
+            }
+        } finally {
+            listenerRegistry.getListenerContainer(SYNC_LISTENER_ID).start();
+            listenerRegistry.getListenerContainer(SENSOR_LISTENER_ID).start();
+        }
+    }
+
+    private boolean shouldLoad() {
+        switch (mode) {
+            case "always":
+                return true;
+            case "never":
+                return false;
+            default:
+                return deviceRepository.count() == 0;
+        }
+    }
+
+    private void loadWithRetries() {
+        for (int attempt = 1; attempt <= attempts; attempt++) {
+            try {
+                load();
+                return;
+            } catch (IOException e) {
+                System.err.println("Device snapshot attempt " + attempt + "/" + attempts + " failed: " + e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (attempt < attempts) {
+                try {
+                    Thread.sleep(retryDelayMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+        System.err.println("Device snapshot unavailable, starting with sync events only");
+    }
+
+    private void load() throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .header(SNAPSHOT_TOKEN_HEADER, token)
+                .GET()
+                .build();
+        HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        if (response.statusCode() != 200) {
+            response.body().close();
+            throw new IOException("snapshot request returned HTTP " + response.statusCode());
+        }
+
+        long loaded;
+        try (InputStream body = response.body()) {
+            loaded = transactionTemplate.execute(status -> store(body));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        System.out.println("Loaded device snapshot: " + loaded + " devices in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    /** Runs in the load's transaction; an {@link UncheckedIOException} rolls it back. */
+    private long store(InputStream body) {
+        long loaded = 0;
+        deviceRepository.startSnapshot();
+        List<Device> batch = new ArrayList<>(batchSize);
+        try (MappingIterator<DeviceSnapshotDTO> rows = objectMapper.readerFor(DeviceSnapshotDTO.class).readValues(body)) {
+            while (rows.hasNextValue()) {
+                DeviceSnapshotDTO row = rows.nextValue();
+                batch.add(new Device(row.getId(), row.getMaxConsumption(), row.getUserId(), row.getVersion()));
+                if (batch.size() == batchSize) {
+                    deviceRepository.upsertSnapshot(batch);
+                    loaded += batch.size();
+                    batch.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        deviceRepository.upsertSnapshot(batch);
+        loaded += batch.size();
+        if ("always".equals(mode)) {
+            deviceRepository.pruneMissingFromSnapshot();
+        }
+        return loaded;
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.consumer.services;
+
+import com.example.consumer.entities.HourlyConsumption;
+import com.example.consumer.metrics.IngestMetrics;
+import com.example.consumer.repositories.HourlyConsumptionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Collects closed hourly windows from all devices and upserts them in batches, either when
+ * {@code app.hourly.batch-size} windows are pending or every {@code app.hourly.flush-interval-ms}.
+ * <p>
+ * Pending windows are keyed by (device, hour), so a window redelivered before the flush only
+ * overwrites its pending copy, and one redelivered after it hits the upsert. Like the open
+ * windows in {@link ConsumptionWindowBuffer}, pending windows live in memory until flushed.
+ * <p>
+ * A window carries the hour's total, not an increment, so merging a failed batch back keeps the
+ * newer copy of each key and only restores keys nothing has replaced. At most
+ * {@code app.hourly.max-pending} windows are held; once the database has been failing long enough
+ * to fill that, {@link #write} blocks the listener thread between flush attempts, so RabbitMQ stops
+ * delivering instead of the buffer growing or dropping windows.
+ */
+@Component
+public class HourlyConsumptionWriter {
+
+    private final HourlyConsumptionRepository consumptionRepository;
+    private final IngestMetrics ingestMetrics;
+    private final int batchSize;
+    private final int maxPending;
+    private final long retryDelayMs;
+
+    private final Map<WindowKey, HourlyConsumption> pending = new LinkedHashMap<>();
+
+    public HourlyConsumptionWriter(HourlyConsumptionRepository consumptionRepository, IngestMetrics ingestMetrics,
+                                   @Value("${app.hourly.batch-size:500}") int batchSize,
+                                   @Value("${app.hourly.max-pending:50000}") int maxPending,
+                                   @Value("${app.hourly.flush-interval-ms:1000}") long retryDelayMs) {
+        this.consumptionRepository = consumptionRepository;
+        this.ingestMetrics = ingestMetrics;
+        this.batchSize = batchSize;
+        this.maxPending = Math.max(batchSize, maxPending);
+        this.retryDelayMs = retryDelayMs;
+    }
+
+    /**
+     * Refuses to start against a table without the (device, hour) unique constraint. ddl-auto=update
+     * silently skips adding it when the table already holds duplicates, and the upsert needs it.
+     */
+    @PostConstruct
+    public void verifyNaturalKey() {
+        if (!consumptionRepository.hasNaturalKey()) {
+            throw new IllegalStateException("hourly_consumption is missing the unique constraint "
+                    + HourlyConsumption.NATURAL_KEY + "; remove duplicate (device_id, timestamp) rows and restart");
+        }
+    }
+
+    public void write(HourlyConsumption window) {
+        WindowKey key = new WindowKey(window.getDeviceId(), window.getTimestamp());
+        boolean full;
+        while (true) {
+            synchronized (pending) {
+                if (pending.size() < maxPending || pending.containsKey(key)) {
+                    pending.put(key, window);
+                    full = pending.size() >= batchSize;
+                    break;
+                }
+            }
+            if (!flushPending()) {
+                awaitRetry();
+            }
+        }
+        if (full) {
+            flush();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.hourly.flush-interval-ms:1000}")
+    public void flush() {
+        flushPending();
+    }
+
+    /**
+     * @return {@code false} if the batch could not be persisted and was merged back
+     */
+    private boolean flushPending() {
+        List<HourlyConsumption> batch;
+        synchronized (pending) {
+            if (pending.isEmpty()) {
+                return true;
+            }
+            batch = new ArrayList<>(pending.values());
+            pending.clear();
+        }
+
+        try {
+            ingestMetrics.timePersistence(() -> consumptionRepository.upsertAll(batch));
+            return true;
+        } catch (RuntimeException e) {
+            System.err.println("Failed to persist " + batch.size() + " hourly windows, will retry: " + e.getMessage());
+            synchronized (pending) {
+                for (HourlyConsumption window : batch) {
+                    // A copy written since the batch was taken is newer than the failed one.
+                    pending.merge(new WindowKey(window.getDeviceId(), window.getTimestamp()), window,
+                            (newer, failed) -> newer);
+                }
+            }
+            return false;
+        }
+    }
+
+    private void awaitRetry() {
+        try {
+            Thread.sleep(retryDelayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for hourly windows to be persisted", e);
+        }
+    }
+
+    int pendingCount() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private record WindowKey(UUID deviceId, LocalDateTime hour) {
+    }
+}
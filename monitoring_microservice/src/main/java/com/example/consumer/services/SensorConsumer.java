@@ -4,87 +4,98 @@ import com.example.consumer.dtos.NotificationDTO;
 import com.example.consumer.dtos.SensorDataDTO;
 import com.example.consumer.entities.Device;
 import com.example.consumer.entities.HourlyConsumption;
+import com.example.consumer.metrics.IngestMetrics;
+import com.example.consumer.metrics.PipelineMetrics;
 import com.example.consumer.repositories.DeviceRepository;
-import com.example.consumer.repositories.HourlyConsumptionRepository;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.messaging.handler.annotation.Headers;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 
 @Service
 public class SensorConsumer {
 
-    private final HourlyConsumptionRepository consumptionRepository;
+    private final HourlyConsumptionWriter hourlyWriter;
     private final DeviceRepository deviceRepository;
     private final RabbitTemplate rabbitTemplate;
+    private final PipelineMetrics pipelineMetrics;
+    private final IngestMetrics ingestMetrics;
+    private final ConsumptionWindowBuffer windowBuffer;
 
-    private final Map<UUID, List<Double>> buffer = new ConcurrentHashMap<>();
-    
-    private final Map<UUID, Long> currentBatchTimestamp = new ConcurrentHashMap<>();
-
-    public SensorConsumer(HourlyConsumptionRepository consumptionRepository, DeviceRepository deviceRepository, RabbitTemplate rabbitTemplate) {
-        this.consumptionRepository = consumptionRepository;
+    public SensorConsumer(HourlyConsumptionWriter hourlyWriter, DeviceRepository deviceRepository,
+                          RabbitTemplate rabbitTemplate, PipelineMetrics pipelineMetrics,
+                          IngestMetrics ingestMetrics, ConsumptionWindowBuffer windowBuffer) {
+        this.hourlyWriter = hourlyWriter;
         this.deviceRepository = deviceRepository;
         this.rabbitTemplate = rabbitTemplate;
+        this.pipelineMetrics = pipelineMetrics;
+        this.ingestMetrics = ingestMetrics;
+        this.windowBuffer = windowBuffer;
     }
 
-    @RabbitListener(queues = "#{queueConfig.getQueueName()}")
-    public void receiveSensorData(SensorDataDTO data) {
+    @RabbitListener(id = DeviceSnapshotLoader.SENSOR_LISTENER_ID, autoStartup = "false",
+            queues = "#{queueConfig.getQueueName()}")
+    public void receiveSensorData(SensorDataDTO data, @Headers Map<String, Object> headers) {
+        long receivedAt = System.currentTimeMillis();
+        long start = System.nanoTime();
+        pipelineMetrics.recordReceived(headers, receivedAt);
+        try {
+            processReading(data, headers, receivedAt);
+        } finally {
+            pipelineMetrics.recordProcessing(start);
+        }
+    }
+
+    private void processReading(SensorDataDTO data, Map<String, Object> headers, long receivedAt) {
+        ingestMetrics.messageReceived();
         UUID deviceId = data.getDeviceId();
 
-        Optional<Device> deviceOpt = deviceRepository.findById(deviceId);
+        Optional<Device> deviceOpt = ingestMetrics.timeDeviceLookup(() -> deviceRepository.findById(deviceId));
         if (deviceOpt.isEmpty()) {
-            System.out.println("Discarded data for unknown/unregistered device: " + deviceId);
+            ingestMetrics.discardedUnknownDevice();
             return;
         }
-        
-        Device device = deviceOpt.get();
 
-        buffer.putIfAbsent(deviceId, new ArrayList<>());
-        List<Double> measurements = buffer.get(deviceId);
+        Device device = deviceOpt.get();
 
-        if (measurements.isEmpty()) {
-            currentBatchTimestamp.put(deviceId, data.getTimestamp());
+        ConsumptionWindowBuffer.ClosedWindow window =
+                windowBuffer.add(deviceId, data.getTimestamp(), data.getMeasurementValue());
+        if (window == null) {
+            return;
         }
+        ingestMetrics.windowClosed();
 
-        measurements.add(data.getMeasurementValue());
-        System.out.println("Buffer for " + deviceId + ": " + measurements.size() + "/6");
+        double total = window.getTotal();
+        if (device.getMaxConsumption() != null && total > device.getMaxConsumption()) {
+            String alertMsg = "Device " + device.getId() + " consumed " + total +
+                              "kW, exceeding limit of " + device.getMaxConsumption() + "kW.";
 
-        if (measurements.size() >= 6) {
-            double total = measurements.stream().mapToDouble(Double::doubleValue).sum();
-            double totalConsumption = measurements.stream().mapToDouble(Double::doubleValue).sum();
-            
-            if (totalConsumption > device.getMaxConsumption()) {
-                System.out.println("ALERT: Device " + deviceId + " exceeded max consumption!");
-                
-                String alertMsg = "Device " + device.getId() + " consumed " + totalConsumption + 
-                                  "kW, exceeding limit of " + device.getMaxConsumption() + "kW.";
-                
-                NotificationDTO notification = new NotificationDTO(device.getUserId(), alertMsg);
-                rabbitTemplate.convertAndSend("notification.queue", notification);
-            }
+            NotificationDTO notification = new NotificationDTO(device.getUserId(), alertMsg);
+            rabbitTemplate.convertAndSend("notification.queue", notification, message -> {
+                pipelineMetrics.stamp(message.getMessageProperties(), headers, receivedAt);
+                return message;
+            });
+            ingestMetrics.alertSent();
+        }
 
-            long batchTime = currentBatchTimestamp.get(deviceId);
-            LocalDateTime date = LocalDateTime.ofInstant(
-                    Instant.ofEpochMilli(batchTime), 
-                    ZoneId.of("UTC")
-            );
+        LocalDateTime hour = LocalDateTime.ofInstant(
+                Instant.ofEpochMilli(window.getStartTimestamp()),
+                ZoneId.of("UTC")
+        ).truncatedTo(ChronoUnit.HOURS);
 
-            HourlyConsumption hourly = new HourlyConsumption();
-            hourly.setDeviceId(deviceId);
-            hourly.setTimestamp(date);
-            hourly.setTotalConsumption(total);
-            
-            consumptionRepository.save(hourly);
-            System.out.println("Saved hourly data for " + deviceId + " at " + date + ": " + total);
-            
-            measurements.clear();
-            currentBatchTimestamp.remove(deviceId);
-        }
+        HourlyConsumption hourly = new HourlyConsumption();
+        hourly.setDeviceId(deviceId);
+        hourly.setTimestamp(hour);
+        hourly.setTotalConsumption(total);
+
+        hourlyWriter.write(hourly);
     }
 }
\ No newline at end of file
@@ -1,59 +1,94 @@
 package com.example.consumer.services;
 
+import com.example.consumer.config.RabbitConfig;
+import com.example.consumer.dtos.SyncEvent;
+import com.example.consumer.dtos.SyncEventType;
 import com.example.consumer.entities.Device;
 import com.example.consumer.repositories.DeviceRepository;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * Applies device sync events in batches: each device keeps only its latest event, then all
+ * upserts go out as one JDBC batch and all deletions, recorded as tombstones, as another.
+ * <p>
+ * If the database cannot be reached the batch is rejected and redelivered. Any other failure
+ * is blamed on the events themselves: the batch is applied again one event per transaction,
+ * and events that still fail are logged and dropped, so one bad event cannot stall the queue.
+ */
 @Service
 public class SyncConsumer {
 
     private final DeviceRepository deviceRepository;
+    private final TransactionTemplate transactionTemplate;
 
-    public SyncConsumer(DeviceRepository deviceRepository) {
+    public SyncConsumer(DeviceRepository deviceRepository, TransactionTemplate transactionTemplate) {
         this.deviceRepository = deviceRepository;
+        this.transactionTemplate = transactionTemplate;
     }
 
-    @RabbitListener(queues = "monitoring.sync.queue") 
-    public void receiveSyncMessage(Map<String, Object> message) {
+    @RabbitListener(id = DeviceSnapshotLoader.SYNC_LISTENER_ID, autoStartup = "false",
+            queues = RabbitConfig.SYNC_QUEUE, containerFactory = RabbitConfig.SYNC_BATCH_CONTAINER_FACTORY)
+    public void receiveSyncEvents(List<SyncEvent> events) {
+        long untyped = events.stream().filter(event -> !event.isTyped()).count();
+        if (untyped > 0) {
+            System.err.println("Ignoring " + untyped + " sync messages without a type or entity id (pre-schema-1 format)");
+        }
         try {
-            String action = (String) message.get("action");
-            Object deviceIdObj = message.get("deviceId");
-            
-            if (deviceIdObj == null) return;
-            UUID deviceId = UUID.fromString(deviceIdObj.toString());
-
-            if ("create_device".equals(action) || "update_device".equals(action)) {
-                Device device = deviceRepository.findById(deviceId).orElse(new Device());
-                device.setId(deviceId);
-                
-                Object maxConsObj = message.get("maxConsumption");
-                if (maxConsObj instanceof Number) {
-                    device.setMaxConsumption(((Number) maxConsObj).doubleValue());
-                }
-
-                Object userIdObj = message.get("userId");
-                if (userIdObj != null) {
-                    device.setUserId(UUID.fromString(userIdObj.toString()));
-                } else {
-                    device.setUserId(null);
+            transactionTemplate.executeWithoutResult(status -> apply(events));
+        } catch (RuntimeException e) {
+            if (isDatabaseUnavailable(e)) {
+                throw e;
+            }
+            System.err.println("Sync batch of " + events.size() + " events failed, applying them one by one: " + e.getMessage());
+            for (SyncEvent event : events) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> apply(List.of(event)));
+                } catch (RuntimeException eventFailure) {
+                    if (isDatabaseUnavailable(eventFailure)) {
+                        throw eventFailure;
+                    }
+                    System.err.println("Dropping sync event " + event.getType() + " for " + event.getEntityId()
+                            + " (version " + event.getVersion() + "): " + eventFailure.getMessage());
                 }
+            }
+        }
+    }
 
-                deviceRepository.save(device);
-                System.out.println("Synced device update: " + deviceId);
-
-            } else if ("delete_device".equals(action)) {
-                deviceRepository.deleteById(deviceId);
-                System.out.println("Synced deleted device: " + deviceId);
+    private void apply(List<SyncEvent> events) {
+        List<Device> upserts = new ArrayList<>();
+        Map<UUID, Long> deletes = new HashMap<>();
+        for (SyncEvent event : SyncEvent.latestPerEntity(events).values()) {
+            if (event.getType() == SyncEventType.DEVICE_UPSERTED) {
+                upserts.add(new Device(event.getEntityId(), event.getMaxConsumption(), event.getUserId(), event.getVersion()));
+            } else if (event.getType() == SyncEventType.DEVICE_DELETED) {
+                deletes.put(event.getEntityId(), event.getVersion());
             }
-            
-        } catch (Exception e) {
-            System.err.println("Error processing sync message: " + e.getMessage());
-            e.printStackTrace();
         }
+
+        deviceRepository.upsertAll(upserts);
+        deviceRepository.deleteAll(deletes);
+        if (!upserts.isEmpty() || !deletes.isEmpty()) {
+            System.out.println("Synced " + events.size() + " events: " + upserts.size() + " devices upserted, "
+                    + deletes.size() + " deleted");
+        }
+    }
+
+    private static boolean isDatabaseUnavailable(Throwable e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException;
     }
-}
\ No newline at end of file
+}
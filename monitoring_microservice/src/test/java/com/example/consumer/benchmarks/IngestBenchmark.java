@@ -0,0 +1,126 @@
+package com.example.consumer.benchmarks;
+
+import com.example.consumer.dtos.SensorDataDTO;
+import com.example.consumer.entities.Device;
+import com.example.consumer.metrics.IngestMetrics;
+import com.example.consumer.metrics.PipelineHeaders;
+import com.example.consumer.metrics.PipelineMetrics;
+import com.example.consumer.repositories.DeviceRepository;
+import com.example.consumer.repositories.HourlyConsumptionRepository;
+import com.example.consumer.services.ConsumptionWindowBuffer;
+import com.example.consumer.services.HourlyConsumptionWriter;
+import com.example.consumer.services.SensorConsumer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ingest hot path of the monitoring service: window accumulation on its own, and a full
+ * {@link SensorConsumer#receiveSensorData} pass with in-memory repositories and a template
+ * that serialises alerts without a broker. Every sixth reading per device closes a window,
+ * and roughly half of the closed windows exceed the device limit and raise an alert.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IngestBenchmark {
+
+    private static final int FLEET_SIZE = 1024;
+
+    private SensorDataDTO[] readings;
+    private Map<String, Object> headers;
+    private ConsumptionWindowBuffer windowBuffer;
+    private SensorConsumer consumer;
+    private CapturingRabbitTemplate template;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Map<UUID, Device> devices = new HashMap<>();
+        readings = new SensorDataDTO[FLEET_SIZE];
+        for (int i = 0; i < FLEET_SIZE; i++) {
+            UUID id = UUID.randomUUID();
+            devices.put(id, new Device(id, 30.0, UUID.randomUUID()));
+            readings[i] = new SensorDataDTO(System.currentTimeMillis(), id, random.nextDouble(10));
+        }
+
+        long now = System.currentTimeMillis();
+        headers = new HashMap<>();
+        headers.put(PipelineHeaders.SOURCE_SENT_AT, now);
+        headers.put(PipelineHeaders.SENT_AT, now);
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        windowBuffer = new ConsumptionWindowBuffer();
+        IngestMetrics ingestMetrics = new IngestMetrics(registry, windowBuffer);
+        template = new CapturingRabbitTemplate();
+        template.setMessageConverter(new Jackson2JsonMessageConverter());
+        HourlyConsumptionWriter writer = new HourlyConsumptionWriter(
+                repository(HourlyConsumptionRepository.class, devices), ingestMetrics, 500, 50_000, 1000);
+        consumer = new SensorConsumer(
+                writer,
+                repository(DeviceRepository.class, devices),
+                template,
+                new PipelineMetrics(registry),
+                ingestMetrics,
+                windowBuffer);
+    }
+
+    private SensorDataDTO nextReading() {
+        next = (next + 1) & (FLEET_SIZE - 1);
+        return readings[next];
+    }
+
+    @Benchmark
+    public ConsumptionWindowBuffer.ClosedWindow windowAdd() {
+        SensorDataDTO reading = nextReading();
+        return windowBuffer.add(reading.getDeviceId(), reading.getTimestamp(), reading.getMeasurementValue());
+    }
+
+    @Benchmark
+    public Message receiveSensorData() {
+        consumer.receiveSensorData(nextReading(), headers);
+        return template.last;
+    }
+
+    /**
+     * Minimal stand-in for the Spring Data repositories: {@code findById} reads the device map,
+     * {@code upsertAll} discards the batch.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T repository(Class<T> type, Map<UUID, Device> devices) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) ->
+                switch (method.getName()) {
+                    case "findById" -> Optional.ofNullable(devices.get((UUID) args[0]));
+                    case "upsertAll" -> null;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> type.getSimpleName() + "Stub";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    static final class CapturingRabbitTemplate extends RabbitTemplate {
+        private Message last;
+
+        @Override
+        public void send(String exchange, String routingKey, Message message, CorrelationData correlationData) {
+            last = message;
+        }
+    }
+}
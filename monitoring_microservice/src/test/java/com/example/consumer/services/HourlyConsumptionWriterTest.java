@@ -0,0 +1,147 @@
+package com.example.consumer.services;
+
+import com.example.consumer.entities.HourlyConsumption;
+import com.example.consumer.metrics.IngestMetrics;
+import com.example.consumer.repositories.HourlyConsumptionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class HourlyConsumptionWriterTest {
+
+    private static final LocalDateTime HOUR = LocalDateTime.of(2026, 1, 1, 10, 0);
+
+    private final HourlyConsumptionRepository repository = mock(HourlyConsumptionRepository.class);
+    private final List<List<HourlyConsumption>> persisted = new ArrayList<>();
+    private final AtomicBoolean databaseDown = new AtomicBoolean();
+
+    HourlyConsumptionWriterTest() {
+        doAnswer(invocation -> {
+            if (databaseDown.get()) {
+                throw new IllegalStateException("connection refused");
+            }
+            Collection<HourlyConsumption> batch = invocation.getArgument(0);
+            persisted.add(new ArrayList<>(batch));
+            return null;
+        }).when(repository).upsertAll(anyCollection());
+    }
+
+    @Test
+    void flushesWhenTheBatchIsFull() {
+        HourlyConsumptionWriter writer = writer(2, 10);
+        UUID device = UUID.randomUUID();
+
+        writer.write(window(device, HOUR, 1));
+        assertThat(persisted).isEmpty();
+        writer.write(window(device, HOUR.plusHours(1), 2));
+
+        assertThat(persisted).hasSize(1);
+        assertThat(persisted.get(0)).hasSize(2);
+        assertThat(writer.pendingCount()).isZero();
+    }
+
+    @Test
+    void aRedeliveredWindowReplacesItsPendingCopy() {
+        HourlyConsumptionWriter writer = writer(10, 10);
+        UUID device = UUID.randomUUID();
+
+        writer.write(window(device, HOUR, 1));
+        writer.write(window(device, HOUR, 1));
+        writer.flush();
+
+        assertThat(persisted.get(0)).hasSize(1);
+    }
+
+    @Test
+    void aFailedBatchIsRetriedOnTheNextFlush() {
+        HourlyConsumptionWriter writer = writer(10, 10);
+        UUID device = UUID.randomUUID();
+        writer.write(window(device, HOUR, 1));
+        writer.write(window(device, HOUR.plusHours(1), 2));
+
+        databaseDown.set(true);
+        writer.flush();
+        assertThat(writer.pendingCount()).isEqualTo(2);
+
+        databaseDown.set(false);
+        writer.flush();
+        assertThat(persisted).hasSize(1);
+        assertThat(persisted.get(0)).extracting(HourlyConsumption::getTotalConsumption).containsExactly(1.0, 2.0);
+    }
+
+    @Test
+    void aNewerCopyWrittenDuringAFailedFlushWins() {
+        UUID device = UUID.randomUUID();
+        HourlyConsumptionWriter[] holder = new HourlyConsumptionWriter[1];
+        doAnswer(invocation -> {
+            // The listener writes a newer total for the same hour while the batch is in flight.
+            holder[0].write(window(device, HOUR, 5));
+            throw new IllegalStateException("connection refused");
+        }).when(repository).upsertAll(anyCollection());
+        holder[0] = writer(10, 10);
+
+        holder[0].write(window(device, HOUR, 3));
+        holder[0].write(window(device, HOUR.plusHours(1), 4));
+        holder[0].flush();
+
+        doAnswer(invocation -> {
+            persisted.add(new ArrayList<>(invocation.<Collection<HourlyConsumption>>getArgument(0)));
+            return null;
+        }).when(repository).upsertAll(anyCollection());
+        holder[0].flush();
+
+        assertThat(persisted.get(0)).extracting(HourlyConsumption::getTotalConsumption).containsExactlyInAnyOrder(5.0, 4.0);
+    }
+
+    @Test
+    void blocksWritersWhileTheBufferIsFullAndTheDatabaseIsDown() throws Exception {
+        HourlyConsumptionWriter writer = writer(2, 2);
+        databaseDown.set(true);
+        writer.write(window(UUID.randomUUID(), HOUR, 1));
+        writer.write(window(UUID.randomUUID(), HOUR, 2));
+        assertThat(writer.pendingCount()).isEqualTo(2);
+
+        CompletableFuture<Void> blocked = CompletableFuture.runAsync(() -> writer.write(window(UUID.randomUUID(), HOUR, 3)));
+        Thread.sleep(50);
+        assertThat(blocked).isNotDone();
+        assertThat(writer.pendingCount()).isEqualTo(2);
+
+        databaseDown.set(false);
+        blocked.get(5, TimeUnit.SECONDS);
+        writer.flush();
+        assertThat(persisted.stream().mapToInt(List::size).sum()).isEqualTo(3);
+    }
+
+    @Test
+    void refusesToStartWithoutTheNaturalKey() {
+        when(repository.hasNaturalKey()).thenReturn(false);
+
+        assertThatThrownBy(() -> writer(10, 10).verifyNaturalKey())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining(HourlyConsumption.NATURAL_KEY);
+    }
+
+    private HourlyConsumptionWriter writer(int batchSize, int maxPending) {
+        IngestMetrics metrics = new IngestMetrics(new SimpleMeterRegistry(), new ConsumptionWindowBuffer());
+        return new HourlyConsumptionWriter(repository, metrics, batchSize, maxPending, 1);
+    }
+
+    private static HourlyConsumption window(UUID deviceId, LocalDateTime hour, double total) {
+        return new HourlyConsumption(null, hour, total, deviceId);
+    }
+}
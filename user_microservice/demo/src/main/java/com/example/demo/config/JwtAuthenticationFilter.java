@@ -1,7 +1,7 @@
 package com.example.demo.config;
 
 import com.example.demo.services.JwtService;
-import io.jsonwebtoken.Claims;
+import com.example.demo.services.VerifiedToken;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -45,15 +45,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         jwt = authHeader.substring(7);
 
         try {
-            if (jwtService.isTokenValid(jwt)) {
-                Claims claims = jwtService.extractAllClaims(jwt);
-                String role = claims.get("role", String.class);
-                String userId = claims.get("userId", String.class);
-
-                List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority(role));
+            VerifiedToken verified = jwtService.verify(jwt);
+            if (verified != null) {
+                List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority(verified.role()));
 
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userId,
+                        verified.userId(),
                         null,
                         authorities
                 );
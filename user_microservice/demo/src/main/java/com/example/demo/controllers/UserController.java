@@ -9,12 +9,17 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
 import java.net.URI;
 import java.util.List;
 import java.util.UUID;
@@ -26,18 +31,46 @@ import java.util.UUID;
 @SecurityRequirement(name = "bearerAuth")
 public class UserController {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String DEFAULT_PAGE_SIZE = "100";
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final UserService userService;
 
     public UserController(UserService userService) {
         this.userService = userService;
     }
 
-    @Operation(summary = "Get all users", description = "Requires ADMIN role.")
-    @ApiResponse(responseCode = "200", description = "List of all users")
+    @Operation(summary = "Get all users",
+               description = "Requires ADMIN role. Keyset-paginated in id order. When the page is full, the X-Next-Cursor "
+                       + "header holds the 'after' value for the next page. Add stream=true for all users as NDJSON.")
+    @ApiResponse(responseCode = "200", description = "One page of users")
     @ApiResponse(responseCode = "403", description = "Forbidden (User is not ADMIN)")
     @GetMapping
-    public ResponseEntity<List<UserDTO>> getUsers() {
-        return ResponseEntity.ok(userService.findUsers());
+    public ResponseEntity<List<UserDTO>> getUsers(
+            @RequestParam(required = false) UUID after,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) @Min(1) @Max(MAX_PAGE_SIZE) int limit) {
+        List<UserDTO> users = userService.findUsers(after, limit);
+        if (users.size() < limit) {
+            return ResponseEntity.ok(users);
+        }
+        String next = users.get(users.size() - 1).getId().toString();
+        URI nextPage = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("after", next)
+                .build()
+                .toUri();
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, next)
+                .header(HttpHeaders.LINK, "<" + nextPage + ">; rel=\"next\"")
+                .body(users);
+    }
+
+    @Operation(summary = "Stream all users as NDJSON", description = "Requires ADMIN role.")
+    @GetMapping(params = "stream=true", produces = NDJSON)
+    public void streamUsers(HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON);
+        userService.streamUsers(response.getOutputStream());
     }
 
     @Operation(summary = "Get users by role", description = "Requires ADMIN role.")
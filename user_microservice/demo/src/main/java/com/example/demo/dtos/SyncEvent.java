@@ -0,0 +1,154 @@
+package com.example.demo.dtos;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The user service's copy of the sync event (schema 1, see "Event contract" in README section
+ * 3.2). It publishes profile upserts carrying the {@code @Version} of {@code User}, applies the
+ * profiles created by the auth service, and ignores device fields.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class SyncEvent {
+
+    public static final int SCHEMA = 1;
+    /** A user deletion is final, so it outranks every upsert of that user. */
+    public static final long USER_DELETED_VERSION = Long.MAX_VALUE;
+
+    private int schema = SCHEMA;
+    private SyncEventType type;
+    private UUID entityId;
+    private long version;
+    private long occurredAt;
+
+    private String username;
+    private String name;
+    private String email;
+    private String role;
+
+    public SyncEvent() {
+    }
+
+    private SyncEvent(SyncEventType type, UUID entityId, long version) {
+        this.type = type;
+        this.entityId = entityId;
+        this.version = version;
+        this.occurredAt = System.currentTimeMillis();
+    }
+
+    public static SyncEvent userUpserted(UUID userId, long version, String username, String name, String email, String role) {
+        SyncEvent event = new SyncEvent(SyncEventType.USER_UPSERTED, userId, version);
+        event.username = username;
+        event.name = name;
+        event.email = email;
+        event.role = role;
+        return event;
+    }
+
+    public static SyncEvent userDeleted(UUID userId) {
+        return new SyncEvent(SyncEventType.USER_DELETED, userId, USER_DELETED_VERSION);
+    }
+
+    /**
+     * Collapses a batch to the latest event per entity, in first-seen order. A higher version
+     * wins; on equal versions a deletion wins, then the later event. Untyped events are dropped.
+     */
+    public static Map<UUID, SyncEvent> latestPerEntity(Collection<SyncEvent> events) {
+        Map<UUID, SyncEvent> latest = new LinkedHashMap<>();
+        for (SyncEvent event : events) {
+            if (event == null || !event.isTyped()) {
+                continue;
+            }
+            latest.merge(event.entityId, event, (current, candidate) -> {
+                if (candidate.version != current.version) {
+                    return candidate.version > current.version ? candidate : current;
+                }
+                return current.type.isDelete() && !candidate.type.isDelete() ? current : candidate;
+            });
+        }
+        return latest;
+    }
+
+    /** False for messages in the map format used before schema 1, which have no type or entity id. */
+    @JsonIgnore
+    public boolean isTyped() {
+        return type != null && entityId != null;
+    }
+
+    public int getSchema() {
+        return schema;
+    }
+
+    public void setSchema(int schema) {
+        this.schema = schema;
+    }
+
+    public SyncEventType getType() {
+        return type;
+    }
+
+    public void setType(SyncEventType type) {
+        this.type = type;
+    }
+
+    public UUID getEntityId() {
+        return entityId;
+    }
+
+    public void setEntityId(UUID entityId) {
+        this.entityId = entityId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public long getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(long occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public void setRole(String role) {
+        this.role = role;
+    }
+}
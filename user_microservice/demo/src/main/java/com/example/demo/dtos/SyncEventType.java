@@ -0,0 +1,16 @@
+package com.example.demo.dtos;
+
+/**
+ * What a {@link SyncEvent} did to its entity. Upserts carry the entity's full replicated state,
+ * so applying the latest one is enough.
+ */
+public enum SyncEventType {
+    USER_UPSERTED,
+    USER_DELETED,
+    DEVICE_UPSERTED,
+    DEVICE_DELETED;
+
+    public boolean isDelete() {
+        return this == USER_DELETED || this == DEVICE_DELETED;
+    }
+}
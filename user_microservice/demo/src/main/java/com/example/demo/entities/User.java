@@ -27,6 +27,11 @@ public class User implements Serializable {
     @Column(nullable = false)
     private Role role;
 
+    /** Bumped by every profile change and carried in user sync events to order them. */
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0 not null")
+    private long version;
+
     public User() {
     }
 
@@ -77,4 +82,12 @@ public class User implements Serializable {
     public void setRole(Role role) {
         this.role = role;
     }
-}
\ No newline at end of file
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+}
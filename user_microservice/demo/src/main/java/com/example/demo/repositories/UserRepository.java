@@ -1,14 +1,28 @@
 package com.example.demo.repositories;
 
+import com.example.demo.dtos.UserDTO;
 import com.example.demo.entities.Role;
 import com.example.demo.entities.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface UserRepository extends JpaRepository<User, UUID> {
+/**
+ * List reads return {@link UserDTO}s built by a JPQL constructor expression, so only the listed
+ * columns are selected and no entity enters the persistence context.
+ */
+public interface UserRepository extends JpaRepository<User, UUID>, UserRepositoryCustom {
+
+    String USER_DTO = "new com.example.demo.dtos.UserDTO(u.id, u.username, u.name, u.email, u.role)";
 
     /**
      * Find user by username
@@ -18,7 +32,21 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     /**
      * Find users by role
      */
-    List<User> findByRole(Role role);
+    @Query("SELECT " + USER_DTO + " FROM User u WHERE u.role = :role")
+    List<UserDTO> findDTOsByRole(@Param("role") Role role);
+
+    /**
+     * Keyset page of users: the first {@code limit} with an id after {@code after}
+     */
+    @Query("SELECT " + USER_DTO + " FROM User u WHERE u.id > :after ORDER BY u.id")
+    List<UserDTO> findPage(@Param("after") UUID after, Limit limit);
+
+    /**
+     * All users in id order, fetched through a cursor. Must be consumed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT " + USER_DTO + " FROM User u ORDER BY u.id")
+    Stream<UserDTO> streamAll();
 
     /**
      * Check if username exists
@@ -0,0 +1,14 @@
+package com.example.demo.repositories;
+
+import com.example.demo.entities.User;
+
+import java.util.Collection;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Inserts the given profiles in one JDBC batch. An existing profile is only overwritten by
+     * a newer version, so replayed or reordered events cannot roll it back.
+     */
+    void upsertAll(Collection<User> users);
+}
@@ -0,0 +1,42 @@
+package com.example.demo.repositories;
+
+import com.example.demo.entities.User;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO users (id, username, name, email, role, version) VALUES (?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (id) DO UPDATE SET username = EXCLUDED.username, name = EXCLUDED.name, " +
+            "email = EXCLUDED.email, role = EXCLUDED.role, version = EXCLUDED.version " +
+            "WHERE users.version < EXCLUDED.version";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void upsertAll(Collection<User> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(users.size());
+        for (User user : users) {
+            rows.add(new Object[]{
+                    user.getId(),
+                    user.getUsername(),
+                    user.getName(),
+                    user.getEmail(),
+                    user.getRole().name(),
+                    user.getVersion()
+            });
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+    }
+}
@@ -1,70 +1,113 @@
 package com.example.demo.services;
 
 import com.example.demo.config.RabbitConfig;
+import com.example.demo.dtos.SyncEvent;
+import com.example.demo.dtos.SyncEventType;
 import com.example.demo.entities.Role;
 import com.example.demo.entities.User;
 import com.example.demo.repositories.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
+/**
+ * Applies user sync events in batches. Each user keeps only its latest event; profiles are
+ * upserted by version in one JDBC batch and deletions removed in one statement, both
+ * idempotent, so a redelivered batch changes nothing.
+ * <p>
+ * An unreachable database rejects the batch for redelivery. Other failures fall back to one
+ * transaction per event, skipping and logging the events that fail on their own.
+ */
 @Service
 public class AuthSyncConsumer {
 
     private static final Logger log = LoggerFactory.getLogger(AuthSyncConsumer.class);
     private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
 
-    public AuthSyncConsumer(UserRepository userRepository) {
+    public AuthSyncConsumer(UserRepository userRepository, TransactionTemplate transactionTemplate) {
         this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
     }
 
-    @RabbitListener(queues = RabbitConfig.SYNC_QUEUE)
-    public void receiveSyncMessage(Map<String, Object> message) {
+    @RabbitListener(queues = RabbitConfig.SYNC_QUEUE, containerFactory = RabbitConfig.SYNC_BATCH_CONTAINER_FACTORY)
+    public void receiveSyncEvents(List<SyncEvent> events) {
+        long untyped = events.stream().filter(event -> !event.isTyped()).count();
+        if (untyped > 0) {
+            log.warn("Ignoring {} sync messages without a type or entity id (pre-schema-1 format)", untyped);
+        }
         try {
-            String action = (String) message.get("action");
-            
-            if ("create_user".equals(action)) {
-                String userIdStr = (String) message.get("userId");
-                String username = (String) message.get("username");
-                String name = (String) message.get("name");
-                String email = (String) message.get("email");
-                String roleStr = (String) message.get("role");
-
-                if (userIdStr != null && username != null) {
-                    UUID userId = UUID.fromString(userIdStr);
-                    
-                    if (!userRepository.existsById(userId)) {
-                        User user = new User(
-                            userId, 
-                            username, 
-                            name, 
-                            email, 
-                            Role.valueOf(roleStr)
-                        );
-                        userRepository.save(user);
-                        log.info("Synced new user from Auth Service: {}", username);
-                    } else {
-                        log.debug("User {} already exists, skipping sync.", username);
+            transactionTemplate.executeWithoutResult(status -> apply(events));
+        } catch (RuntimeException e) {
+            if (isDatabaseUnavailable(e)) {
+                throw e;
+            }
+            log.error("Sync batch of {} events failed, applying them one by one", events.size(), e);
+            for (SyncEvent event : events) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> apply(List.of(event)));
+                } catch (RuntimeException eventFailure) {
+                    if (isDatabaseUnavailable(eventFailure)) {
+                        throw eventFailure;
                     }
+                    log.error("Dropping sync event {} for {} (version {})",
+                            event.getType(), event.getEntityId(), event.getVersion(), eventFailure);
                 }
-            } else if ("delete_user".equals(action)) {
-                String userIdStr = (String) message.get("userId");
-                if (userIdStr != null) {
-                    UUID userId = UUID.fromString(userIdStr);
-                    if (userRepository.existsById(userId)) {
-                        userRepository.deleteById(userId);
-                        log.info("Synced deletion: Removed profile for user ID {}", userId);
-                    } else {
-                        log.warn("Synced deletion: User profile not found for ID {}", userId);
-                    }
+            }
+        }
+    }
+
+    private void apply(List<SyncEvent> events) {
+        List<User> created = new ArrayList<>();
+        List<UUID> deleted = new ArrayList<>();
+        for (SyncEvent event : SyncEvent.latestPerEntity(events).values()) {
+            if (event.getType() == SyncEventType.USER_UPSERTED) {
+                User user = toUser(event);
+                if (user != null) {
+                    created.add(user);
                 }
+            } else if (event.getType() == SyncEventType.USER_DELETED) {
+                deleted.add(event.getEntityId());
             }
-        } catch (Exception e) {
-            log.error("Error processing user sync message", e);
         }
+
+        userRepository.upsertAll(created);
+        if (!deleted.isEmpty()) {
+            userRepository.deleteAllByIdInBatch(deleted);
+        }
+        log.info("Applied {} sync events: {} profiles upserted, {} deleted", events.size(), created.size(), deleted.size());
+    }
+
+    private User toUser(SyncEvent event) {
+        if (event.getUsername() == null || event.getName() == null || event.getRole() == null) {
+            log.warn("Skipping sync event for user {}: incomplete profile", event.getEntityId());
+            return null;
+        }
+        try {
+            User user = new User(event.getEntityId(), event.getUsername(), event.getName(), event.getEmail(),
+                    Role.valueOf(event.getRole()));
+            user.setVersion(event.getVersion());
+            return user;
+        } catch (IllegalArgumentException e) {
+            log.warn("Skipping sync event for user {}: unknown role {}", event.getEntityId(), event.getRole());
+            return null;
+        }
+    }
+
+    private static boolean isDatabaseUnavailable(Throwable e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException;
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,8 @@
 package com.example.demo.services;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -9,7 +11,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.function.Function;
 
@@ -18,12 +19,44 @@ public class JwtService {
 
     private static final Logger log = LoggerFactory.getLogger(JwtService.class);
 
-    @Value("${app.jwt.secret}")
-    private String jwtSecret;
+    /** Built once; decoding the secret and building a parser per call showed up on every request. */
+    private final JwtParser parser;
+    private final VerifiedTokenCache verifiedTokens;
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
+    public JwtService(@Value("${app.jwt.secret}") String jwtSecret, VerifiedTokenCache verifiedTokens) {
+        this.parser = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret)))
+                .build();
+        this.verifiedTokens = verifiedTokens;
+    }
+
+    /**
+     * Verifies the token once and serves repeats from {@link VerifiedTokenCache} until it expires.
+     *
+     * @return the token's userId and role, or null if it is invalid, expired or has no expiry
+     */
+    public VerifiedToken verify(String token) {
+        VerifiedToken cached = verifiedTokens.get(token);
+        if (cached != null) {
+            return cached;
+        }
+        Claims claims;
+        try {
+            claims = extractAllClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.warn("JWT validation error: {}", e.getMessage());
+            return null;
+        }
+        Date expiration = claims.getExpiration();
+        if (expiration == null) {
+            // The auth service always sets exp; a token without one would never expire.
+            log.warn("JWT validation error: token has no expiration");
+            return null;
+        }
+        VerifiedToken verified = new VerifiedToken(claims.get("userId", String.class), claims.get("role", String.class),
+                expiration.getTime());
+        verifiedTokens.put(token, verified);
+        return verified;
     }
 
     public String extractUsername(String token) {
@@ -31,11 +64,7 @@ public class JwtService {
     }
     
     public Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
@@ -59,4 +88,4 @@ public class JwtService {
     private Date extractExpiration(String token) {
         return extractClaim(token, Claims::getExpiration);
     }
-}
\ No newline at end of file
+}
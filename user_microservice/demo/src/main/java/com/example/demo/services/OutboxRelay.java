@@ -0,0 +1,94 @@
+package com.example.demo.services;
+
+import com.example.demo.entities.OutboxEvent;
+import com.example.demo.repositories.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Drains {@code outbox_events} in id order. Each pass locks up to {@code app.outbox.batch-size}
+ * rows, publishes them on one channel, waits for RabbitMQ to confirm the whole batch and only
+ * then deletes them. If the broker is down or nacks, the transaction rolls back and the batch
+ * is retried on the next pass, so events are delivered at least once and never dropped.
+ * <p>
+ * Every replica runs the relay, but a batch is only taken under a transaction-scoped advisory
+ * lock, so one replica publishes at a time and events leave in id order. The others skip the pass.
+ */
+@Service
+public class OutboxRelay {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long confirmTimeoutMs;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       RabbitTemplate rabbitTemplate,
+                       TransactionTemplate transactionTemplate,
+                       @Value("${app.outbox.batch-size:100}") int batchSize,
+                       @Value("${app.outbox.confirm-timeout-ms:5000}") long confirmTimeoutMs) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.confirmTimeoutMs = confirmTimeoutMs;
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:200}")
+    public void relay() {
+        try {
+            Integer published;
+            do {
+                published = transactionTemplate.execute(status -> publishBatch());
+            } while (published != null && published == batchSize);
+        } catch (Exception e) {
+            LOGGER.warn("Outbox relay failed, retrying on next pass: {}", e.getMessage());
+        }
+    }
+
+    private int publishBatch() {
+        if (!outboxEventRepository.tryLockRelay()) {
+            return 0;
+        }
+        List<OutboxEvent> batch = outboxEventRepository.lockOldest(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        rabbitTemplate.invoke(operations -> {
+            for (OutboxEvent event : batch) {
+                operations.send(event.getExchange(), event.getRoutingKey(), toMessage(event));
+            }
+            operations.waitForConfirmsOrDie(confirmTimeoutMs);
+            return null;
+        });
+        outboxEventRepository.deleteAllInBatch(batch);
+        LOGGER.debug("Published {} outbox events", batch.size());
+        return batch.size();
+    }
+
+    /**
+     * The stored JSON is sent as is, without a {@code __TypeId__} header; consumers bind it to
+     * their own copy of {@code SyncEvent} from the listener's parameter type.
+     */
+    private static Message toMessage(OutboxEvent event) {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        properties.setContentEncoding(StandardCharsets.UTF_8.name());
+        properties.setDeliveryMode(MessageDeliveryMode.PERSISTENT);
+        return new Message(event.getPayload().getBytes(StandardCharsets.UTF_8), properties);
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.demo.services;
 
 import com.example.demo.config.RabbitConfig;
+import com.example.demo.dtos.SyncEvent;
 import com.example.demo.dtos.UserDTO;
 import com.example.demo.dtos.UserDetailsDTO;
 import com.example.demo.dtos.builders.UserBuilder;
@@ -9,37 +10,56 @@ import com.example.demo.entities.User;
 import com.example.demo.handlers.exceptions.model.CustomException;
 import com.example.demo.handlers.exceptions.model.ResourceNotFoundException;
 import com.example.demo.repositories.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class UserService {
     private static final Logger LOGGER = LoggerFactory.getLogger(UserService.class);
+    /** Lower bound for the first keyset page; random UUIDs are never nil. */
+    private static final UUID KEYSET_START = new UUID(0, 0);
+
     private final UserRepository userRepository;
-    private final RabbitTemplate rabbitTemplate;
+    private final OutboxService outboxService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public UserService(UserRepository userRepository, RabbitTemplate rabbitTemplate) {
+    public UserService(UserRepository userRepository, OutboxService outboxService, ObjectMapper objectMapper) {
         this.userRepository = userRepository;
-        this.rabbitTemplate = rabbitTemplate;
+        this.outboxService = outboxService;
+        this.objectMapper = objectMapper;
+    }
+
+    /** Up to {@code limit} users with an id after {@code after} (null for the first page), in id order. */
+    public List<UserDTO> findUsers(UUID after, int limit) {
+        return userRepository.findPage(after != null ? after : KEYSET_START, Limit.of(limit));
     }
 
-    public List<UserDTO> findUsers() {
-        List<User> userList = userRepository.findAll();
-        return userList.stream()
-                .map(UserBuilder::toUserDTO)
-                .collect(Collectors.toList());
+    /** Writes every user as NDJSON as rows arrive from the cursor. */
+    @Transactional(readOnly = true)
+    public void streamUsers(OutputStream out) throws IOException {
+        try (Stream<UserDTO> users = userRepository.streamAll();
+             SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(out)) {
+            Iterator<UserDTO> it = users.iterator();
+            while (it.hasNext()) {
+                writer.write(it.next());
+            }
+        }
     }
 
     public UserDetailsDTO findUserById(UUID id) {
@@ -51,6 +71,7 @@ public class UserService {
         return UserBuilder.toUserDetailsDTO(userOptional.get());
     }
 
+    @Transactional
     public UUID insert(UserDetailsDTO userDTO) {
         if (userRepository.existsByUsername(userDTO.getUsername())) {
             LOGGER.error("Username {} already exists", userDTO.getUsername());
@@ -69,22 +90,16 @@ public class UserService {
         
         
         user = userRepository.save(user);
-        
-        try {
-            Map<String, Object> syncMsg = new HashMap<>();
-            syncMsg.put("action", "create_user");
-            syncMsg.put("userId", user.getId().toString());
-            
-            rabbitTemplate.convertAndSend(RabbitConfig.SYNC_QUEUE, syncMsg);
-            LOGGER.debug("Sent sync message for user creation: {}", user.getId());
-        } catch (Exception e) {
-            LOGGER.error("Failed to send sync message", e);
-        }
+
+        outboxService.enqueue("", RabbitConfig.SYNC_QUEUE, SyncEvent.userUpserted(user.getId(), user.getVersion(),
+                user.getUsername(), user.getName(), user.getEmail(), user.getRole().name()));
+        LOGGER.debug("Queued sync message for user creation: {}", user.getId());
         
         LOGGER.debug("User with id {} was inserted in db", user.getId());
         return user.getId();
     }
 
+    @Transactional
     public void update(UUID id, UserDetailsDTO userDTO) {
         Optional<User> userOptional = userRepository.findById(id);
         if (!userOptional.isPresent()) {
@@ -109,10 +124,15 @@ public class UserService {
         user.setName(userDTO.getName());
         user.setRole(userDTO.getRole());
 
-        userRepository.save(user);
+        // Flush so the event carries the incremented version.
+        user = userRepository.saveAndFlush(user);
+
+        outboxService.enqueue("", RabbitConfig.SYNC_QUEUE, SyncEvent.userUpserted(user.getId(), user.getVersion(),
+                user.getUsername(), user.getName(), user.getEmail(), user.getRole().name()));
         LOGGER.debug("User with id {} was updated in db", id);
     }
 
+    @Transactional
     public void delete(UUID id) {
         Optional<User> userOptional = userRepository.findById(id);
         if (!userOptional.isPresent()) {
@@ -120,26 +140,15 @@ public class UserService {
             throw new ResourceNotFoundException(User.class.getSimpleName() + " with id: " + id);
         }
         userRepository.deleteById(id);
-        
-        try {
-            Map<String, Object> syncMsg = new HashMap<>();
-            syncMsg.put("action", "delete_user");
-            syncMsg.put("userId", id);
-
-            rabbitTemplate.convertAndSend(RabbitConfig.SYNC_QUEUE, syncMsg);
-            LOGGER.debug("Sent sync message for user deletion: {}", id);
-        } catch (Exception e) {
-            LOGGER.error("Failed to send sync message", e);
-        }
+
+        outboxService.enqueue("", RabbitConfig.SYNC_QUEUE, SyncEvent.userDeleted(id));
+        LOGGER.debug("Queued sync message for user deletion: {}", id);
         
         LOGGER.debug("User with id {} was deleted from db", id);
     }
 
     public List<UserDTO> findUsersByRole(Role role) {
-        List<User> userList = userRepository.findByRole(role);
-        return userList.stream()
-                .map(UserBuilder::toUserDTO)
-                .collect(Collectors.toList());
+        return userRepository.findDTOsByRole(role);
     }
 
     public UserDetailsDTO findUserByUsername(String username) {
@@ -0,0 +1,123 @@
+package com.example.demo.benchmarks;
+
+import com.example.demo.dtos.UserDTO;
+import com.example.demo.dtos.builders.UserBuilder;
+import com.example.demo.entities.Role;
+import com.example.demo.entities.User;
+import com.example.demo.repositories.UserRepository;
+import com.example.demo.services.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code GET /api/users/role/{role}} against an in-memory H2 table of 50 000 users, one in fifty an
+ * admin: the former entity query mapped through {@link UserBuilder} vs. the DTO projection.
+ * Run with {@code -prof gc} to compare allocation per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserQueryBenchmark {
+
+    private static final int USERS = 50_000;
+    private static final int ADMIN_EVERY = 50;
+    private static final int INSERT_BATCH = 1_000;
+    private static final String INSERT_SQL = "INSERT INTO users (id, username, name, email, role) VALUES (?, ?, ?, ?, ?)";
+
+    @Param({"ADMIN", "CLIENT"})
+    private Role role;
+
+    private ConfigurableApplicationContext context;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnly;
+    private UserService userService;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(QueryConfig.class)
+                .web(WebApplicationType.NONE)
+                // Arguments override application.properties, which points at PostgreSQL.
+                .run("--spring.datasource.url=jdbc:h2:mem:users;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.properties.hibernate.show_sql=false",
+                        "--logging.level.root=WARN");
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        entityManager = context.getBean(EntityManager.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        userService = new UserService(userRepository, null, new ObjectMapper());
+
+        // Plain INSERT: H2 does not support the ON CONFLICT DO UPDATE of upsertAll.
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH);
+        for (int i = 0; i < USERS; i++) {
+            batch.add(new Object[]{UUID.randomUUID(), "user" + i, "User " + i, "user" + i + "@example.com",
+                    (i % ADMIN_EVERY == 0 ? Role.ADMIN : Role.CLIENT).name()});
+            if (batch.size() == INSERT_BATCH) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+                batch.clear();
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    /** What the service did before: managed entities, then a copy into DTOs. */
+    @Benchmark
+    public List<UserDTO> entities() {
+        return readOnly.execute(status -> entityManager
+                .createQuery("SELECT u FROM User u WHERE u.role = :role", User.class)
+                .setParameter("role", role)
+                .getResultStream()
+                .map(UserBuilder::toUserDTO)
+                .toList());
+    }
+
+    @Benchmark
+    public List<UserDTO> projection() {
+        return userService.findUsersByRole(role);
+    }
+
+    @Configuration
+    @ImportAutoConfiguration({
+            DataSourceAutoConfiguration.class,
+            DataSourceTransactionManagerAutoConfiguration.class,
+            JdbcTemplateAutoConfiguration.class,
+            HibernateJpaAutoConfiguration.class,
+            TransactionAutoConfiguration.class
+    })
+    @EntityScan("com.example.demo.entities")
+    @EnableJpaRepositories("com.example.demo.repositories")
+    static class QueryConfig {
+    }
+}
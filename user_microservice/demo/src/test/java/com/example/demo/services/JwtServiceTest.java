@@ -0,0 +1,86 @@
+package com.example.demo.services;
+
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtServiceTest {
+
+    private static final String USER_ID = "5b0f4e3c-3c9a-4c4e-9a57-8a0b2f9d1e11";
+
+    private final String secret = randomSecret();
+    private final VerifiedTokenCache cache = new VerifiedTokenCache(100);
+    private final JwtService jwtService = new JwtService(secret, cache);
+
+    @Test
+    void verifiesAndCachesASignedToken() {
+        String token = token(secret).expiration(inMinutes(10)).compact();
+
+        VerifiedToken verified = jwtService.verify(token);
+
+        assertThat(verified).isNotNull();
+        assertThat(verified.userId()).isEqualTo(USER_ID);
+        assertThat(verified.role()).isEqualTo("CLIENT");
+        assertThat(cache.get(token)).isEqualTo(verified);
+    }
+
+    @Test
+    void rejectsATokenWithoutExpiration() {
+        String token = token(secret).compact();
+
+        assertThat(jwtService.verify(token)).isNull();
+        assertThat(jwtService.isTokenValid(token)).isFalse();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void rejectsAnExpiredToken() {
+        String token = token(secret).expiration(inMinutes(-1)).compact();
+
+        assertThat(jwtService.verify(token)).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void rejectsATokenSignedWithAnotherKey() {
+        String token = token(randomSecret()).expiration(inMinutes(10)).compact();
+
+        assertThat(jwtService.verify(token)).isNull();
+    }
+
+    @Test
+    void cacheDoesNotServeAnEntryPastItsExpiry() {
+        cache.put("token", new VerifiedToken(USER_ID, "CLIENT", System.currentTimeMillis() - 1));
+
+        assertThat(cache.get("token")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    private static JwtBuilder token(String secret) {
+        return Jwts.builder()
+                .subject("test-user")
+                .claim("role", "CLIENT")
+                .claim("userId", USER_ID)
+                .issuedAt(new Date())
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)));
+    }
+
+    private static Date inMinutes(long minutes) {
+        return new Date(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(minutes));
+    }
+
+    private static String randomSecret() {
+        byte[] secret = new byte[32];
+        ThreadLocalRandom.current().nextBytes(secret);
+        return Base64.getEncoder().encodeToString(secret);
+    }
+}